@@ -0,0 +1,36 @@
+package ru.anhimov.library.cache;
+
+import lombok.Getter;
+
+@Getter
+public class CacheStats {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final int size;
+    private final long weight;
+    private final long maxWeight;
+    private final long version;
+
+    public CacheStats(long hits, long misses, long evictions, int size, long weight, long maxWeight, long version) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+        this.weight = weight;
+        this.maxWeight = maxWeight;
+        this.version = version;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                ", size=" + size +
+                ", weight=" + weight +
+                ", version=" + version +
+                '}';
+    }
+}
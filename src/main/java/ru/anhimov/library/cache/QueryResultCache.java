@@ -0,0 +1,114 @@
+package ru.anhimov.library.cache;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public class QueryResultCache {
+    private final int maxWeight;
+    private final long settleNanos;
+    private final AtomicLong version = new AtomicLong();
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long weight;
+    private long invalidatedAt;
+
+    public QueryResultCache(int maxWeight) {
+        this(maxWeight, 0);
+    }
+
+    public QueryResultCache(int maxWeight, long settleMillis) {
+        this.maxWeight = maxWeight;
+        this.settleNanos = TimeUnit.MILLISECONDS.toNanos(settleMillis);
+        this.invalidatedAt = System.nanoTime() - settleNanos;
+    }
+
+    public static String key(String operation, Object... parts) {
+        StringBuilder key = new StringBuilder(operation);
+        for (Object part : parts) {
+            key.append('|').append(part);
+        }
+        return key.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Supplier<T> loader) {
+        long loadedVersion = version.get();
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.version == loadedVersion) {
+                hits.increment();
+                return (T) entry.value;
+            }
+        }
+        misses.increment();
+        T value = loader.get();
+        put(key, value, loadedVersion);
+        return value;
+    }
+
+    public synchronized void invalidateAll() {
+        version.incrementAndGet();
+        invalidatedAt = System.nanoTime();
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), entries.size(), weight, maxWeight, version.get());
+    }
+
+    private synchronized void put(String key, Object value, long loadedVersion) {
+        int entryWeight = weigh(value);
+        if (loadedVersion != version.get() || entryWeight > maxWeight) {
+            return;
+        }
+        // A replica may not have caught up with the write that bumped the version yet
+        if (System.nanoTime() - invalidatedAt < settleNanos) {
+            return;
+        }
+        Entry previous = entries.put(key, new Entry(value, loadedVersion, entryWeight));
+        if (previous != null) {
+            weight -= previous.weight;
+        }
+        weight += entryWeight;
+
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            weight -= eldest.next().getValue().weight;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private static int weigh(Object value) {
+        if (value instanceof Collection) {
+            return Math.max(1, ((Collection<?>) value).size());
+        }
+        if (value instanceof Slice) {
+            return Math.max(1, ((Slice<?>) value).getNumberOfElements());
+        }
+        return 1;
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long version;
+        private final int weight;
+
+        private Entry(Object value, long version, int weight) {
+            this.value = value;
+            this.version = version;
+            this.weight = weight;
+        }
+    }
+}
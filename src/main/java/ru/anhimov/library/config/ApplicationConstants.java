@@ -6,6 +6,8 @@ public final class ApplicationConstants {
     public static final String REPOSITORIES_PACKAGE = BASE_PACKAGE + ".repositories";
     public static final String PROD_HIBERNATE_PROPERTIES = "classpath:hibernate.properties";
     public static final String TEST_HIBERNATE_PROPERTIES = "classpath:hibernate-test.properties";
+    public static final String MIGRATIONS_ROOT = "classpath:db/migration/";
+    public static final String COMMON_MIGRATIONS = MIGRATIONS_ROOT + "common";
 
     public static final String VIEWS_PREFIX = "/WEB-INF/views/";
     public static final String VIEWS_SUFFIX = ".html";
@@ -18,6 +20,19 @@ public final class ApplicationConstants {
     public static final String ROOT_MAPPING = "/";
     public static final String FILTER_URL_PATTERN = "/*";
 
+    public static final String DEFAULT_PAGE_SIZE = "10";
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int STREAM_CHUNK_SIZE = 100;
+    public static final String DEFAULT_SUGGEST_LIMIT = "10";
+    public static final int MAX_SUGGEST_LIMIT = 50;
+    public static final String DEFAULT_FUZZY_DISTANCE = "2";
+    public static final int MAX_FUZZY_DISTANCE = 2;
+    public static final int PEOPLE_PICKER_SIZE = 20;
+    public static final int BULK_UPDATE_BATCH_SIZE = 500;
+    public static final int STATS_MONTHS_SHOWN = 12;
+    public static final String JPA_READ_PATH = "jpa";
+    public static final String JDBC_READ_PATH = "jdbc";
+
     public static final String PROD_PROFILE = "prod";
     public static final String TEST_PROFILE = "test";
 
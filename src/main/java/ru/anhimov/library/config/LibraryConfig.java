@@ -0,0 +1,113 @@
+package ru.anhimov.library.config;
+
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import ru.anhimov.library.cache.QueryResultCache;
+import ru.anhimov.library.dao.BookDAO;
+import ru.anhimov.library.dao.PersonDAO;
+import ru.anhimov.library.jfr.FlightRecorderPostProcessor;
+import ru.anhimov.library.metrics.LatencyMetrics;
+import ru.anhimov.library.metrics.PrometheusExporter;
+import ru.anhimov.library.metrics.QueryBudgetMetrics;
+import ru.anhimov.library.metrics.QueryBudgets;
+import ru.anhimov.library.metrics.ReminderMetrics;
+import ru.anhimov.library.metrics.ServiceTimingPostProcessor;
+import ru.anhimov.library.repositories.BookListQueries;
+import ru.anhimov.library.repositories.BookRepository;
+import ru.anhimov.library.repositories.PersonDetailQueries;
+import ru.anhimov.library.repositories.PersonRepository;
+import ru.anhimov.library.services.LoanPolicy;
+import ru.anhimov.library.stats.CirculationStats;
+
+import javax.persistence.EntityManagerFactory;
+
+@Configuration
+public class LibraryConfig {
+    private final Environment env;
+
+    @Autowired
+    public LibraryConfig(Environment env) {
+        this.env = env;
+    }
+
+    @Bean
+    public QueryResultCache queryResultCache() {
+        return new QueryResultCache(env.getRequiredProperty("library.query_cache.max_weight", Integer.class),
+                env.getProperty("library.read_your_writes_ms", Long.class, 5_000L));
+    }
+
+    @Bean
+    public LoanPolicy loanPolicy() {
+        return new LoanPolicy(env.getRequiredProperty("library.loan.overdue_days", Integer.class));
+    }
+
+    @Bean
+    public CirculationStats circulationStats() {
+        return new CirculationStats(env.getRequiredProperty("library.stats.top_k", Integer.class),
+                ApplicationConstants.STATS_MONTHS_SHOWN);
+    }
+
+    @Bean
+    public ReminderMetrics reminderMetrics() {
+        return new ReminderMetrics();
+    }
+
+    @Bean
+    public QueryBudgets queryBudgets() {
+        return QueryBudgets.parse(env.getRequiredProperty("library.query_budget.default", Integer.class),
+                env.getProperty("library.query_budget.endpoints", ""));
+    }
+
+    @Bean
+    public QueryBudgetMetrics queryBudgetMetrics() {
+        return new QueryBudgetMetrics();
+    }
+
+    @Bean
+    public LatencyMetrics latencyMetrics() {
+        return new LatencyMetrics(metricsEnabled(env));
+    }
+
+    @Bean
+    public static ServiceTimingPostProcessor serviceTimingPostProcessor(Environment env,
+                                                                        ObjectProvider<LatencyMetrics> latencyMetrics) {
+        return new ServiceTimingPostProcessor(metricsEnabled(env), latencyMetrics);
+    }
+
+    @Bean
+    public static FlightRecorderPostProcessor flightRecorderPostProcessor() {
+        return new FlightRecorderPostProcessor();
+    }
+
+    @Bean
+    public PrometheusExporter prometheusExporter(EntityManagerFactory entityManagerFactory) {
+        return new PrometheusExporter(latencyMetrics(),
+                entityManagerFactory.unwrap(SessionFactory.class).getStatistics());
+    }
+
+    @Bean
+    @Primary
+    public BookListQueries bookListQueries(BookRepository bookRepository, BookDAO bookDAO) {
+        return usesJdbcReadPath() ? bookDAO : bookRepository;
+    }
+
+    @Bean
+    @Primary
+    public PersonDetailQueries personDetailQueries(PersonRepository personRepository, PersonDAO personDAO) {
+        return usesJdbcReadPath() ? personDAO : personRepository;
+    }
+
+    private static boolean metricsEnabled(Environment env) {
+        return env.getRequiredProperty("library.metrics.enabled", Boolean.class);
+    }
+
+    private boolean usesJdbcReadPath() {
+        return ApplicationConstants.JDBC_READ_PATH.equalsIgnoreCase(
+                env.getProperty("library.read_path", ApplicationConstants.JPA_READ_PATH).trim());
+    }
+}
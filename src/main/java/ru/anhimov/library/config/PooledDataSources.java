@@ -0,0 +1,66 @@
+package ru.anhimov.library.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+import ru.anhimov.library.routing.ReplicaRoutingDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class PooledDataSources {
+    private static final String PROPERTY_SEPARATOR = ";";
+    private static final String VALUE_SEPARATOR = "=";
+    private static final String URL_SEPARATOR = ",";
+    public static final String PRIMARY_POOL = "primary";
+    public static final String REPLICA_POOL_PREFIX = "replica-";
+
+    public static ReplicaRoutingDataSource createRouting(Environment env, MetricsTrackerFactory metrics) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : env.getProperty("datasource.replica_urls", "").split(URL_SEPARATOR)) {
+            if (StringUtils.hasText(url)) {
+                replicas.add(create(env, url.trim(), REPLICA_POOL_PREFIX + (replicas.size() + 1), metrics));
+            }
+        }
+        return new ReplicaRoutingDataSource(create(env, metrics), replicas,
+                env.getProperty("datasource.replica_retry_ms", Long.class, 30_000L));
+    }
+
+    public static HikariDataSource create(Environment env, MetricsTrackerFactory metrics) {
+        return create(env, env.getRequiredProperty("datasource.url"), PRIMARY_POOL, metrics);
+    }
+
+    private static HikariDataSource create(Environment env, String url, String poolName, MetricsTrackerFactory metrics) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setDriverClassName(env.getRequiredProperty("datasource.driver_class"));
+        config.setJdbcUrl(url);
+        config.setUsername(env.getRequiredProperty("datasource.username"));
+        config.setPassword(env.getRequiredProperty("datasource.password"));
+
+        config.setMinimumIdle(env.getRequiredProperty("hikari.minimum_idle", Integer.class));
+        config.setMaximumPoolSize(env.getRequiredProperty("hikari.maximum_pool_size", Integer.class));
+        config.setConnectionTimeout(env.getRequiredProperty("hikari.connection_timeout_ms", Long.class));
+        config.setLeakDetectionThreshold(env.getRequiredProperty("hikari.leak_detection_threshold_ms", Long.class));
+        for (String property : env.getRequiredProperty("hikari.data_source_properties").split(PROPERTY_SEPARATOR)) {
+            String[] keyValue = property.split(VALUE_SEPARATOR, 2);
+            if (keyValue.length == 2) {
+                config.addDataSourceProperty(keyValue[0].trim(), keyValue[1].trim());
+            }
+        }
+        if (metrics != null) {
+            config.setMetricsTrackerFactory(metrics);
+        }
+        if (!PRIMARY_POOL.equals(poolName)) {
+            // An unreachable replica must not stop startup; routing marks it down on the first failed checkout
+            config.setInitializationFailTimeout(-1);
+        }
+
+        return new HikariDataSource(config);
+    }
+
+    private PooledDataSources() {
+    }
+}
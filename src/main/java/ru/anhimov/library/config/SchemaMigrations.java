@@ -0,0 +1,35 @@
+package ru.anhimov.library.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.Locale;
+
+public final class SchemaMigrations {
+    private static final String BASELINE_VERSION = "0";
+
+    private SchemaMigrations() {
+    }
+
+    public static Flyway create(DataSource dataSource) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations(ApplicationConstants.COMMON_MIGRATIONS, ApplicationConstants.MIGRATIONS_ROOT + vendor(dataSource))
+                .baselineOnMigrate(true)
+                .baselineVersion(BASELINE_VERSION)
+                .validateOnMigrate(true)
+                .load();
+    }
+
+    static String vendor(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return product.toLowerCase(Locale.ROOT).replace(" ", "");
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Cannot determine the database vendor for schema migrations", e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package ru.anhimov.library.config;
+
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+import ru.anhimov.library.metrics.SlowQueryLog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public final class SlowQueryLogs {
+
+    private SlowQueryLogs() {
+    }
+
+    public static SlowQueryLog create(Environment env) {
+        SlowQueryLog log = new SlowQueryLog(
+                env.getRequiredProperty("library.slow_queries.threshold_ms", Long.class),
+                env.getRequiredProperty("library.slow_queries.explain", Boolean.class),
+                env.getRequiredProperty("library.slow_queries.buffer_size", Integer.class));
+        String file = env.getProperty("library.slow_queries.log_file", "");
+        if (log.isEnabled() && StringUtils.hasText(file)) {
+            try {
+                Path parent = Paths.get(file.trim()).toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                log.writeTo(file.trim(), env.getRequiredProperty("library.slow_queries.log_file_limit_bytes", Integer.class),
+                        env.getRequiredProperty("library.slow_queries.log_file_count", Integer.class));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open the slow query log " + file, e);
+            }
+        }
+        return log;
+    }
+}
@@ -1,18 +1,25 @@
 package ru.anhimov.library.config;
 
+import org.flywaydb.core.Flyway;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.context.annotation.Profile;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import ru.anhimov.library.metrics.CountingDataSource;
+import ru.anhimov.library.metrics.PoolMetrics;
+import ru.anhimov.library.metrics.SlowQueryLog;
+import ru.anhimov.library.routing.ReplicaRoutingDataSource;
 
 import javax.sql.DataSource;
 import java.util.Properties;
@@ -30,14 +37,36 @@ public class SpringDataSourceTestConfig {
         this.env = env;
     }
 
+    @Bean
+    public PoolMetrics poolMetrics() {
+        return new PoolMetrics();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource() {
+        return PooledDataSources.createRouting(env, poolMetrics());
+    }
+
+    @Bean
+    public SlowQueryLog slowQueryLog() {
+        return SlowQueryLogs.create(env);
+    }
+
     @Bean
     public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName(env.getRequiredProperty("hibernate.driver_class"));
-        dataSource.setUrl(env.getRequiredProperty("hibernate.connection.url"));
-        dataSource.setUsername(env.getRequiredProperty("hibernate.connection.username"));
-        dataSource.setPassword(env.getRequiredProperty("hibernate.connection.password"));
-        return dataSource;
+        return new LazyConnectionDataSourceProxy(new CountingDataSource(routingDataSource(), slowQueryLog()));
+    }
+
+    @Bean(initMethod = "migrate")
+    public Flyway flyway() {
+        return SchemaMigrations.create(routingDataSource());
+    }
+
+    @Bean
+    public JdbcTemplate jdbcTemplate() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource());
+        jdbcTemplate.setFetchSize(env.getRequiredProperty("hibernate.jdbc.fetch_size", Integer.class));
+        return jdbcTemplate;
     }
 
     private Properties hibernateProperties() {
@@ -46,10 +75,19 @@ public class SpringDataSourceTestConfig {
         properties.put("hibernate.hbm2ddl.auto", env.getRequiredProperty("hibernate.hbm2ddl.auto"));
         properties.put("hibernate.show_sql", env.getRequiredProperty("hibernate.show_sql"));
         properties.put("hibernate.format_sql", env.getRequiredProperty("hibernate.format_sql"));
+        properties.put("hibernate.jdbc.fetch_size", env.getRequiredProperty("hibernate.jdbc.fetch_size"));
+        properties.put("hibernate.cache.use_second_level_cache", env.getRequiredProperty("hibernate.cache.use_second_level_cache"));
+        properties.put("hibernate.cache.use_query_cache", env.getRequiredProperty("hibernate.cache.use_query_cache"));
+        properties.put("hibernate.cache.region.factory_class", env.getRequiredProperty("hibernate.cache.region.factory_class"));
+        properties.put("hibernate.javax.cache.provider", env.getRequiredProperty("hibernate.javax.cache.provider"));
+        properties.put("hibernate.javax.cache.uri", env.getRequiredProperty("hibernate.javax.cache.uri"));
+        properties.put("hibernate.cache.auto_evict_collection_cache", env.getRequiredProperty("hibernate.cache.auto_evict_collection_cache"));
+        properties.put("hibernate.generate_statistics", env.getRequiredProperty("hibernate.generate_statistics"));
         return properties;
     }
 
     @Bean
+    @DependsOn("flyway")
     public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
         LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
         em.setDataSource(dataSource());
@@ -6,11 +6,19 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ViewResolverRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.thymeleaf.spring5.SpringTemplateEngine;
 import org.thymeleaf.spring5.templateresolver.SpringResourceTemplateResolver;
 import org.thymeleaf.spring5.view.ThymeleafViewResolver;
+import ru.anhimov.library.jfr.FlightRecorderInterceptor;
+import ru.anhimov.library.metrics.HandlerTimingInterceptor;
+import ru.anhimov.library.metrics.LatencyMetrics;
+import ru.anhimov.library.metrics.QueryBudgetInterceptor;
+import ru.anhimov.library.metrics.QueryBudgetMetrics;
+import ru.anhimov.library.metrics.QueryBudgets;
+import ru.anhimov.library.routing.ReadYourWritesInterceptor;
 
 @Configuration
 @ComponentScan(ApplicationConstants.BASE_PACKAGE)
@@ -42,6 +50,36 @@ public class SpringMVCConfig implements WebMvcConfigurer {
         return templateEngine;
     }
 
+    @Bean
+    public ReadYourWritesInterceptor readYourWritesInterceptor() {
+        return new ReadYourWritesInterceptor(
+                applicationContext.getEnvironment().getProperty("library.read_your_writes_ms", Long.class, 5_000L));
+    }
+
+    @Bean
+    public QueryBudgetInterceptor queryBudgetInterceptor() {
+        return new QueryBudgetInterceptor(applicationContext.getBean(QueryBudgets.class),
+                applicationContext.getBean(QueryBudgetMetrics.class));
+    }
+
+    @Bean
+    public HandlerTimingInterceptor handlerTimingInterceptor() {
+        return new HandlerTimingInterceptor(applicationContext.getBean(LatencyMetrics.class));
+    }
+
+    @Bean
+    public FlightRecorderInterceptor flightRecorderInterceptor() {
+        return new FlightRecorderInterceptor();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(flightRecorderInterceptor());
+        registry.addInterceptor(handlerTimingInterceptor());
+        registry.addInterceptor(queryBudgetInterceptor());
+        registry.addInterceptor(readYourWritesInterceptor());
+    }
+
     @Override
     public void configureViewResolvers(ViewResolverRegistry registry) {
         ThymeleafViewResolver resolver = new ThymeleafViewResolver();
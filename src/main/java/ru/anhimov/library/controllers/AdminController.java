@@ -0,0 +1,62 @@
+package ru.anhimov.library.controllers;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.anhimov.library.cache.CacheStats;
+import ru.anhimov.library.cache.QueryResultCache;
+import ru.anhimov.library.metrics.PoolMetrics;
+import ru.anhimov.library.metrics.PoolSnapshot;
+import ru.anhimov.library.metrics.QueryBudgetBreach;
+import ru.anhimov.library.metrics.QueryBudgetMetrics;
+import ru.anhimov.library.metrics.ReminderMetrics;
+import ru.anhimov.library.metrics.ReminderSnapshot;
+import ru.anhimov.library.metrics.SlowQuery;
+import ru.anhimov.library.metrics.SlowQueryLog;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+    private final QueryResultCache queryCache;
+    private final PoolMetrics poolMetrics;
+    private final ReminderMetrics reminderMetrics;
+    private final QueryBudgetMetrics queryBudgetMetrics;
+    private final SlowQueryLog slowQueryLog;
+
+    public AdminController(QueryResultCache queryCache, PoolMetrics poolMetrics, ReminderMetrics reminderMetrics,
+                           QueryBudgetMetrics queryBudgetMetrics, SlowQueryLog slowQueryLog) {
+        this.queryCache = queryCache;
+        this.poolMetrics = poolMetrics;
+        this.reminderMetrics = reminderMetrics;
+        this.queryBudgetMetrics = queryBudgetMetrics;
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @GetMapping("/query-cache")
+    public CacheStats queryCacheStats() {
+        return queryCache.getStats();
+    }
+
+    @GetMapping("/pool")
+    public Map<String, PoolSnapshot> poolStats() {
+        return poolMetrics.getSnapshot();
+    }
+
+    @GetMapping("/reminders")
+    public ReminderSnapshot reminderStats() {
+        return reminderMetrics.getSnapshot();
+    }
+
+    @GetMapping("/query-budgets")
+    public List<QueryBudgetBreach> queryBudgetBreaches() {
+        return queryBudgetMetrics.getSnapshot();
+    }
+
+    @GetMapping("/slow-queries")
+    public List<SlowQuery> slowQueries() {
+        return slowQueryLog.getRecent();
+    }
+}
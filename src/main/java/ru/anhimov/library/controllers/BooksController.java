@@ -1,23 +1,34 @@
 package ru.anhimov.library.controllers;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import ru.anhimov.library.config.ApplicationConstants;
+import ru.anhimov.library.dto.BookListItem;
+import ru.anhimov.library.dto.BulkUpdateReport;
 import ru.anhimov.library.models.Book;
 import ru.anhimov.library.models.Person;
 import ru.anhimov.library.services.BookService;
 import ru.anhimov.library.services.PersonService;
+import ru.anhimov.library.util.BookCursor;
 import ru.anhimov.library.util.BookValidator;
 
 import javax.validation.Valid;
 import java.util.List;
-import java.util.Optional;
 
 @Controller
 @RequestMapping("/books")
 public class BooksController {
+    public static final String ALREADY_BORROWED = "The book has already been borrowed by someone else";
+    public static final String ALREADY_RELEASED = "The book has already been returned";
+
     private final BookValidator bookValidator;
     private final BookService bookService;
     private final PersonService personService;
@@ -35,16 +46,15 @@ public class BooksController {
                            @RequestParam(value = "sort_by_year", defaultValue = "false") Boolean sortByYear) {
 
         if (page != null && size != null) {
-            Page<Book> bookPage = bookService.findAllBooks(page, size, sortByYear);
+            Page<BookListItem> bookPage = bookService.findAllBooks(page, size, sortByYear);
             model.addAttribute("bookPage", bookPage);
             model.addAttribute("currentPage", page);
             model.addAttribute("pageSize", size);
             model.addAttribute("totalPages", bookPage.getTotalPages());
         } else {
-            List<Book> books = bookService.findAllBooks(sortByYear);
-            model.addAttribute("bookPage", books);
+            model.addAttribute("bookPage", bookService.streamAllBooks(sortByYear));
             model.addAttribute("currentPage", 0);
-            model.addAttribute("pageSize", books.size());
+            model.addAttribute("pageSize", ApplicationConstants.STREAM_CHUNK_SIZE);
             model.addAttribute("totalPages", 1);
         }
         model.addAttribute("isSortByYear", sortByYear);
@@ -52,6 +62,30 @@ public class BooksController {
         return "books/index";
     }
 
+    @GetMapping(params = "after")
+    public String getBooksAfter(Model model,
+                                @RequestParam("after") String after,
+                                @RequestParam(value = "size", defaultValue = ApplicationConstants.DEFAULT_PAGE_SIZE) Integer size,
+                                @RequestParam(value = "sort_by_year", defaultValue = "false") Boolean sortByYear) {
+
+        int boundedSize = boundedPageSize(size);
+        Slice<BookListItem> bookSlice = bookService.findBooksAfter(decodeCursor(after), boundedSize, sortByYear);
+        addCursorAttributes(model, bookSlice, boundedSize, sortByYear);
+        return "books/index";
+    }
+
+    @GetMapping(params = "before")
+    public String getBooksBefore(Model model,
+                                 @RequestParam("before") String before,
+                                 @RequestParam(value = "size", defaultValue = ApplicationConstants.DEFAULT_PAGE_SIZE) Integer size,
+                                 @RequestParam(value = "sort_by_year", defaultValue = "false") Boolean sortByYear) {
+
+        int boundedSize = boundedPageSize(size);
+        Slice<BookListItem> bookSlice = bookService.findBooksBefore(decodeCursor(before), boundedSize, sortByYear);
+        addCursorAttributes(model, bookSlice, boundedSize, sortByYear);
+        return "books/index";
+    }
+
     @GetMapping("/search")
     public String search() {
         return "books/search";
@@ -59,24 +93,40 @@ public class BooksController {
 
     @PostMapping("/search")
     public String search(Model model,
-                         @RequestParam(value = "query") String query) {
+                         @RequestParam(value = "query") String query,
+                         @RequestParam(value = "fuzzy", defaultValue = "false") Boolean fuzzy,
+                         @RequestParam(value = "distance", defaultValue = ApplicationConstants.DEFAULT_FUZZY_DISTANCE) Integer distance) {
 
-        model.addAttribute("books", bookService.findBookByTitleLikeIgnoreCase(query));
+        if (fuzzy) {
+            int boundedDistance = Math.max(0, Math.min(distance, ApplicationConstants.MAX_FUZZY_DISTANCE));
+            model.addAttribute("books", bookService.fuzzySearchBooks(query, boundedDistance));
+        } else {
+            model.addAttribute("books", bookService.searchBooks(query));
+        }
+        model.addAttribute("query", query);
+        model.addAttribute("isFuzzy", fuzzy);
         return "books/search";
     }
 
     @GetMapping("/{id}")
     public String getBook(@PathVariable("id") int id,
                           Model model,
-                          @ModelAttribute("person") Person person) {
+                          @ModelAttribute("person") Person person,
+                          @RequestParam(value = "people_query", defaultValue = "") String peopleQuery,
+                          @RequestParam(value = "people_page", defaultValue = "0") Integer peoplePage) {
 
-        model.addAttribute("book", bookService.findById(id));
-        Optional<Person> bookOwner = bookService.findBookOwner(id);
+        Book book = bookService.findWithOwnerById(id);
+        model.addAttribute("book", book);
 
-        if (bookOwner.isPresent()) {
-            model.addAttribute("bookOwner", bookOwner.get());
+        if (book != null && book.getOwner() != null) {
+            model.addAttribute("bookOwner", book.getOwner());
         } else {
-            model.addAttribute("people", personService.findAll());
+            int boundedPage = Math.max(0, peoplePage);
+            Slice<Person> people = personService.findByNamePrefix(peopleQuery, boundedPage, ApplicationConstants.PEOPLE_PICKER_SIZE);
+            model.addAttribute("people", people.getContent());
+            model.addAttribute("peopleQuery", peopleQuery);
+            model.addAttribute("peoplePage", boundedPage);
+            model.addAttribute("hasMorePeople", people.hasNext());
         }
         return "books/show";
     }
@@ -122,15 +172,66 @@ public class BooksController {
         return "redirect:/books";
     }
 
+    @PatchMapping("/assign")
+    @ResponseBody
+    public BulkUpdateReport assignBooks(@RequestParam("ids") List<Integer> ids,
+                                        @RequestParam("person_id") int personId) {
+        Person selectedPerson = personService.findById(personId);
+        if (selectedPerson == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Person " + personId + " not found");
+        }
+        return bookService.assignAll(ids, selectedPerson);
+    }
+
+    @PatchMapping("/release")
+    @ResponseBody
+    public BulkUpdateReport releaseBooks(@RequestParam("ids") List<Integer> ids) {
+        try {
+            return bookService.releaseAll(ids);
+        } catch (OptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, ALREADY_RELEASED, e);
+        }
+    }
+
     @PatchMapping("/{id}/assign")
-    public String assignBook(@PathVariable("id") int id, @ModelAttribute("person") Person selectedPerson) {
-        bookService.assign(id, selectedPerson);
+    public String assignBook(@PathVariable("id") int id, @ModelAttribute("person") Person selectedPerson,
+                             RedirectAttributes redirectAttributes) {
+        if (!bookService.assign(id, selectedPerson)) {
+            redirectAttributes.addFlashAttribute("conflict", ALREADY_BORROWED);
+        }
         return String.format("redirect:/books/%d", id);
     }
 
     @PatchMapping("/{id}/release")
-    public String releaseBook(@PathVariable("id") int id) {
-        bookService.release(id);
+    public String releaseBook(@PathVariable("id") int id, RedirectAttributes redirectAttributes) {
+        if (!bookService.release(id)) {
+            redirectAttributes.addFlashAttribute("conflict", ALREADY_RELEASED);
+        }
         return String.format("redirect:/books/%d", id);
     }
+
+    private static int boundedPageSize(int size) {
+        return Math.max(1, Math.min(size, ApplicationConstants.MAX_PAGE_SIZE));
+    }
+
+    private static BookCursor decodeCursor(String token) {
+        if (token.isBlank()) {
+            return null;
+        }
+        return BookCursor.decode(token)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + token));
+    }
+
+    private void addCursorAttributes(Model model, Slice<BookListItem> bookSlice, Integer size, Boolean sortByYear) {
+        List<BookListItem> books = bookSlice.getContent();
+        model.addAttribute("bookPage", books);
+        model.addAttribute("currentPage", 0);
+        model.addAttribute("pageSize", size);
+        model.addAttribute("isCursorMode", true);
+        model.addAttribute("prevCursor", bookSlice.hasPrevious() && !books.isEmpty()
+                ? BookCursor.of(books.get(0)).encode() : null);
+        model.addAttribute("nextCursor", bookSlice.hasNext() && !books.isEmpty()
+                ? BookCursor.of(books.get(books.size() - 1)).encode() : null);
+        model.addAttribute("isSortByYear", sortByYear);
+    }
 }
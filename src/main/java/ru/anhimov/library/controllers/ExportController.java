@@ -0,0 +1,55 @@
+package ru.anhimov.library.controllers;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import ru.anhimov.library.config.ApplicationConstants;
+import ru.anhimov.library.exporter.CatalogExporter;
+import ru.anhimov.library.exporter.ExportFormat;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+    private static final String DEFAULT_FORMAT = "csv";
+
+    private final CatalogExporter catalogExporter;
+
+    public ExportController(CatalogExporter catalogExporter) {
+        this.catalogExporter = catalogExporter;
+    }
+
+    @GetMapping("/books")
+    public void exportBooks(@RequestParam(value = "format", defaultValue = DEFAULT_FORMAT) String format,
+                            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = prepare(response, format, "books");
+        catalogExporter.exportBooks(response.getWriter(), exportFormat);
+    }
+
+    @GetMapping("/people")
+    public void exportPeople(@RequestParam(value = "format", defaultValue = DEFAULT_FORMAT) String format,
+                             HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = prepare(response, format, "people");
+        catalogExporter.exportPeople(response.getWriter(), exportFormat);
+    }
+
+    private ExportFormat prepare(HttpServletResponse response, String format, String name) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        response.setCharacterEncoding(ApplicationConstants.CHARACTER_ENCODING);
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + name + "." + exportFormat.getExtension() + "\"");
+        return exportFormat;
+    }
+}
@@ -0,0 +1,36 @@
+package ru.anhimov.library.controllers;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import ru.anhimov.library.importer.CatalogImporter;
+import ru.anhimov.library.importer.ImportFormat;
+import ru.anhimov.library.importer.ImportReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+@RestController
+@RequestMapping("/api/import")
+public class ImportController {
+    private final CatalogImporter catalogImporter;
+
+    public ImportController(CatalogImporter catalogImporter) {
+        this.catalogImporter = catalogImporter;
+    }
+
+    @PostMapping("/books")
+    public ImportReport importBooks(@RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                    InputStream body) throws IOException {
+        try {
+            return catalogImporter.importBooks(body, ImportFormat.fromContentType(contentType));
+        } catch (IllegalArgumentException | UncheckedIOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
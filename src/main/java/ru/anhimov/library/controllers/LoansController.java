@@ -0,0 +1,38 @@
+package ru.anhimov.library.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import ru.anhimov.library.config.ApplicationConstants;
+import ru.anhimov.library.dto.OverdueLoan;
+import ru.anhimov.library.services.LoanService;
+
+@Controller
+@RequestMapping("/loans")
+public class LoansController {
+
+    private final LoanService loanService;
+
+    @Autowired
+    public LoansController(LoanService loanService) {
+        this.loanService = loanService;
+    }
+
+    @GetMapping("/overdue")
+    public String getOverdueLoans(Model model,
+                                  @RequestParam(value = "page", defaultValue = "0") Integer page,
+                                  @RequestParam(value = "size", defaultValue = ApplicationConstants.DEFAULT_PAGE_SIZE) Integer size) {
+        Page<OverdueLoan> loanPage = loanService.findOverdueLoans(Math.max(page, 0), Math.max(size, 1));
+        model.addAttribute("loanPage", loanPage);
+        model.addAttribute("currentPage", loanPage.getNumber());
+        model.addAttribute("pageSize", loanPage.getSize());
+        model.addAttribute("totalPages", loanPage.getTotalPages());
+        model.addAttribute("overdueCounts", loanService.countOverdueLoansByPerson());
+        model.addAttribute("overdueDays", loanService.getOverdueDays());
+        return "loans/overdue";
+    }
+}
@@ -0,0 +1,23 @@
+package ru.anhimov.library.controllers;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.anhimov.library.metrics.PrometheusExporter;
+
+@RestController
+public class MetricsController {
+    private final PrometheusExporter exporter;
+
+    public MetricsController(PrometheusExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    @GetMapping(value = "/metrics", produces = PrometheusExporter.CONTENT_TYPE)
+    public ResponseEntity<String> scrape() {
+        if (!exporter.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(exporter.scrape());
+    }
+}
@@ -0,0 +1,26 @@
+package ru.anhimov.library.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import ru.anhimov.library.services.StatsService;
+
+@Controller
+@RequestMapping("/stats")
+public class StatsController {
+
+    private final StatsService statsService;
+
+    @Autowired
+    public StatsController(StatsService statsService) {
+        this.statsService = statsService;
+    }
+
+    @GetMapping()
+    public String getStats(Model model) {
+        model.addAttribute("stats", statsService.getDashboard());
+        return "stats/index";
+    }
+}
@@ -0,0 +1,38 @@
+package ru.anhimov.library.controllers;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import ru.anhimov.library.config.ApplicationConstants;
+import ru.anhimov.library.search.SuggestField;
+import ru.anhimov.library.search.Suggestion;
+import ru.anhimov.library.search.SuggestionIndex;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/suggest")
+public class SuggestController {
+    private final SuggestionIndex suggestionIndex;
+
+    public SuggestController(SuggestionIndex suggestionIndex) {
+        this.suggestionIndex = suggestionIndex;
+    }
+
+    @GetMapping
+    public List<Suggestion> suggest(@RequestParam("field") String field,
+                                    @RequestParam("prefix") String prefix,
+                                    @RequestParam(value = "limit", defaultValue = ApplicationConstants.DEFAULT_SUGGEST_LIMIT) int limit) {
+        SuggestField suggestField;
+        try {
+            suggestField = SuggestField.fromParameter(field);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown field: " + field);
+        }
+        int boundedLimit = Math.max(1, Math.min(limit, ApplicationConstants.MAX_SUGGEST_LIMIT));
+        return suggestionIndex.suggest(suggestField, prefix, boundedLimit);
+    }
+}
@@ -1,29 +1,136 @@
 package ru.anhimov.library.dao;
 
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Repository;
+import ru.anhimov.library.dto.BookListItem;
+import ru.anhimov.library.dto.BookListItemMapper;
+import ru.anhimov.library.jfr.RepositoryQueryEvent;
 import ru.anhimov.library.models.Book;
 import ru.anhimov.library.models.BookMapper;
 import ru.anhimov.library.models.Person;
+import ru.anhimov.library.models.PersonMapper;
+import ru.anhimov.library.repositories.BookListQueries;
 
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
-public class BookDAO {
+@Repository
+public class BookDAO implements BookListQueries {
+    private static final String SELECT_BOOK = "SELECT " + BookMapper.COLUMNS + " FROM book";
+    private static final String COUNT_BOOKS = "SELECT count(*) FROM book";
+    private static final String LIST_ITEMS_BY_TITLE_OR_AUTHOR_LIKE = BookListItemMapper.SELECT +
+            " WHERE LOWER(b.title) LIKE LOWER(?) OR LOWER(b.author) LIKE LOWER(?)";
+    private static final String SLICE_AFTER_ID = BookListItemMapper.SELECT +
+            " WHERE b.id > ? ORDER BY b.id LIMIT ? OFFSET ?";
+    private static final String SLICE_BEFORE_ID = BookListItemMapper.SELECT +
+            " WHERE b.id < ? ORDER BY b.id DESC LIMIT ? OFFSET ?";
+    private static final String SLICE_AFTER_YEAR_AND_ID = BookListItemMapper.SELECT +
+            " WHERE b.year > ? OR (b.year = ? AND b.id > ?) ORDER BY b.year, b.id LIMIT ? OFFSET ?";
+    private static final String SLICE_BEFORE_YEAR_AND_ID = BookListItemMapper.SELECT +
+            " WHERE b.year < ? OR (b.year = ? AND b.id < ?) ORDER BY b.year DESC, b.id DESC LIMIT ? OFFSET ?";
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "b.id", "title", "b.title", "author", "b.author", "year", "b.year");
+    private static final int MIN_EXPECTED_ROWS = 16;
+    private static final BookMapper BOOK_MAPPER = new BookMapper();
+    private static final BookListItemMapper LIST_ITEM_MAPPER = new BookListItemMapper();
+    private static final String INSERT_ON_CONFLICT = "INSERT INTO book(title, author, year) VALUES (?, ?, ?) " +
+            "ON CONFLICT ON CONSTRAINT unique_title_author DO NOTHING";
+    private static final String INSERT_IF_ABSENT = "INSERT INTO book(title, author, year) SELECT ?, ?, ? " +
+            "WHERE NOT EXISTS (SELECT 1 FROM book WHERE title = ? AND author = ?)";
+
     private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean supportsOnConflict;
 
     public BookDAO(JdbcTemplate jdbcTemplate) {
         this.jdbcTemplate = jdbcTemplate;
     }
 
     public List<Book> index() {
-        return jdbcTemplate.query("SELECT * FROM book", new BookMapper());
+        return jdbcTemplate.query(SELECT_BOOK, BOOK_MAPPER);
+    }
+
+    @Override
+    public Page<BookListItem> findListItems(Pageable pageable) {
+        return RepositoryQueryEvent.record("BookDAO.findListItems", () -> listItemPage(pageable), pageable);
+    }
+
+    private Page<BookListItem> listItemPage(Pageable pageable) {
+        List<BookListItem> items = jdbcTemplate.query(BookListItemMapper.SELECT + orderBy(pageable.getSort()) + " LIMIT ? OFFSET ?",
+                listItems(pageable.getPageSize()), pageable.getPageSize(), pageable.getOffset());
+        if (pageable.getOffset() == 0 && items.size() < pageable.getPageSize()) {
+            return new PageImpl<>(items, pageable, items.size());
+        }
+        return new PageImpl<>(items, pageable, jdbcTemplate.queryForObject(COUNT_BOOKS, Long.class));
+    }
+
+    @Override
+    public List<BookListItem> findListItemsByIdIn(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return RepositoryQueryEvent.record("BookDAO.findListItemsByIdIn", () -> listItemsByIdIn(ids), ids);
+    }
+
+    private List<BookListItem> listItemsByIdIn(Collection<Integer> ids) {
+        Object[] args = paddedIds(ids);
+        StringBuilder sql = new StringBuilder(BookListItemMapper.SELECT).append(" WHERE b.id IN (?");
+        for (int i = 1; i < args.length; i++) {
+            sql.append(", ?");
+        }
+        return jdbcTemplate.query(sql.append(')').toString(), listItems(ids.size()), args);
+    }
+
+    @Override
+    public List<BookListItem> findListItemsByTitleOrAuthorLike(String query) {
+        return RepositoryQueryEvent.record("BookDAO.findListItemsByTitleOrAuthorLike",
+                () -> jdbcTemplate.query(LIST_ITEMS_BY_TITLE_OR_AUTHOR_LIKE, listItems(0), query, query), query);
+    }
+
+    @Override
+    public Slice<BookListItem> findSliceAfterId(int id, Pageable pageable) {
+        return RepositoryQueryEvent.record("BookDAO.findSliceAfterId",
+                () -> slice(SLICE_AFTER_ID, pageable, id), id, pageable);
+    }
+
+    @Override
+    public Slice<BookListItem> findSliceBeforeId(int id, Pageable pageable) {
+        return RepositoryQueryEvent.record("BookDAO.findSliceBeforeId",
+                () -> slice(SLICE_BEFORE_ID, pageable, id), id, pageable);
+    }
+
+    @Override
+    public Slice<BookListItem> findSliceAfterYearAndId(int year, int id, Pageable pageable) {
+        return RepositoryQueryEvent.record("BookDAO.findSliceAfterYearAndId",
+                () -> slice(SLICE_AFTER_YEAR_AND_ID, pageable, year, year, id), year, id, pageable);
+    }
+
+    @Override
+    public Slice<BookListItem> findSliceBeforeYearAndId(int year, int id, Pageable pageable) {
+        return RepositoryQueryEvent.record("BookDAO.findSliceBeforeYearAndId",
+                () -> slice(SLICE_BEFORE_YEAR_AND_ID, pageable, year, year, id), year, id, pageable);
+    }
+
+    public <T> T streamAll(ResultSetExtractor<T> extractor) {
+        return jdbcTemplate.query("SELECT id, title, author, year, person_id, borrow_timestamp FROM book ORDER BY id",
+                extractor);
     }
 
     public Book findById(int id) {
-        return jdbcTemplate.query("SELECT * FROM book WHERE id=?",
+        return jdbcTemplate.query(SELECT_BOOK + " WHERE id=?",
                         new Object[]{id},
-                        new BookMapper())
+                        BOOK_MAPPER)
                 .stream()
                 .findAny()
                 .orElse(null);
@@ -32,9 +139,9 @@ public class BookDAO {
 
     public Optional<Book> getBookByTitleAndAuthor(String title, String author) {
         return jdbcTemplate
-                .query("SELECT * FROM book WHERE title=? AND author=?",
+                .query(SELECT_BOOK + " WHERE title=? AND author=?",
                         new Object[]{title, author},
-                        new BookMapper())
+                        BOOK_MAPPER)
                 .stream()
                 .findAny();
     }
@@ -44,6 +151,29 @@ public class BookDAO {
                 book.getTitle(), book.getAuthor(), book.getYear());
     }
 
+    public int insertIgnoringDuplicates(List<Book> books) {
+        boolean onConflict = supportsOnConflict();
+        int[][] counts = jdbcTemplate.batchUpdate(onConflict ? INSERT_ON_CONFLICT : INSERT_IF_ABSENT, books, books.size(),
+                (ps, book) -> {
+                    ps.setString(1, book.getTitle());
+                    ps.setString(2, book.getAuthor());
+                    ps.setInt(3, book.getYear());
+                    if (!onConflict) {
+                        ps.setString(4, book.getTitle());
+                        ps.setString(5, book.getAuthor());
+                    }
+                });
+        int inserted = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    inserted++;
+                }
+            }
+        }
+        return inserted;
+    }
+
     public void update(int id, Book book) {
         jdbcTemplate.update("UPDATE book SET title=?, author=?, year=? WHERE id=?",
                 book.getTitle(), book.getAuthor(), book.getYear(), id);
@@ -54,11 +184,11 @@ public class BookDAO {
     }
 
     public Optional<Person> getBookOwner(int id) {
-        return jdbcTemplate.query("SELECT p.* " +
+        return jdbcTemplate.query("SELECT p.id, p.name, p.age " +
                         "FROM person p JOIN book b ON p.id = b.person_id " +
                         "WHERE b.id=?",
                 new Object[]{id},
-                new BeanPropertyRowMapper<>(Person.class))
+                new PersonMapper())
                 .stream()
                 .findAny();
     }
@@ -70,4 +200,67 @@ public class BookDAO {
     public void release(int id) {
         jdbcTemplate.update("UPDATE book SET person_id=NULL WHERE id=?", id);
     }
+
+    private Slice<BookListItem> slice(String sql, Pageable pageable, Object... keys) {
+        int size = pageable.getPageSize();
+        Object[] args = new Object[keys.length + 2];
+        System.arraycopy(keys, 0, args, 0, keys.length);
+        args[keys.length] = size + 1;
+        args[keys.length + 1] = pageable.getOffset();
+        List<BookListItem> items = jdbcTemplate.query(sql, listItems(size + 1), args);
+        boolean hasNext = items.size() > size;
+        return new SliceImpl<>(hasNext ? items.subList(0, size) : items, pageable, hasNext);
+    }
+
+    private ResultSetExtractor<List<BookListItem>> listItems(int expectedRows) {
+        int capacity = expectedRows > 0 ? expectedRows : Math.max(jdbcTemplate.getFetchSize(), MIN_EXPECTED_ROWS);
+        return resultSet -> {
+            List<BookListItem> items = new ArrayList<>(capacity);
+            while (resultSet.next()) {
+                items.add(LIST_ITEM_MAPPER.mapRow(resultSet, items.size()));
+            }
+            return items;
+        };
+    }
+
+    private static String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return " ORDER BY b.id";
+        }
+        StringBuilder orderBy = new StringBuilder(" ORDER BY ");
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+            }
+            orderBy.append(column).append(order.isAscending() ? " ASC, " : " DESC, ");
+        }
+        return orderBy.append("b.id").toString();
+    }
+
+    private static Object[] paddedIds(Collection<Integer> ids) {
+        int length = Integer.highestOneBit(ids.size());
+        if (length < ids.size()) {
+            length <<= 1;
+        }
+        Object[] args = new Object[length];
+        int i = 0;
+        for (Integer id : ids) {
+            args[i++] = id;
+        }
+        while (i < length) {
+            args[i] = args[i - 1];
+            i++;
+        }
+        return args;
+    }
+
+    private boolean supportsOnConflict() {
+        if (supportsOnConflict == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            supportsOnConflict = "PostgreSQL".equals(product);
+        }
+        return supportsOnConflict;
+    }
 }
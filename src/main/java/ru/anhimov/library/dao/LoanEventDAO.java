@@ -0,0 +1,38 @@
+package ru.anhimov.library.dao;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.anhimov.library.models.LoanEventType;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public class LoanEventDAO {
+    private static final String INSERT_EVENT = "INSERT INTO loan_event (book_id, person_id, event_type, occurred_at) " +
+            "VALUES (?, ?, ?, ?)";
+    private static final String INSERT_CURRENT_OWNERS = "INSERT INTO loan_event (book_id, person_id, event_type, occurred_at) " +
+            "SELECT b.id, b.person_id, :type, :occurredAt FROM book b WHERE b.id IN (:ids) AND b.person_id IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public LoanEventDAO(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    public int recordEvent(int bookId, int personId, LoanEventType type, LocalDateTime occurredAt) {
+        return jdbcTemplate.update(INSERT_EVENT, bookId, personId, type.name(), Timestamp.valueOf(occurredAt));
+    }
+
+    public int recordEvents(Collection<Integer> ids, LoanEventType type, LocalDateTime occurredAt) {
+        return namedJdbcTemplate.update(INSERT_CURRENT_OWNERS, new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("type", type.name())
+                .addValue("occurredAt", Timestamp.valueOf(occurredAt)));
+    }
+}
@@ -0,0 +1,28 @@
+package ru.anhimov.library.dao;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.YearMonth;
+
+@Repository
+public class LoanEventPartitionDAO {
+    private final JdbcTemplate jdbcTemplate;
+
+    public LoanEventPartitionDAO(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void createMonthlyPartition(YearMonth month) {
+        jdbcTemplate.execute(createPartitionStatement(month));
+    }
+
+    public static String partitionName(YearMonth month) {
+        return String.format("loan_event_y%04dm%02d", month.getYear(), month.getMonthValue());
+    }
+
+    static String createPartitionStatement(YearMonth month) {
+        return "CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF loan_event FOR VALUES FROM ('"
+                + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+    }
+}
@@ -1,15 +1,24 @@
 package ru.anhimov.library.dao;
 
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Repository;
+import ru.anhimov.library.jfr.RepositoryQueryEvent;
 import ru.anhimov.library.models.Book;
 import ru.anhimov.library.models.BookMapper;
 import ru.anhimov.library.models.Person;
+import ru.anhimov.library.models.PersonMapper;
+import ru.anhimov.library.repositories.PersonDetailQueries;
 
 import java.util.List;
 import java.util.Optional;
 
-public class PersonDAO {
+@Repository
+public class PersonDAO implements PersonDetailQueries {
+    private static final String SELECT_PERSON = "SELECT " + PersonMapper.COLUMNS + " FROM person";
+    private static final String SELECT_BOOKS_BY_OWNER = "SELECT " + BookMapper.COLUMNS + " FROM book WHERE person_id=?";
+    private static final PersonMapper PERSON_MAPPER = new PersonMapper();
+    private static final BookMapper BOOK_MAPPER = new BookMapper();
 
     private final JdbcTemplate jdbcTemplate;
 
@@ -18,14 +27,27 @@ public class PersonDAO {
     }
 
     public List<Person> index() {
-        return jdbcTemplate.query("SELECT * FROM Person", new BeanPropertyRowMapper<>(Person.class));
+        return jdbcTemplate.query(SELECT_PERSON, PERSON_MAPPER);
+    }
+
+    public <T> T streamAll(ResultSetExtractor<T> extractor) {
+        return jdbcTemplate.query("SELECT id, name, age FROM person ORDER BY id", extractor);
     }
 
     public Person findById(int id) {
-        return jdbcTemplate.query("SELECT * FROM Person WHERE id=?",
-                        new Object[]{id},
-                        new BeanPropertyRowMapper<>(Person.class))
-                .stream().findAny().orElse(null);
+        return findPersonById(id).orElse(null);
+    }
+
+    @Override
+    public Optional<Person> findPersonById(int id) {
+        return RepositoryQueryEvent.record("PersonDAO.findPersonById",
+                () -> jdbcTemplate.query(SELECT_PERSON + " WHERE id=?", PERSON_MAPPER, id).stream().findAny(), id);
+    }
+
+    @Override
+    public List<Book> findBooksByOwnerId(int id) {
+        return RepositoryQueryEvent.record("PersonDAO.findBooksByOwnerId",
+                () -> jdbcTemplate.query(SELECT_BOOKS_BY_OWNER, BOOK_MAPPER, id), id);
     }
 
     public void save(Person person) {
@@ -43,16 +65,14 @@ public class PersonDAO {
 
     public Optional<Person> getPersonByName(String name) {
         return jdbcTemplate
-                .query("SELECT * FROM person WHERE name=?",
+                .query(SELECT_PERSON + " WHERE name=?",
                         new Object[]{name},
-                        new BeanPropertyRowMapper<>(Person.class))
+                        PERSON_MAPPER)
                 .stream()
                 .findAny();
     }
 
     public List<Book> getBooksByPersonId(int id) {
-        return jdbcTemplate.query("SELECT * FROM book WHERE person_id=?",
-                new Object[]{id},
-                new BookMapper());
+        return findBooksByOwnerId(id);
     }
 }
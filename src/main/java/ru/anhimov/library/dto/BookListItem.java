@@ -0,0 +1,59 @@
+package ru.anhimov.library.dto;
+
+import lombok.Getter;
+import ru.anhimov.library.models.Book;
+
+import java.util.Objects;
+
+@Getter
+public class BookListItem {
+    private final int id;
+    private final String title;
+    private final String author;
+    private final int year;
+    private final String ownerName;
+
+    public BookListItem(int id, String title, String author, int year, String ownerName) {
+        this.id = id;
+        this.title = title;
+        this.author = author;
+        this.year = year;
+        this.ownerName = ownerName;
+    }
+
+    public static BookListItem of(Book book) {
+        return new BookListItem(book.getId(), book.getTitle(), book.getAuthor(), book.getYear(),
+                book.getOwner() == null ? null : book.getOwner().getName());
+    }
+
+    public boolean isAvailable() {
+        return ownerName == null;
+    }
+
+    @Override
+    public String toString() {
+        return "BookListItem{" +
+                "id=" + id +
+                ", title='" + title + '\'' +
+                ", author='" + author + '\'' +
+                ", year=" + year +
+                ", ownerName='" + ownerName + '\'' +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        BookListItem that = (BookListItem) o;
+
+        return id == that.id && year == that.year && Objects.equals(title, that.title)
+                && Objects.equals(author, that.author) && Objects.equals(ownerName, that.ownerName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, title, author, year, ownerName);
+    }
+}
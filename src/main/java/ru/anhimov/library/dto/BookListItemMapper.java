@@ -0,0 +1,17 @@
+package ru.anhimov.library.dto;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class BookListItemMapper implements RowMapper<BookListItem> {
+    public static final String SELECT = "SELECT b.id, b.title, b.author, b.year, p.name " +
+            "FROM book b LEFT JOIN person p ON p.id = b.person_id";
+
+    @Override
+    public BookListItem mapRow(ResultSet resultSet, int i) throws SQLException {
+        return new BookListItem(resultSet.getInt(1), resultSet.getString(2), resultSet.getString(3),
+                resultSet.getInt(4), resultSet.getString(5));
+    }
+}
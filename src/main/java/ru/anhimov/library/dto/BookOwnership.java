@@ -0,0 +1,43 @@
+package ru.anhimov.library.dto;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Getter
+public class BookOwnership {
+    private final int bookId;
+    private final int ownerId;
+    private final LocalDateTime borrowedAt;
+
+    public BookOwnership(int bookId, int ownerId, LocalDateTime borrowedAt) {
+        this.bookId = bookId;
+        this.ownerId = ownerId;
+        this.borrowedAt = borrowedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "BookOwnership{" +
+                "bookId=" + bookId +
+                ", ownerId=" + ownerId +
+                ", borrowedAt=" + borrowedAt +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        BookOwnership that = (BookOwnership) o;
+
+        return bookId == that.bookId && ownerId == that.ownerId && Objects.equals(borrowedAt, that.borrowedAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bookId, ownerId, borrowedAt);
+    }
+}
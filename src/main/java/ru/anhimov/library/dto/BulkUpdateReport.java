@@ -0,0 +1,54 @@
+package ru.anhimov.library.dto;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+@Getter
+public class BulkUpdateReport {
+    private final List<Integer> requested;
+    private final List<Integer> changed;
+    private final List<Integer> unchanged;
+
+    public BulkUpdateReport(Collection<Integer> requested, Collection<Integer> changed) {
+        Set<Integer> changedIds = new HashSet<>(changed);
+        this.requested = List.copyOf(requested);
+        this.changed = List.copyOf(changed);
+        List<Integer> unchangedIds = new ArrayList<>();
+        for (Integer id : requested) {
+            if (!changedIds.contains(id)) {
+                unchangedIds.add(id);
+            }
+        }
+        this.unchanged = List.copyOf(unchangedIds);
+    }
+
+    @Override
+    public String toString() {
+        return "BulkUpdateReport{" +
+                "requested=" + requested +
+                ", changed=" + changed +
+                ", unchanged=" + unchanged +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        BulkUpdateReport that = (BulkUpdateReport) o;
+
+        return requested.equals(that.requested) && changed.equals(that.changed);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(requested, changed);
+    }
+}
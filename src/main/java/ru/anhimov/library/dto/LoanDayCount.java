@@ -0,0 +1,45 @@
+package ru.anhimov.library.dto;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.Objects;
+
+@Getter
+public class LoanDayCount {
+    private final LocalDate day;
+    private final long loans;
+
+    public LoanDayCount(Date day, long loans) {
+        this(new java.sql.Date(day.getTime()).toLocalDate(), loans);
+    }
+
+    public LoanDayCount(LocalDate day, long loans) {
+        this.day = day;
+        this.loans = loans;
+    }
+
+    @Override
+    public String toString() {
+        return "LoanDayCount{" +
+                "day=" + day +
+                ", loans=" + loans +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        LoanDayCount that = (LoanDayCount) o;
+
+        return loans == that.loans && Objects.equals(day, that.day);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(day, loans);
+    }
+}
@@ -0,0 +1,43 @@
+package ru.anhimov.library.dto;
+
+import lombok.Getter;
+
+import java.util.Objects;
+
+@Getter
+public class OverdueCount {
+    private final int personId;
+    private final String personName;
+    private final long overdueBooks;
+
+    public OverdueCount(int personId, String personName, long overdueBooks) {
+        this.personId = personId;
+        this.personName = personName;
+        this.overdueBooks = overdueBooks;
+    }
+
+    @Override
+    public String toString() {
+        return "OverdueCount{" +
+                "personId=" + personId +
+                ", personName='" + personName + '\'' +
+                ", overdueBooks=" + overdueBooks +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        OverdueCount that = (OverdueCount) o;
+
+        return personId == that.personId && overdueBooks == that.overdueBooks
+                && Objects.equals(personName, that.personName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(personId, personName, overdueBooks);
+    }
+}
@@ -0,0 +1,60 @@
+package ru.anhimov.library.dto;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+
+@Getter
+public class OverdueLoan {
+    private final int bookId;
+    private final String title;
+    private final String author;
+    private final int personId;
+    private final String personName;
+    private final LocalDateTime borrowTimestamp;
+
+    public OverdueLoan(int bookId, String title, String author, int personId, String personName,
+                       LocalDateTime borrowTimestamp) {
+        this.bookId = bookId;
+        this.title = title;
+        this.author = author;
+        this.personId = personId;
+        this.personName = personName;
+        this.borrowTimestamp = borrowTimestamp;
+    }
+
+    public long getDaysBorrowed() {
+        return ChronoUnit.DAYS.between(borrowTimestamp, LocalDateTime.now());
+    }
+
+    @Override
+    public String toString() {
+        return "OverdueLoan{" +
+                "bookId=" + bookId +
+                ", title='" + title + '\'' +
+                ", author='" + author + '\'' +
+                ", personId=" + personId +
+                ", personName='" + personName + '\'' +
+                ", borrowTimestamp=" + borrowTimestamp +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        OverdueLoan that = (OverdueLoan) o;
+
+        return bookId == that.bookId && personId == that.personId && Objects.equals(title, that.title)
+                && Objects.equals(author, that.author) && Objects.equals(personName, that.personName)
+                && Objects.equals(borrowTimestamp, that.borrowTimestamp);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bookId, title, author, personId, personName, borrowTimestamp);
+    }
+}
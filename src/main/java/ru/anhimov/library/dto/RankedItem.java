@@ -0,0 +1,42 @@
+package ru.anhimov.library.dto;
+
+import lombok.Getter;
+
+import java.util.Objects;
+
+@Getter
+public class RankedItem {
+    private final int id;
+    private final String label;
+    private final long count;
+
+    public RankedItem(int id, String label, long count) {
+        this.id = id;
+        this.label = label;
+        this.count = count;
+    }
+
+    @Override
+    public String toString() {
+        return "RankedItem{" +
+                "id=" + id +
+                ", label='" + label + '\'' +
+                ", count=" + count +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        RankedItem that = (RankedItem) o;
+
+        return id == that.id && count == that.count && Objects.equals(label, that.label);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, label, count);
+    }
+}
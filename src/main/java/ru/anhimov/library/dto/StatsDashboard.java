@@ -0,0 +1,40 @@
+package ru.anhimov.library.dto;
+
+import lombok.Getter;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+public class StatsDashboard {
+    private final List<RankedItem> topBooks;
+    private final List<RankedItem> topBorrowers;
+    private final Map<YearMonth, Long> loansPerMonth;
+    private final long totalBooks;
+    private final long borrowedBooks;
+
+    public StatsDashboard(List<RankedItem> topBooks, List<RankedItem> topBorrowers, Map<YearMonth, Long> loansPerMonth,
+                          long totalBooks, long borrowedBooks) {
+        this.topBooks = topBooks;
+        this.topBorrowers = topBorrowers;
+        this.loansPerMonth = loansPerMonth;
+        this.totalBooks = totalBooks;
+        this.borrowedBooks = borrowedBooks;
+    }
+
+    public int getUtilisationPercent() {
+        return totalBooks == 0 ? 0 : (int) Math.round(100.0 * borrowedBooks / totalBooks);
+    }
+
+    @Override
+    public String toString() {
+        return "StatsDashboard{" +
+                "topBooks=" + topBooks +
+                ", topBorrowers=" + topBorrowers +
+                ", loansPerMonth=" + loansPerMonth +
+                ", totalBooks=" + totalBooks +
+                ", borrowedBooks=" + borrowedBooks +
+                '}';
+    }
+}
@@ -0,0 +1,30 @@
+package ru.anhimov.library.exporter;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.anhimov.library.dao.BookDAO;
+import ru.anhimov.library.dao.PersonDAO;
+
+import java.io.Writer;
+
+@Service
+@Transactional(readOnly = true)
+public class CatalogExporter {
+    private final BookDAO bookDAO;
+    private final PersonDAO personDAO;
+
+    @Autowired
+    public CatalogExporter(BookDAO bookDAO, PersonDAO personDAO) {
+        this.bookDAO = bookDAO;
+        this.personDAO = personDAO;
+    }
+
+    public long exportBooks(Writer writer, ExportFormat format) {
+        return bookDAO.streamAll(ExportWriter.to(writer, format));
+    }
+
+    public long exportPeople(Writer writer, ExportFormat format) {
+        return personDAO.streamAll(ExportWriter.to(writer, format));
+    }
+}
@@ -0,0 +1,113 @@
+package ru.anhimov.library.exporter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Locale;
+
+public final class ExportWriter {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final String LINE_END = "\n";
+
+    private ExportWriter() {
+    }
+
+    public static ResultSetExtractor<Long> to(Writer writer, ExportFormat format) {
+        return resultSet -> {
+            try {
+                return format == ExportFormat.CSV ? writeCsv(resultSet, writer) : writeNdjson(resultSet, writer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private static long writeCsv(ResultSet resultSet, Writer writer) throws SQLException, IOException {
+        String[] columns = columns(resultSet.getMetaData());
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                writer.write(SEPARATOR);
+            }
+            writer.write(columns[i]);
+        }
+        writer.write(LINE_END);
+
+        long rows = 0;
+        while (resultSet.next()) {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    writer.write(SEPARATOR);
+                }
+                Object value = value(resultSet, i + 1);
+                if (value != null) {
+                    writeCsvField(writer, value.toString());
+                }
+            }
+            writer.write(LINE_END);
+            rows++;
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static long writeNdjson(ResultSet resultSet, Writer writer) throws SQLException, IOException {
+        String[] columns = columns(resultSet.getMetaData());
+        long rows = 0;
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            while (resultSet.next()) {
+                generator.writeStartObject();
+                for (int i = 0; i < columns.length; i++) {
+                    Object value = value(resultSet, i + 1);
+                    generator.writeFieldName(columns[i]);
+                    if (value == null) {
+                        generator.writeNull();
+                    } else if (value instanceof Integer || value instanceof Long) {
+                        generator.writeNumber(((Number) value).longValue());
+                    } else {
+                        generator.writeString(value.toString());
+                    }
+                }
+                generator.writeEndObject();
+                generator.writeRaw(LINE_END);
+                rows++;
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static String[] columns(ResultSetMetaData metaData) throws SQLException {
+        String[] columns = new String[metaData.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = metaData.getColumnLabel(i + 1).toLowerCase(Locale.ROOT);
+        }
+        return columns;
+    }
+
+    private static Object value(ResultSet resultSet, int column) throws SQLException {
+        Object value = resultSet.getObject(column);
+        return value instanceof Timestamp ? ((Timestamp) value).toLocalDateTime() : value;
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value.indexOf(SEPARATOR) < 0 && value.indexOf(QUOTE) < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write(QUOTE);
+        writer.write(value.replace("\"", "\"\""));
+        writer.write(QUOTE);
+    }
+}
@@ -0,0 +1,132 @@
+package ru.anhimov.library.importer;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.anhimov.library.models.Book;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+final class BookRecordReader {
+    private static final String TITLE = "title";
+    private static final String AUTHOR = "author";
+    private static final String YEAR = "year";
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private BookRecordReader() {
+    }
+
+    static Iterator<ImportRow> open(ImportFormat format, InputStream in) throws IOException {
+        return format == ImportFormat.CSV ? new CsvRows(in) : new JsonRows(in);
+    }
+
+    private static ImportRow toRow(int line, String title, String author, String year) {
+        if (year == null || year.isBlank()) {
+            return ImportRow.rejected(line, "Year is missing");
+        }
+        try {
+            return ImportRow.valid(line, new Book(0, trim(title), trim(author), Integer.parseInt(year.trim())));
+        } catch (NumberFormatException e) {
+            return ImportRow.rejected(line, "Year is not a number: " + year);
+        }
+    }
+
+    private static String trim(String value) {
+        return value == null ? null : value.trim();
+    }
+
+    private static final class CsvRows implements Iterator<ImportRow> {
+        private final CsvReader reader;
+        private final int titleColumn;
+        private final int authorColumn;
+        private final int yearColumn;
+        private final int columns;
+        private List<String> next;
+
+        private CsvRows(InputStream in) throws IOException {
+            reader = new CsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+            List<String> header = reader.readRecord();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV input is empty");
+            }
+            header.replaceAll(column -> column.trim().toLowerCase(Locale.ROOT));
+            titleColumn = header.indexOf(TITLE);
+            authorColumn = header.indexOf(AUTHOR);
+            yearColumn = header.indexOf(YEAR);
+            if (titleColumn < 0 || authorColumn < 0 || yearColumn < 0) {
+                throw new IllegalArgumentException("CSV header must contain title, author and year");
+            }
+            columns = header.size();
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public ImportRow next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            List<String> record = next;
+            int line = reader.getLineNumber();
+            advance();
+            if (record.size() != columns) {
+                return ImportRow.rejected(line, "Expected " + columns + " columns but found " + record.size());
+            }
+            return toRow(line, record.get(titleColumn), record.get(authorColumn), record.get(yearColumn));
+        }
+
+        private void advance() {
+            try {
+                do {
+                    next = reader.readRecord();
+                } while (next != null && next.size() == 1 && next.get(0).isBlank());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static final class JsonRows implements Iterator<ImportRow> {
+        private final MappingIterator<JsonNode> nodes;
+        private int index;
+
+        private JsonRows(InputStream in) throws IOException {
+            nodes = MAPPER.readerFor(JsonNode.class).readValues(in);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nodes.hasNext();
+        }
+
+        @Override
+        public ImportRow next() {
+            JsonNode node = nodes.next();
+            index++;
+            if (!node.isObject()) {
+                return ImportRow.rejected(index, "Expected a JSON object");
+            }
+            return toRow(index, text(node, TITLE), text(node, AUTHOR), text(node, YEAR));
+        }
+
+        private static String text(JsonNode node, String field) {
+            JsonNode value = node.get(field);
+            return value == null || value.isNull() ? null : value.asText();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ru.anhimov.library.importer;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import ru.anhimov.library.config.ApplicationConstants;
+import ru.anhimov.library.config.SpringDataSourceConfig;
+import ru.anhimov.library.config.SpringDataSourceTestConfig;
+import ru.anhimov.library.dao.BookDAO;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public final class CatalogImportCli {
+
+    private CatalogImportCli() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: CatalogImportCli <books.csv|books.json> [" + ApplicationConstants.PROD_PROFILE + "|"
+                    + ApplicationConstants.TEST_PROFILE + "]");
+            System.exit(2);
+        }
+        Path file = Paths.get(args[0]);
+        String profile = args.length == 2 ? args[1] : ApplicationConstants.PROD_PROFILE;
+
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.getEnvironment().setActiveProfiles(profile);
+            context.register(SpringDataSourceConfig.class, SpringDataSourceTestConfig.class, BookDAO.class, CatalogImporter.class);
+            context.refresh();
+
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+                ImportReport report = context.getBean(CatalogImporter.class).importBooks(in, ImportFormat.fromFileName(file.toString()));
+                System.out.println(report);
+                report.getErrors().forEach(System.out::println);
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package ru.anhimov.library.importer;
+
+import lombok.Getter;
+
+@Getter
+public class CatalogImportedEvent {
+    private final ImportReport report;
+
+    public CatalogImportedEvent(ImportReport report) {
+        this.report = report;
+    }
+}
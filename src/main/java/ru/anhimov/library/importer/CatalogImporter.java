@@ -0,0 +1,115 @@
+package ru.anhimov.library.importer;
+
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.anhimov.library.dao.BookDAO;
+import ru.anhimov.library.models.Book;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class CatalogImporter {
+    private static final int MIN_YEAR = -1000;
+
+    private final BookDAO bookDAO;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final Validator validator = Validation.byDefaultProvider()
+            .configure()
+            .messageInterpolator(new ParameterMessageInterpolator())
+            .buildValidatorFactory()
+            .getValidator();
+
+    @Autowired
+    public CatalogImporter(BookDAO bookDAO, PlatformTransactionManager transactionManager,
+                           ApplicationEventPublisher eventPublisher, Environment env) {
+        this.bookDAO = bookDAO;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.batchSize = env.getRequiredProperty("library.import.batch_size", Integer.class);
+    }
+
+    public ImportReport importBooks(InputStream in, ImportFormat format) throws IOException {
+        long start = System.nanoTime();
+        ImportReport report = new ImportReport();
+        Set<String> seen = new HashSet<>();
+        List<ImportRow> chunk = new ArrayList<>(batchSize);
+
+        Iterator<ImportRow> rows = BookRecordReader.open(format, in);
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            if (chunk.size() == batchSize) {
+                write(chunk, seen, report);
+                chunk.clear();
+            }
+        }
+        write(chunk, seen, report);
+        report.finish(System.nanoTime() - start);
+
+        if (report.getInserted() > 0) {
+            eventPublisher.publishEvent(new CatalogImportedEvent(report));
+        }
+        return report;
+    }
+
+    private void write(List<ImportRow> chunk, Set<String> seen, ImportReport report) {
+        List<ImportRow> validated = chunk.parallelStream()
+                .map(this::validate)
+                .collect(Collectors.toList());
+
+        List<Book> batch = new ArrayList<>(validated.size());
+        for (ImportRow row : validated) {
+            report.countRead();
+            if (row.isRejected()) {
+                report.reject(row);
+            } else if (!seen.add(row.key())) {
+                report.countDuplicates(1);
+            } else {
+                batch.add(row.getBook());
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        Integer inserted = transactionTemplate.execute(status -> bookDAO.insertIgnoringDuplicates(batch));
+        int insertedRows = inserted == null ? 0 : inserted;
+        report.countInserted(insertedRows);
+        report.countDuplicates(batch.size() - insertedRows);
+    }
+
+    private ImportRow validate(ImportRow row) {
+        if (row.isRejected()) {
+            return row;
+        }
+        Book book = row.getBook();
+        Set<ConstraintViolation<Book>> violations = validator.validate(book);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            return ImportRow.rejected(row.getLine(), message);
+        }
+        if (book.getYear() < MIN_YEAR || book.getYear() > Year.now().getValue()) {
+            return ImportRow.rejected(row.getLine(), "Year is out of range: " + book.getYear());
+        }
+        return row;
+    }
+}
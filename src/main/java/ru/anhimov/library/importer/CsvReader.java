@@ -0,0 +1,84 @@
+package ru.anhimov.library.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CsvReader {
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final int EOF = -1;
+
+    private final Reader reader;
+    private int pending = EOF;
+    private boolean hasPending;
+    private int lineNumber;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == EOF) {
+            return null;
+        }
+        lineNumber++;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == EOF) {
+                    throw new IOException("Unterminated quoted field at line " + lineNumber);
+                }
+                if (c == QUOTE) {
+                    int next = read();
+                    if (next == QUOTE) {
+                        field.append(QUOTE);
+                    } else {
+                        quoted = false;
+                        unread(next);
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == QUOTE && field.length() == 0) {
+                quoted = true;
+            } else if (c == SEPARATOR) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == EOF) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        unread(next);
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (hasPending) {
+            hasPending = false;
+            return pending;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pending = c;
+        hasPending = true;
+    }
+}
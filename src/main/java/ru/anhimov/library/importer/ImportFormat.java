@@ -0,0 +1,29 @@
+package ru.anhimov.library.importer;
+
+import java.util.Locale;
+
+public enum ImportFormat {
+    CSV, JSON;
+
+    public static ImportFormat fromContentType(String contentType) {
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        if (type.startsWith("text/csv")) {
+            return CSV;
+        }
+        if (type.startsWith("application/json") || type.startsWith("application/x-ndjson")) {
+            return JSON;
+        }
+        throw new IllegalArgumentException("Unsupported content type: " + contentType);
+    }
+
+    public static ImportFormat fromFileName(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".json") || name.endsWith(".ndjson")) {
+            return JSON;
+        }
+        throw new IllegalArgumentException("Unsupported file type: " + fileName);
+    }
+}
@@ -0,0 +1,60 @@
+package ru.anhimov.library.importer;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Getter
+public class ImportReport {
+    private static final int MAX_ERRORS = 100;
+
+    private long read;
+    private long inserted;
+    private long duplicates;
+    private long rejected;
+    private long elapsedMillis;
+    private long rowsPerSecond;
+    private final List<String> errors = new ArrayList<>();
+
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    void countRead() {
+        read++;
+    }
+
+    void countInserted(int rows) {
+        inserted += rows;
+    }
+
+    void countDuplicates(int rows) {
+        duplicates += rows;
+    }
+
+    void reject(ImportRow row) {
+        rejected++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add("Line " + row.getLine() + ": " + row.getError());
+        }
+    }
+
+    void finish(long elapsedNanos) {
+        elapsedMillis = elapsedNanos / 1_000_000;
+        rowsPerSecond = elapsedNanos == 0 ? read : read * 1_000_000_000L / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportReport{" +
+                "read=" + read +
+                ", inserted=" + inserted +
+                ", duplicates=" + duplicates +
+                ", rejected=" + rejected +
+                ", elapsedMillis=" + elapsedMillis +
+                ", rowsPerSecond=" + rowsPerSecond +
+                '}';
+    }
+}
@@ -0,0 +1,33 @@
+package ru.anhimov.library.importer;
+
+import lombok.Getter;
+import ru.anhimov.library.models.Book;
+
+@Getter
+class ImportRow {
+    private final int line;
+    private final Book book;
+    private final String error;
+
+    ImportRow(int line, Book book, String error) {
+        this.line = line;
+        this.book = book;
+        this.error = error;
+    }
+
+    static ImportRow valid(int line, Book book) {
+        return new ImportRow(line, book, null);
+    }
+
+    static ImportRow rejected(int line, String error) {
+        return new ImportRow(line, null, error);
+    }
+
+    boolean isRejected() {
+        return error != null;
+    }
+
+    String key() {
+        return book.getTitle() + '\u0000' + book.getAuthor();
+    }
+}
@@ -0,0 +1,50 @@
+package ru.anhimov.library.jfr;
+
+import ru.anhimov.library.models.Book;
+import ru.anhimov.library.models.Person;
+
+import java.time.temporal.Temporal;
+import java.util.Collection;
+import java.util.StringJoiner;
+
+final class Arguments {
+    private static final int MAX_LENGTH = 200;
+
+    private Arguments() {
+    }
+
+    static String describe(Object[] arguments) {
+        if (arguments == null || arguments.length == 0) {
+            return "";
+        }
+        StringJoiner joiner = new StringJoiner(", ");
+        for (Object argument : arguments) {
+            joiner.add(describe(argument));
+        }
+        String description = joiner.toString();
+        return description.length() > MAX_LENGTH ? description.substring(0, MAX_LENGTH) + "..." : description;
+    }
+
+    private static String describe(Object argument) {
+        if (argument == null) {
+            return "null";
+        }
+        if (argument instanceof CharSequence) {
+            return "'" + argument + "'";
+        }
+        if (argument instanceof Number || argument instanceof Boolean || argument instanceof Enum
+                || argument instanceof Temporal) {
+            return argument.toString();
+        }
+        if (argument instanceof Book) {
+            return "Book#" + ((Book) argument).getId();
+        }
+        if (argument instanceof Person) {
+            return "Person#" + ((Person) argument).getId();
+        }
+        if (argument instanceof Collection) {
+            return "[" + ((Collection<?>) argument).size() + " items]";
+        }
+        return argument.getClass().getSimpleName();
+    }
+}
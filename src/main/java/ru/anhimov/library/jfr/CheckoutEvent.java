@@ -0,0 +1,33 @@
+package ru.anhimov.library.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("ru.anhimov.library.Checkout")
+@Label("Checkout")
+@Description("A single book being assigned to or released from a reader")
+@Category({"Library", "Circulation"})
+@Enabled(false)
+@StackTrace(false)
+public class CheckoutEvent extends Event {
+    static final EventType TYPE = EventType.getEventType(CheckoutEvent.class);
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Book Id")
+    int bookId;
+
+    @Label("Person Id")
+    @Description("Reader the book was assigned to, 0 for releases")
+    int personId;
+
+    @Label("Succeeded")
+    boolean succeeded;
+}
@@ -0,0 +1,40 @@
+package ru.anhimov.library.jfr;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+public class FlightRecorderInterceptor implements HandlerInterceptor {
+    private static final String EVENT = FlightRecorderInterceptor.class.getName() + ".event";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (RequestEvent.TYPE.isEnabled()) {
+            RequestEvent event = new RequestEvent();
+            event.begin();
+            request.setAttribute(EVENT, event);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestEvent event = (RequestEvent) request.getAttribute(EVENT);
+        if (event == null) {
+            return;
+        }
+        request.removeAttribute(EVENT);
+        event.end();
+        if (event.shouldCommit()) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            event.method = request.getMethod();
+            event.endpoint = pattern != null ? pattern.toString() : null;
+            event.uri = request.getRequestURI();
+            event.query = request.getQueryString();
+            event.status = response.getStatus();
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package ru.anhimov.library.jfr;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.ClassFilters;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationClassFilter;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Service;
+import ru.anhimov.library.models.LoanEventType;
+import ru.anhimov.library.models.Person;
+import ru.anhimov.library.services.BookService;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+public class FlightRecorderPostProcessor extends AbstractAdvisingBeanPostProcessor {
+    private static final ClassFilter SERVICES = new AnnotationClassFilter(Service.class, true);
+    private static final ClassFilter REPOSITORIES = ClassFilters.union(
+            new AnnotationClassFilter(org.springframework.stereotype.Repository.class, true),
+            Repository.class::isAssignableFrom);
+    private static final Map<String, LoanEventType> CHECKOUTS = Map.of(
+            "assign", LoanEventType.ASSIGN, "release", LoanEventType.RELEASE);
+
+    public FlightRecorderPostProcessor() {
+        this.advisor = new DefaultPointcutAdvisor(new ComposablePointcut(ClassFilters.union(SERVICES, REPOSITORIES)),
+                new EventInterceptor());
+        setBeforeExistingAdvisors(true);
+    }
+
+    @Override
+    protected boolean isEligible(Object bean, String beanName) {
+        return bean instanceof Advised && super.isEligible(bean, beanName);
+    }
+
+    private static class EventInterceptor implements MethodInterceptor {
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            if (REPOSITORIES.matches(invocation.getMethod().getDeclaringClass())) {
+                return RepositoryQueryEvent.TYPE.isEnabled() ? recordQuery(invocation) : invocation.proceed();
+            }
+            return ServiceCallEvent.TYPE.isEnabled() ? recordServiceCall(invocation) : proceedService(invocation);
+        }
+
+        private static Object proceedService(MethodInvocation invocation) throws Throwable {
+            return CheckoutEvent.TYPE.isEnabled() && isCheckout(invocation.getMethod())
+                    ? recordCheckout(invocation)
+                    : invocation.proceed();
+        }
+
+        private static boolean isCheckout(Method method) {
+            return method.getDeclaringClass() == BookService.class && CHECKOUTS.containsKey(method.getName());
+        }
+
+        private static Object recordQuery(MethodInvocation invocation) throws Throwable {
+            RepositoryQueryEvent event = new RepositoryQueryEvent();
+            event.begin();
+            boolean failed = true;
+            try {
+                Object result = invocation.proceed();
+                failed = false;
+                return result;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.method = methodName(invocation);
+                    event.arguments = Arguments.describe(invocation.getArguments());
+                    event.failed = failed;
+                    event.commit();
+                }
+            }
+        }
+
+        private static Object recordServiceCall(MethodInvocation invocation) throws Throwable {
+            ServiceCallEvent event = new ServiceCallEvent();
+            event.begin();
+            boolean failed = true;
+            try {
+                Object result = proceedService(invocation);
+                failed = false;
+                return result;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.method = methodName(invocation);
+                    event.arguments = Arguments.describe(invocation.getArguments());
+                    event.failed = failed;
+                    event.commit();
+                }
+            }
+        }
+
+        private static Object recordCheckout(MethodInvocation invocation) throws Throwable {
+            CheckoutEvent event = new CheckoutEvent();
+            event.begin();
+            boolean succeeded = false;
+            try {
+                Object result = invocation.proceed();
+                succeeded = Boolean.TRUE.equals(result);
+                return result;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    Object[] arguments = invocation.getArguments();
+                    event.operation = CHECKOUTS.get(invocation.getMethod().getName()).name();
+                    event.bookId = (Integer) arguments[0];
+                    event.personId = arguments.length > 1 && arguments[1] instanceof Person
+                            ? ((Person) arguments[1]).getId()
+                            : 0;
+                    event.succeeded = succeeded;
+                    event.commit();
+                }
+            }
+        }
+
+        private static String methodName(MethodInvocation invocation) {
+            return owner(invocation).getSimpleName() + "." + invocation.getMethod().getName();
+        }
+
+        private static Class<?> owner(MethodInvocation invocation) {
+            if (invocation instanceof ProxyMethodInvocation) {
+                Object proxy = ((ProxyMethodInvocation) invocation).getProxy();
+                if (Proxy.isProxyClass(proxy.getClass())) {
+                    for (Class<?> type : proxy.getClass().getInterfaces()) {
+                        if (Repository.class.isAssignableFrom(type)) {
+                            return type;
+                        }
+                    }
+                }
+            }
+            return invocation.getThis() != null
+                    ? AopUtils.getTargetClass(invocation.getThis())
+                    : invocation.getMethod().getDeclaringClass();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ru.anhimov.library.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.function.Supplier;
+
+@Name("ru.anhimov.library.RepositoryQuery")
+@Label("Repository Query")
+@Description("A call to a Spring Data repository or DAO method")
+@Category({"Library", "Repository"})
+@Enabled(false)
+@StackTrace(false)
+public class RepositoryQueryEvent extends Event {
+    static final EventType TYPE = EventType.getEventType(RepositoryQueryEvent.class);
+
+    @Label("Method")
+    String method;
+
+    @Label("Arguments")
+    String arguments;
+
+    @Label("Failed")
+    boolean failed;
+
+    public static <T> T record(String method, Supplier<T> query, Object... arguments) {
+        if (!TYPE.isEnabled()) {
+            return query.get();
+        }
+        RepositoryQueryEvent event = new RepositoryQueryEvent();
+        event.begin();
+        boolean failed = true;
+        try {
+            T result = query.get();
+            failed = false;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.method = method;
+                event.arguments = Arguments.describe(arguments);
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ru.anhimov.library.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("ru.anhimov.library.Request")
+@Label("Request")
+@Description("An HTTP request handled by a controller, including view rendering")
+@Category({"Library", "Web"})
+@Enabled(false)
+@StackTrace(false)
+public class RequestEvent extends Event {
+    static final EventType TYPE = EventType.getEventType(RequestEvent.class);
+
+    @Label("Method")
+    String method;
+
+    @Label("Endpoint")
+    @Description("Mapping pattern of the handler that served the request")
+    String endpoint;
+
+    @Label("URI")
+    String uri;
+
+    @Label("Query")
+    String query;
+
+    @Label("Status")
+    int status;
+}
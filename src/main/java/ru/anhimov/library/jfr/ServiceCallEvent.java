@@ -0,0 +1,29 @@
+package ru.anhimov.library.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("ru.anhimov.library.ServiceCall")
+@Label("Service Call")
+@Description("A call to a @Service method, including its transaction")
+@Category({"Library", "Service"})
+@Enabled(false)
+@StackTrace(false)
+public class ServiceCallEvent extends Event {
+    static final EventType TYPE = EventType.getEventType(ServiceCallEvent.class);
+
+    @Label("Method")
+    String method;
+
+    @Label("Arguments")
+    String arguments;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,165 @@
+package ru.anhimov.library.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class CountingDataSource extends DelegatingDataSource {
+    private final SlowQueryLog slowQueryLog;
+
+    public CountingDataSource(DataSource targetDataSource, SlowQueryLog slowQueryLog) {
+        super(targetDataSource);
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection(), slowQueryLog));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password), slowQueryLog));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(CountingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Object proxy, Method method, Object[] args) throws Throwable {
+        if ("equals".equals(method.getName()) && method.getParameterCount() == 1) {
+            return proxy == args[0];
+        }
+        if ("hashCode".equals(method.getName()) && method.getParameterCount() == 0) {
+            return System.identityHashCode(proxy);
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+        private final SlowQueryLog slowQueryLog;
+
+        private ConnectionHandler(Connection target, SlowQueryLog slowQueryLog) {
+            this.target = target;
+            this.slowQueryLog = slowQueryLog;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = CountingDataSource.invoke(target, proxy, method, args);
+            if (!(result instanceof Statement)) {
+                return result;
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+            StatementHandler handler = new StatementHandler((Statement) result, (Connection) proxy, target, sql, slowQueryLog);
+            if (result instanceof CallableStatement) {
+                return proxy(CallableStatement.class, handler);
+            }
+            if (result instanceof PreparedStatement) {
+                return proxy(PreparedStatement.class, handler);
+            }
+            return proxy(Statement.class, handler);
+        }
+    }
+
+    private static class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final Connection connection;
+        private final Connection physicalConnection;
+        private final String sql;
+        private final SlowQueryLog slowQueryLog;
+        private final Map<Integer, Object> parameters;
+
+        private StatementHandler(Statement target, Connection connection, Connection physicalConnection,
+                                 String sql, SlowQueryLog slowQueryLog) {
+            this.target = target;
+            this.connection = connection;
+            this.physicalConnection = physicalConnection;
+            this.sql = sql;
+            this.slowQueryLog = slowQueryLog;
+            this.parameters = slowQueryLog.isEnabled() && sql != null ? new TreeMap<>() : null;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("getConnection".equals(name)) {
+                return connection;
+            }
+            if (parameters != null) {
+                captureParameter(name, args);
+            }
+            Object result;
+            boolean counting = QueryCounter.isActive();
+            if (name.startsWith("execute") && (counting || slowQueryLog.isEnabled())) {
+                long start = System.nanoTime();
+                try {
+                    result = CountingDataSource.invoke(target, proxy, method, args);
+                } finally {
+                    long elapsed = System.nanoTime() - start;
+                    if (counting) {
+                        QueryCounter.recordStatement(elapsed);
+                    }
+                    slowQueryLog.record(physicalConnection, executedSql(args), parameters, elapsed);
+                }
+            } else {
+                result = CountingDataSource.invoke(target, proxy, method, args);
+            }
+            if (result instanceof ResultSet) {
+                return proxy(ResultSet.class, new ResultSetHandler((ResultSet) result, (Statement) proxy));
+            }
+            return result;
+        }
+
+        private void captureParameter(String name, Object[] args) {
+            if ("clearParameters".equals(name)) {
+                parameters.clear();
+            } else if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                parameters.put((Integer) args[0], "setNull".equals(name) ? null : args[1]);
+            }
+        }
+
+        private String executedSql(Object[] args) {
+            return args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+        }
+    }
+
+    private static class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final Statement statement;
+
+        private ResultSetHandler(ResultSet target, Statement statement) {
+            this.target = target;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("getStatement".equals(method.getName())) {
+                return statement;
+            }
+            Object result = CountingDataSource.invoke(target, proxy, method, args);
+            if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                QueryCounter.recordRow();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ru.anhimov.library.metrics;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+public class HandlerTimingInterceptor implements HandlerInterceptor {
+    private static final String HANDLER_START = HandlerTimingInterceptor.class.getName() + ".handlerStart";
+    private static final String RENDER_START = HandlerTimingInterceptor.class.getName() + ".renderStart";
+
+    private final LatencyMetrics metrics;
+
+    public HandlerTimingInterceptor(LatencyMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (metrics.isEnabled()) {
+            request.setAttribute(HANDLER_START, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        Long start = (Long) request.getAttribute(HANDLER_START);
+        if (start == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        request.removeAttribute(HANDLER_START);
+        metrics.record(LatencyTimer.HANDLER, handlerName(handler), now - start);
+        if (modelAndView != null && !modelAndView.wasCleared()) {
+            request.setAttribute(RENDER_START, now);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        long now = System.nanoTime();
+        Long handlerStart = (Long) request.getAttribute(HANDLER_START);
+        if (handlerStart != null) {
+            metrics.record(LatencyTimer.HANDLER, handlerName(handler), now - handlerStart);
+        }
+        Long renderStart = (Long) request.getAttribute(RENDER_START);
+        if (renderStart != null) {
+            metrics.record(LatencyTimer.RENDER, handlerName(handler), now - renderStart);
+        }
+    }
+
+    static String handlerName(Object handler) {
+        if (handler instanceof HandlerMethod) {
+            HandlerMethod method = (HandlerMethod) handler;
+            return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        }
+        return handler.getClass().getSimpleName();
+    }
+}
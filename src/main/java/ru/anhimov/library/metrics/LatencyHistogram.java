@@ -0,0 +1,30 @@
+package ru.anhimov.library.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyHistogram {
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+    private Histogram interval;
+
+    public void record(long elapsedNanos) {
+        long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        recorder.recordValue(micros);
+        count.increment();
+        sumMicros.add(micros);
+    }
+
+    public synchronized LatencySnapshot snapshot() {
+        interval = recorder.getIntervalHistogram(interval);
+        return new LatencySnapshot(count.sum(), sumMicros.sum(), interval.getTotalCount(),
+                interval.getValueAtPercentile(50), interval.getValueAtPercentile(95),
+                interval.getValueAtPercentile(99), interval.getMaxValue());
+    }
+}
@@ -0,0 +1,36 @@
+package ru.anhimov.library.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class LatencyMetrics {
+    private final boolean enabled;
+    private final Map<LatencyTimer, Map<String, LatencyHistogram>> histograms = new EnumMap<>(LatencyTimer.class);
+
+    public LatencyMetrics(boolean enabled) {
+        this.enabled = enabled;
+        for (LatencyTimer timer : LatencyTimer.values()) {
+            histograms.put(timer, new ConcurrentHashMap<>());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void record(LatencyTimer timer, String name, long elapsedNanos) {
+        if (!enabled) {
+            return;
+        }
+        histograms.get(timer).computeIfAbsent(name, key -> new LatencyHistogram()).record(elapsedNanos);
+    }
+
+    public SortedMap<String, LatencySnapshot> snapshot(LatencyTimer timer) {
+        SortedMap<String, LatencySnapshot> snapshots = new TreeMap<>();
+        histograms.get(timer).forEach((name, histogram) -> snapshots.put(name, histogram.snapshot()));
+        return snapshots;
+    }
+}
@@ -0,0 +1,38 @@
+package ru.anhimov.library.metrics;
+
+import lombok.Getter;
+
+@Getter
+public class LatencySnapshot {
+    private final long count;
+    private final long sumMicros;
+    private final long intervalCount;
+    private final long p50Micros;
+    private final long p95Micros;
+    private final long p99Micros;
+    private final long maxMicros;
+
+    public LatencySnapshot(long count, long sumMicros, long intervalCount,
+                           long p50Micros, long p95Micros, long p99Micros, long maxMicros) {
+        this.count = count;
+        this.sumMicros = sumMicros;
+        this.intervalCount = intervalCount;
+        this.p50Micros = p50Micros;
+        this.p95Micros = p95Micros;
+        this.p99Micros = p99Micros;
+        this.maxMicros = maxMicros;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencySnapshot{" +
+                "count=" + count +
+                ", sumMicros=" + sumMicros +
+                ", intervalCount=" + intervalCount +
+                ", p50Micros=" + p50Micros +
+                ", p95Micros=" + p95Micros +
+                ", p99Micros=" + p99Micros +
+                ", maxMicros=" + maxMicros +
+                '}';
+    }
+}
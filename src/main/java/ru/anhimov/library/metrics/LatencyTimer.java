@@ -0,0 +1,29 @@
+package ru.anhimov.library.metrics;
+
+public enum LatencyTimer {
+    HANDLER("library_handler_seconds", "handler", "Time spent in controller handler methods"),
+    RENDER("library_render_seconds", "handler", "Time spent rendering the view returned by a handler"),
+    SERVICE("library_service_seconds", "method", "Time spent in service methods, including their transactions");
+
+    private final String metricName;
+    private final String label;
+    private final String help;
+
+    LatencyTimer(String metricName, String label, String help) {
+        this.metricName = metricName;
+        this.label = label;
+        this.help = help;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public String getHelp() {
+        return help;
+    }
+}
@@ -0,0 +1,65 @@
+package ru.anhimov.library.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class PoolMetrics implements MetricsTrackerFactory {
+    private final Map<String, Pool> pools = new LinkedHashMap<>();
+
+    @Override
+    public synchronized IMetricsTracker create(String poolName, PoolStats poolStats) {
+        Pool pool = new Pool(poolStats);
+        pools.put(poolName, pool);
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                pool.acquisitions.increment();
+                pool.acquireNanos.add(elapsedAcquiredNanos);
+                pool.maxAcquireNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                pool.timeouts.increment();
+            }
+        };
+    }
+
+    public synchronized Map<String, PoolSnapshot> getSnapshot() {
+        Map<String, PoolSnapshot> snapshot = new LinkedHashMap<>();
+        pools.forEach((name, pool) -> snapshot.put(name, pool.snapshot()));
+        return snapshot;
+    }
+
+    public synchronized PoolSnapshot getSnapshot(String poolName) {
+        Pool pool = pools.get(poolName);
+        return pool == null ? new PoolSnapshot(0, 0, 0, 0, 0, 0, 0, 0, 0, 0) : pool.snapshot();
+    }
+
+    private static final class Pool {
+        private final PoolStats stats;
+        private final LongAdder acquisitions = new LongAdder();
+        private final LongAdder acquireNanos = new LongAdder();
+        private final AtomicLong maxAcquireNanos = new AtomicLong();
+        private final LongAdder timeouts = new LongAdder();
+
+        private Pool(PoolStats stats) {
+            this.stats = stats;
+        }
+
+        private PoolSnapshot snapshot() {
+            long count = acquisitions.sum();
+            long meanNanos = count == 0 ? 0 : acquireNanos.sum() / count;
+            return new PoolSnapshot(stats.getActiveConnections(), stats.getIdleConnections(), stats.getTotalConnections(),
+                    stats.getPendingThreads(), stats.getMinConnections(), stats.getMaxConnections(), count, timeouts.sum(),
+                    TimeUnit.NANOSECONDS.toMicros(meanNanos), TimeUnit.NANOSECONDS.toMicros(maxAcquireNanos.get()));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package ru.anhimov.library.metrics;
+
+import lombok.Getter;
+
+@Getter
+public class PoolSnapshot {
+    private final int active;
+    private final int idle;
+    private final int total;
+    private final int pending;
+    private final int minIdle;
+    private final int maxSize;
+    private final long acquisitions;
+    private final long timeouts;
+    private final long meanAcquireMicros;
+    private final long maxAcquireMicros;
+
+    public PoolSnapshot(int active, int idle, int total, int pending, int minIdle, int maxSize,
+                        long acquisitions, long timeouts, long meanAcquireMicros, long maxAcquireMicros) {
+        this.active = active;
+        this.idle = idle;
+        this.total = total;
+        this.pending = pending;
+        this.minIdle = minIdle;
+        this.maxSize = maxSize;
+        this.acquisitions = acquisitions;
+        this.timeouts = timeouts;
+        this.meanAcquireMicros = meanAcquireMicros;
+        this.maxAcquireMicros = maxAcquireMicros;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolSnapshot{" +
+                "active=" + active +
+                ", idle=" + idle +
+                ", total=" + total +
+                ", pending=" + pending +
+                ", acquisitions=" + acquisitions +
+                ", timeouts=" + timeouts +
+                ", meanAcquireMicros=" + meanAcquireMicros +
+                ", maxAcquireMicros=" + maxAcquireMicros +
+                '}';
+    }
+}
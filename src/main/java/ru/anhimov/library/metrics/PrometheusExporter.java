@@ -0,0 +1,122 @@
+package ru.anhimov.library.metrics;
+
+import org.hibernate.stat.Statistics;
+
+import java.util.Map;
+import java.util.SortedMap;
+
+public class PrometheusExporter {
+    public static final String CONTENT_TYPE = "text/plain;version=0.0.4;charset=utf-8";
+    private static final double MICROS_PER_SECOND = 1_000_000d;
+    private static final double MILLIS_PER_SECOND = 1_000d;
+
+    private final LatencyMetrics latencyMetrics;
+    private final Statistics statistics;
+
+    public PrometheusExporter(LatencyMetrics latencyMetrics, Statistics statistics) {
+        this.latencyMetrics = latencyMetrics;
+        this.statistics = statistics;
+        if (latencyMetrics.isEnabled()) {
+            statistics.setStatisticsEnabled(true);
+        }
+    }
+
+    public boolean isEnabled() {
+        return latencyMetrics.isEnabled();
+    }
+
+    public String scrape() {
+        StringBuilder out = new StringBuilder();
+        for (LatencyTimer timer : LatencyTimer.values()) {
+            writeSummary(out, timer, latencyMetrics.snapshot(timer));
+        }
+        writeHibernate(out);
+        return out.toString();
+    }
+
+    private static void writeSummary(StringBuilder out, LatencyTimer timer, SortedMap<String, LatencySnapshot> snapshots) {
+        String name = timer.getMetricName();
+        header(out, name, timer.getHelp() + "; quantiles cover the time since the previous scrape", "summary");
+        for (Map.Entry<String, LatencySnapshot> entry : snapshots.entrySet()) {
+            String label = timer.getLabel() + "=\"" + escape(entry.getKey()) + "\"";
+            LatencySnapshot snapshot = entry.getValue();
+            boolean observed = snapshot.getIntervalCount() > 0;
+            quantile(out, name, label, "0.5", observed, snapshot.getP50Micros());
+            quantile(out, name, label, "0.95", observed, snapshot.getP95Micros());
+            quantile(out, name, label, "0.99", observed, snapshot.getP99Micros());
+            sample(out, name + "_sum", label, snapshot.getSumMicros() / MICROS_PER_SECOND);
+            sample(out, name + "_count", label, snapshot.getCount());
+        }
+        header(out, name + "_max", timer.getHelp() + "; maximum since the previous scrape", "gauge");
+        for (Map.Entry<String, LatencySnapshot> entry : snapshots.entrySet()) {
+            String label = timer.getLabel() + "=\"" + escape(entry.getKey()) + "\"";
+            sample(out, name + "_max", label, entry.getValue().getMaxMicros() / MICROS_PER_SECOND);
+        }
+    }
+
+    private void writeHibernate(StringBuilder out) {
+        counter(out, "hibernate_sessions_opened_total", "Sessions opened", statistics.getSessionOpenCount());
+        counter(out, "hibernate_transactions_total", "Transactions completed", statistics.getTransactionCount());
+        counter(out, "hibernate_statements_prepared_total", "JDBC statements prepared", statistics.getPrepareStatementCount());
+        counter(out, "hibernate_entity_loads_total", "Entities loaded from the database", statistics.getEntityLoadCount());
+        counter(out, "hibernate_entity_fetches_total", "Entities fetched lazily", statistics.getEntityFetchCount());
+        counter(out, "hibernate_entity_inserts_total", "Entities inserted", statistics.getEntityInsertCount());
+        counter(out, "hibernate_entity_updates_total", "Entities updated", statistics.getEntityUpdateCount());
+        counter(out, "hibernate_entity_deletes_total", "Entities deleted", statistics.getEntityDeleteCount());
+        counter(out, "hibernate_collection_loads_total", "Collections loaded", statistics.getCollectionLoadCount());
+        counter(out, "hibernate_collection_fetches_total", "Collections fetched lazily", statistics.getCollectionFetchCount());
+        counter(out, "hibernate_query_executions_total", "HQL and native queries executed", statistics.getQueryExecutionCount());
+        counter(out, "hibernate_optimistic_failures_total", "Optimistic lock failures", statistics.getOptimisticFailureCount());
+
+        header(out, "hibernate_query_execution_max_seconds", "Slowest query execution", "gauge");
+        sample(out, "hibernate_query_execution_max_seconds", null,
+                statistics.getQueryExecutionMaxTime() / MILLIS_PER_SECOND);
+
+        header(out, "hibernate_second_level_cache_requests_total", "Second-level cache lookups", "counter");
+        sample(out, "hibernate_second_level_cache_requests_total", "result=\"hit\"", statistics.getSecondLevelCacheHitCount());
+        sample(out, "hibernate_second_level_cache_requests_total", "result=\"miss\"", statistics.getSecondLevelCacheMissCount());
+        counter(out, "hibernate_second_level_cache_puts_total", "Second-level cache puts", statistics.getSecondLevelCachePutCount());
+
+        header(out, "hibernate_query_cache_requests_total", "Query cache lookups", "counter");
+        sample(out, "hibernate_query_cache_requests_total", "result=\"hit\"", statistics.getQueryCacheHitCount());
+        sample(out, "hibernate_query_cache_requests_total", "result=\"miss\"", statistics.getQueryCacheMissCount());
+        counter(out, "hibernate_query_cache_puts_total", "Query cache puts", statistics.getQueryCachePutCount());
+    }
+
+    private static void counter(StringBuilder out, String name, String help, long value) {
+        header(out, name, help, "counter");
+        sample(out, name, null, value);
+    }
+
+    private static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void quantile(StringBuilder out, String name, String label, String quantile,
+                                 boolean observed, long micros) {
+        sample(out, name, label + ",quantile=\"" + quantile + "\"", observed ? micros / MICROS_PER_SECOND : Double.NaN);
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (labels != null) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(format(value)).append('\n');
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
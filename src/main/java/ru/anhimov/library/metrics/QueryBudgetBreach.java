@@ -0,0 +1,35 @@
+package ru.anhimov.library.metrics;
+
+import lombok.Getter;
+
+@Getter
+public class QueryBudgetBreach {
+    private final String endpoint;
+    private final int budget;
+    private final long breaches;
+    private final long worstStatements;
+    private final long worstRows;
+    private final long worstElapsedMicros;
+
+    public QueryBudgetBreach(String endpoint, int budget, long breaches,
+                             long worstStatements, long worstRows, long worstElapsedMicros) {
+        this.endpoint = endpoint;
+        this.budget = budget;
+        this.breaches = breaches;
+        this.worstStatements = worstStatements;
+        this.worstRows = worstRows;
+        this.worstElapsedMicros = worstElapsedMicros;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryBudgetBreach{" +
+                "endpoint='" + endpoint + '\'' +
+                ", budget=" + budget +
+                ", breaches=" + breaches +
+                ", worstStatements=" + worstStatements +
+                ", worstRows=" + worstRows +
+                ", worstElapsedMicros=" + worstElapsedMicros +
+                '}';
+    }
+}
@@ -0,0 +1,43 @@
+package ru.anhimov.library.metrics;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.logging.Logger;
+
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+    private static final Logger LOGGER = Logger.getLogger(QueryBudgetInterceptor.class.getName());
+
+    private final QueryBudgets budgets;
+    private final QueryBudgetMetrics metrics;
+
+    public QueryBudgetInterceptor(QueryBudgets budgets, QueryBudgetMetrics metrics) {
+        this.budgets = budgets;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryCounter.start();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        QueryCount count = QueryCounter.stop();
+        String endpoint = endpoint(request);
+        int budget = budgets.budgetFor(endpoint);
+        if (count.getBudgetedStatements() > budget) {
+            metrics.recordBreach(endpoint, budget, count);
+            LOGGER.warning(() -> String.format("%s ran %d statements (budget %d), fetched %d rows in %d us",
+                    endpoint, count.getStatements(), budget, count.getRows(), count.getElapsedMicros()));
+        }
+    }
+
+    static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+}
@@ -0,0 +1,42 @@
+package ru.anhimov.library.metrics;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+public class QueryBudgetMetrics {
+    private final Map<String, Breaches> breaches = new ConcurrentHashMap<>();
+
+    public void recordBreach(String endpoint, int budget, QueryCount count) {
+        breaches.computeIfAbsent(endpoint, key -> new Breaches()).record(budget, count);
+    }
+
+    public List<QueryBudgetBreach> getSnapshot() {
+        return breaches.entrySet().stream()
+                .map(entry -> entry.getValue().toBreach(entry.getKey()))
+                .sorted(Comparator.comparingLong(QueryBudgetBreach::getBreaches).reversed()
+                        .thenComparing(QueryBudgetBreach::getEndpoint))
+                .collect(Collectors.toList());
+    }
+
+    private static class Breaches {
+        private int budget;
+        private long count;
+        private QueryCount worst = QueryCount.NONE;
+
+        private synchronized void record(int budget, QueryCount queries) {
+            this.budget = budget;
+            count++;
+            if (queries.getStatements() > worst.getStatements()) {
+                worst = queries;
+            }
+        }
+
+        private synchronized QueryBudgetBreach toBreach(String endpoint) {
+            return new QueryBudgetBreach(endpoint, budget, count,
+                    worst.getStatements(), worst.getRows(), worst.getElapsedMicros());
+        }
+    }
+}
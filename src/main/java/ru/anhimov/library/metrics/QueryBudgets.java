@@ -0,0 +1,52 @@
+package ru.anhimov.library.metrics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class QueryBudgets {
+    private static final String ENTRY_SEPARATOR = ";";
+    private static final String VALUE_SEPARATOR = "=";
+
+    private final int defaultBudget;
+    private final Map<String, Integer> endpointBudgets;
+
+    public QueryBudgets(int defaultBudget, Map<String, Integer> endpointBudgets) {
+        if (defaultBudget <= 0) {
+            throw new IllegalArgumentException("Default query budget must be positive: " + defaultBudget);
+        }
+        this.defaultBudget = defaultBudget;
+        this.endpointBudgets = Collections.unmodifiableMap(new HashMap<>(endpointBudgets));
+    }
+
+    public static QueryBudgets parse(int defaultBudget, String endpoints) {
+        Map<String, Integer> budgets = new HashMap<>();
+        for (String entry : endpoints.split(ENTRY_SEPARATOR)) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.lastIndexOf(VALUE_SEPARATOR);
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Query budget must look like 'GET /path=N': " + entry);
+            }
+            int budget = Integer.parseInt(entry.substring(separator + 1).trim());
+            if (budget <= 0) {
+                throw new IllegalArgumentException("Query budget must be positive: " + entry);
+            }
+            budgets.put(endpointKey(entry.substring(0, separator)), budget);
+        }
+        return new QueryBudgets(defaultBudget, budgets);
+    }
+
+    public int budgetFor(String endpoint) {
+        return endpointBudgets.getOrDefault(endpointKey(endpoint), defaultBudget);
+    }
+
+    public int getDefaultBudget() {
+        return defaultBudget;
+    }
+
+    private static String endpointKey(String endpoint) {
+        return endpoint.trim().replaceAll("\\s+", " ");
+    }
+}
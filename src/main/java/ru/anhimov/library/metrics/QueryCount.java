@@ -0,0 +1,37 @@
+package ru.anhimov.library.metrics;
+
+import lombok.Getter;
+
+@Getter
+public class QueryCount {
+    public static final QueryCount NONE = new QueryCount(0, 0, 0, 0, 0);
+
+    private final long statements;
+    private final long rows;
+    private final long elapsedMicros;
+    private final long chunks;
+    private final long chunkStatements;
+
+    public QueryCount(long statements, long rows, long elapsedMicros, long chunks, long chunkStatements) {
+        this.statements = statements;
+        this.rows = rows;
+        this.elapsedMicros = elapsedMicros;
+        this.chunks = chunks;
+        this.chunkStatements = chunkStatements;
+    }
+
+    public long getBudgetedStatements() {
+        return statements - chunkStatements + Math.min(chunks, 1);
+    }
+
+    @Override
+    public String toString() {
+        return "QueryCount{" +
+                "statements=" + statements +
+                ", rows=" + rows +
+                ", elapsedMicros=" + elapsedMicros +
+                ", chunks=" + chunks +
+                ", chunkStatements=" + chunkStatements +
+                '}';
+    }
+}
@@ -0,0 +1,79 @@
+package ru.anhimov.library.metrics;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+public final class QueryCounter {
+    private static final ThreadLocal<Deque<Tally>> TALLIES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private QueryCounter() {
+    }
+
+    public static void start() {
+        TALLIES.get().push(new Tally());
+    }
+
+    public static QueryCount stop() {
+        Deque<Tally> tallies = TALLIES.get();
+        Tally tally = tallies.poll();
+        if (tallies.isEmpty()) {
+            TALLIES.remove();
+        }
+        return tally == null ? QueryCount.NONE : tally.toCount();
+    }
+
+    public static QueryCount current() {
+        Tally tally = TALLIES.get().peek();
+        return tally == null ? QueryCount.NONE : tally.toCount();
+    }
+
+    static boolean isActive() {
+        return !TALLIES.get().isEmpty();
+    }
+
+    static void recordStatement(long elapsedNanos) {
+        for (Tally tally : TALLIES.get()) {
+            tally.statements++;
+            tally.nanos += elapsedNanos;
+            if (tally.chunkDepth > 0) {
+                tally.chunkStatements++;
+            }
+        }
+    }
+
+    static void recordRow() {
+        for (Tally tally : TALLIES.get()) {
+            tally.rows++;
+        }
+    }
+
+    public static <T> T chunk(Supplier<T> load) {
+        Deque<Tally> tallies = TALLIES.get();
+        for (Tally tally : tallies) {
+            tally.chunks++;
+            tally.chunkDepth++;
+        }
+        try {
+            return load.get();
+        } finally {
+            for (Tally tally : tallies) {
+                tally.chunkDepth--;
+            }
+        }
+    }
+
+    private static class Tally {
+        private long statements;
+        private long rows;
+        private long nanos;
+        private long chunks;
+        private long chunkStatements;
+        private int chunkDepth;
+
+        private QueryCount toCount() {
+            return new QueryCount(statements, rows, TimeUnit.NANOSECONDS.toMicros(nanos), chunks, chunkStatements);
+        }
+    }
+}
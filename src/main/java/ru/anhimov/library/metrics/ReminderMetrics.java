@@ -0,0 +1,41 @@
+package ru.anhimov.library.metrics;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ReminderMetrics {
+    private final LongAdder scans = new LongAdder();
+    private final LongAdder failedScans = new LongAdder();
+    private final LongAdder remindersWritten = new LongAdder();
+    private final AtomicLong maxScanNanos = new AtomicLong();
+    private volatile long lastScanNanos;
+    private volatile long backlog;
+    private volatile LocalDateTime watermark;
+
+    public void recordScan(long elapsedNanos, int written) {
+        scans.increment();
+        remindersWritten.add(written);
+        lastScanNanos = elapsedNanos;
+        maxScanNanos.accumulateAndGet(elapsedNanos, Math::max);
+    }
+
+    public void recordFailure() {
+        failedScans.increment();
+    }
+
+    public void recordBacklog(long backlog) {
+        this.backlog = backlog;
+    }
+
+    public void recordWatermark(LocalDateTime watermark) {
+        this.watermark = watermark;
+    }
+
+    public ReminderSnapshot getSnapshot() {
+        return new ReminderSnapshot(scans.sum(), failedScans.sum(), remindersWritten.sum(),
+                TimeUnit.NANOSECONDS.toMillis(lastScanNanos), TimeUnit.NANOSECONDS.toMillis(maxScanNanos.get()),
+                backlog, watermark == null ? null : watermark.toString());
+    }
+}
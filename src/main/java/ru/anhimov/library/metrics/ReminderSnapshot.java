@@ -0,0 +1,38 @@
+package ru.anhimov.library.metrics;
+
+import lombok.Getter;
+
+@Getter
+public class ReminderSnapshot {
+    private final long scans;
+    private final long failedScans;
+    private final long remindersWritten;
+    private final long lastScanMillis;
+    private final long maxScanMillis;
+    private final long backlog;
+    private final String watermark;
+
+    public ReminderSnapshot(long scans, long failedScans, long remindersWritten, long lastScanMillis,
+                            long maxScanMillis, long backlog, String watermark) {
+        this.scans = scans;
+        this.failedScans = failedScans;
+        this.remindersWritten = remindersWritten;
+        this.lastScanMillis = lastScanMillis;
+        this.maxScanMillis = maxScanMillis;
+        this.backlog = backlog;
+        this.watermark = watermark;
+    }
+
+    @Override
+    public String toString() {
+        return "ReminderSnapshot{" +
+                "scans=" + scans +
+                ", failedScans=" + failedScans +
+                ", remindersWritten=" + remindersWritten +
+                ", lastScanMillis=" + lastScanMillis +
+                ", maxScanMillis=" + maxScanMillis +
+                ", backlog=" + backlog +
+                ", watermark=" + watermark +
+                '}';
+    }
+}
@@ -0,0 +1,56 @@
+package ru.anhimov.library.metrics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+public class ServiceTimingPostProcessor extends AbstractAdvisingBeanPostProcessor {
+
+    public ServiceTimingPostProcessor(boolean enabled, ObjectProvider<LatencyMetrics> metrics) {
+        if (enabled) {
+            this.advisor = new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Service.class, true),
+                    new ServiceTimingInterceptor(metrics));
+            setBeforeExistingAdvisors(true);
+        }
+    }
+
+    private static class ServiceTimingInterceptor implements MethodInterceptor {
+        private final ObjectProvider<LatencyMetrics> provider;
+        private volatile LatencyMetrics metrics;
+
+        private ServiceTimingInterceptor(ObjectProvider<LatencyMetrics> provider) {
+            this.provider = provider;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            long start = System.nanoTime();
+            try {
+                return invocation.proceed();
+            } finally {
+                metrics().record(LatencyTimer.SERVICE, methodName(invocation), System.nanoTime() - start);
+            }
+        }
+
+        private LatencyMetrics metrics() {
+            LatencyMetrics resolved = metrics;
+            if (resolved == null) {
+                resolved = provider.getObject();
+                metrics = resolved;
+            }
+            return resolved;
+        }
+
+        private static String methodName(MethodInvocation invocation) {
+            Class<?> type = invocation.getThis() != null
+                    ? AopUtils.getTargetClass(invocation.getThis())
+                    : invocation.getMethod().getDeclaringClass();
+            return type.getSimpleName() + "." + invocation.getMethod().getName();
+        }
+    }
+}
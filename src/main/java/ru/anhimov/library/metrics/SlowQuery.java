@@ -0,0 +1,32 @@
+package ru.anhimov.library.metrics;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class SlowQuery {
+    private final String executedAt;
+    private final long elapsedMicros;
+    private final String sql;
+    private final List<String> parameters;
+    private final String plan;
+
+    public SlowQuery(String executedAt, long elapsedMicros, String sql, List<String> parameters, String plan) {
+        this.executedAt = executedAt;
+        this.elapsedMicros = elapsedMicros;
+        this.sql = sql;
+        this.parameters = parameters;
+        this.plan = plan;
+    }
+
+    @Override
+    public String toString() {
+        return "SlowQuery{" +
+                "executedAt='" + executedAt + '\'' +
+                ", elapsedMicros=" + elapsedMicros +
+                ", sql='" + sql + '\'' +
+                ", parameters=" + parameters +
+                '}';
+    }
+}
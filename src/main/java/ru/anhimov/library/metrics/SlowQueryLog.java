@@ -0,0 +1,192 @@
+package ru.anhimov.library.metrics;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+public class SlowQueryLog implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(SlowQueryLog.class.getName());
+    private static final Pattern EXPLAINABLE = Pattern.compile("\\s*(select|with)\\b", Pattern.CASE_INSENSITIVE);
+    private static final int MAX_PARAMETER_LENGTH = 200;
+
+    private final long thresholdNanos;
+    private final boolean explain;
+    private final int capacity;
+    private final Clock clock;
+    private final Deque<SlowQuery> recent = new ArrayDeque<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private FileHandler fileHandler;
+
+    public SlowQueryLog(long thresholdMillis, boolean explain, int capacity) {
+        this(thresholdMillis, explain, capacity, Clock.systemDefaultZone());
+    }
+
+    public SlowQueryLog(long thresholdMillis, boolean explain, int capacity, Clock clock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Slow query buffer size must be positive: " + capacity);
+        }
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.explain = explain;
+        this.capacity = capacity;
+        this.clock = clock;
+    }
+
+    public synchronized void writeTo(String filePattern, int limitBytes, int count) throws IOException {
+        if (fileHandler != null) {
+            throw new IllegalStateException("Slow query log file is already open");
+        }
+        fileHandler = new FileHandler(filePattern, limitBytes, count, true);
+        fileHandler.setFormatter(new Formatter() {
+            @Override
+            public String format(LogRecord record) {
+                return record.getMessage() + System.lineSeparator();
+            }
+        });
+        LOGGER.addHandler(fileHandler);
+        LOGGER.setUseParentHandlers(false);
+    }
+
+    public boolean isEnabled() {
+        return thresholdNanos > 0;
+    }
+
+    public void record(Connection connection, String sql, Map<Integer, Object> parameters, long elapsedNanos) {
+        if (!isEnabled() || elapsedNanos < thresholdNanos || sql == null) {
+            return;
+        }
+        SlowQuery query = new SlowQuery(LocalDateTime.now(clock).toString(), TimeUnit.NANOSECONDS.toMicros(elapsedNanos),
+                sql, format(parameters), explain ? explain(connection, sql, parameters) : null);
+        synchronized (recent) {
+            if (recent.size() == capacity) {
+                recent.removeFirst();
+            }
+            recent.addLast(query);
+        }
+        LOGGER.log(Level.WARNING, () -> toJson(query));
+    }
+
+    public List<SlowQuery> getRecent() {
+        synchronized (recent) {
+            List<SlowQuery> newestFirst = new ArrayList<>(recent.size());
+            Iterator<SlowQuery> iterator = recent.descendingIterator();
+            iterator.forEachRemaining(newestFirst::add);
+            return newestFirst;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (fileHandler != null) {
+            LOGGER.removeHandler(fileHandler);
+            LOGGER.setUseParentHandlers(true);
+            fileHandler.close();
+            fileHandler = null;
+        }
+    }
+
+    private static List<String> format(Map<Integer, Object> parameters) {
+        if (parameters == null || parameters.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> values = new ArrayList<>(parameters.size());
+        for (Object value : parameters.values()) {
+            values.add(format(value));
+        }
+        return Collections.unmodifiableList(values);
+    }
+
+    private static String format(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof byte[]) {
+            return "<" + ((byte[]) value).length + " bytes>";
+        }
+        String text = String.valueOf(value);
+        return text.length() > MAX_PARAMETER_LENGTH ? text.substring(0, MAX_PARAMETER_LENGTH) + "..." : text;
+    }
+
+    private static String explain(Connection connection, String sql, Map<Integer, Object> parameters) {
+        if (!EXPLAINABLE.matcher(sql).lookingAt()) {
+            return null;
+        }
+        Savepoint savepoint = null;
+        try {
+            if (!connection.getAutoCommit()) {
+                savepoint = connection.setSavepoint();
+            }
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                if (parameters != null) {
+                    for (Map.Entry<Integer, Object> parameter : parameters.entrySet()) {
+                        statement.setObject(parameter.getKey(), parameter.getValue());
+                    }
+                }
+                StringJoiner plan = new StringJoiner("\n");
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.add(resultSet.getString(1));
+                    }
+                }
+                return plan.toString();
+            }
+        } catch (SQLException e) {
+            rollback(connection, savepoint);
+            return "EXPLAIN failed: " + e.getMessage();
+        } finally {
+            release(connection, savepoint);
+        }
+    }
+
+    private static void rollback(Connection connection, Savepoint savepoint) {
+        if (savepoint == null) {
+            return;
+        }
+        try {
+            connection.rollback(savepoint);
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Could not roll back to the savepoint taken for EXPLAIN", e);
+        }
+    }
+
+    private static void release(Connection connection, Savepoint savepoint) {
+        if (savepoint == null) {
+            return;
+        }
+        try {
+            connection.releaseSavepoint(savepoint);
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Could not release the savepoint taken for EXPLAIN", e);
+        }
+    }
+
+    private String toJson(SlowQuery query) {
+        try {
+            return objectMapper.writeValueAsString(query);
+        } catch (JsonProcessingException e) {
+            return query.toString();
+        }
+    }
+}
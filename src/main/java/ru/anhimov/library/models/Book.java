@@ -3,6 +3,9 @@ package ru.anhimov.library.models;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.Cascade;
 
 import javax.persistence.*;
@@ -11,7 +14,8 @@ import javax.validation.constraints.Size;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "book")
+@Table(name = "book", uniqueConstraints = @UniqueConstraint(name = "unique_title_author", columnNames = {"title", "author"}))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -42,6 +46,11 @@ public class Book {
     @Column(name = "borrow_timestamp")
     private LocalDateTime borrowTimestamp;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    @ColumnDefault("0")
+    private int version;
+
     @Transient
     private Boolean isOverdue;
 
@@ -4,15 +4,16 @@ import org.springframework.jdbc.core.RowMapper;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 
 public class BookMapper implements RowMapper<Book> {
+    public static final String COLUMNS = "id, title, author, year, borrow_timestamp";
+
     @Override
     public Book mapRow(ResultSet resultSet, int i) throws SQLException {
-        Book book = new Book();
-        book.setId(resultSet.getInt("id"));
-        book.setTitle(resultSet.getString("title"));
-        book.setAuthor(resultSet.getString("author"));
-        book.setYear(resultSet.getInt("year"));
+        Book book = new Book(resultSet.getInt(1), resultSet.getString(2), resultSet.getString(3), resultSet.getInt(4));
+        Timestamp borrowTimestamp = resultSet.getTimestamp(5);
+        book.setBorrowTimestamp(borrowTimestamp == null ? null : borrowTimestamp.toLocalDateTime());
         return book;
     }
 }
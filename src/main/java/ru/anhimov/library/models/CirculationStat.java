@@ -0,0 +1,37 @@
+package ru.anhimov.library.models;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "circulation_stat")
+@Getter
+@Setter
+@NoArgsConstructor
+public class CirculationStat {
+    @Id
+    @Column(name = "stat_key", length = 40)
+    private String key;
+
+    @Column(name = "stat_value", nullable = false)
+    private long value;
+
+    public CirculationStat(String key, long value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    @Override
+    public String toString() {
+        return "CirculationStat{" +
+                "key='" + key + '\'' +
+                ", value=" + value +
+                '}';
+    }
+}
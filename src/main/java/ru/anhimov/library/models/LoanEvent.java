@@ -0,0 +1,51 @@
+package ru.anhimov.library.models;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "loan_event")
+@Immutable
+@Getter
+@NoArgsConstructor
+public class LoanEvent {
+    @Id
+    @Column(name = "id")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(name = "book_id", nullable = false)
+    private int bookId;
+
+    @Column(name = "person_id", nullable = false)
+    private int personId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 10)
+    private LoanEventType type;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    public LoanEvent(int bookId, int personId, LoanEventType type, LocalDateTime occurredAt) {
+        this.bookId = bookId;
+        this.personId = personId;
+        this.type = type;
+        this.occurredAt = occurredAt;
+    }
+
+    @Override
+    public String toString() {
+        return "LoanEvent{" +
+                "id=" + id +
+                ", bookId=" + bookId +
+                ", personId=" + personId +
+                ", type=" + type +
+                ", occurredAt=" + occurredAt +
+                '}';
+    }
+}
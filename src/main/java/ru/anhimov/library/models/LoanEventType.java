@@ -0,0 +1,6 @@
+package ru.anhimov.library.models;
+
+public enum LoanEventType {
+    ASSIGN,
+    RELEASE
+}
@@ -3,6 +3,9 @@ package ru.anhimov.library.models;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import javax.persistence.*;
 import javax.validation.constraints.Min;
@@ -12,6 +15,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "person")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -31,7 +35,13 @@ public class Person {
     @Min(value = 1, message = "Age should be greater than 0")
     private int age;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    @ColumnDefault("0")
+    private int version;
+
     @OneToMany(mappedBy = "owner")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Book> books;
 
     public Person(int id, String name, int age) {
@@ -0,0 +1,15 @@
+package ru.anhimov.library.models;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class PersonMapper implements RowMapper<Person> {
+    public static final String COLUMNS = "id, name, age";
+
+    @Override
+    public Person mapRow(ResultSet resultSet, int i) throws SQLException {
+        return new Person(resultSet.getInt(1), resultSet.getString(2), resultSet.getInt(3));
+    }
+}
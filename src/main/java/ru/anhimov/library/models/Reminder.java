@@ -0,0 +1,63 @@
+package ru.anhimov.library.models;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "reminder", uniqueConstraints = @UniqueConstraint(name = "unique_reminder_loan", columnNames = {"book_id", "borrow_timestamp"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class Reminder {
+    @Id
+    @Column(name = "id")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+
+    @Column(name = "book_id", nullable = false)
+    private int bookId;
+
+    @Column(name = "person_id", nullable = false)
+    private int personId;
+
+    @Column(name = "person_name", nullable = false)
+    private String personName;
+
+    @Column(name = "title", nullable = false)
+    private String title;
+
+    @Column(name = "borrow_timestamp", nullable = false)
+    private LocalDateTime borrowTimestamp;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    public Reminder(int bookId, int personId, String personName, String title, LocalDateTime borrowTimestamp,
+                    LocalDateTime createdAt) {
+        this.bookId = bookId;
+        this.personId = personId;
+        this.personName = personName;
+        this.title = title;
+        this.borrowTimestamp = borrowTimestamp;
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "Reminder{" +
+                "id=" + id +
+                ", bookId=" + bookId +
+                ", personId=" + personId +
+                ", borrowTimestamp=" + borrowTimestamp +
+                ", createdAt=" + createdAt +
+                ", sentAt=" + sentAt +
+                '}';
+    }
+}
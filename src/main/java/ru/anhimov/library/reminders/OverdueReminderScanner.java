@@ -0,0 +1,97 @@
+package ru.anhimov.library.reminders;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.anhimov.library.dto.OverdueLoan;
+import ru.anhimov.library.metrics.ReminderMetrics;
+import ru.anhimov.library.models.Reminder;
+import ru.anhimov.library.repositories.BookRepository;
+import ru.anhimov.library.repositories.ReminderRepository;
+import ru.anhimov.library.services.LoanPolicy;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class OverdueReminderScanner {
+    private static final LocalDateTime INITIAL_WATERMARK = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final BookRepository bookRepository;
+    private final ReminderRepository reminderRepository;
+    private final LoanPolicy loanPolicy;
+    private final ReminderMetrics metrics;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    private LocalDateTime watermarkTimestamp;
+    private int watermarkBookId;
+
+    @Autowired
+    public OverdueReminderScanner(BookRepository bookRepository, ReminderRepository reminderRepository,
+                                  LoanPolicy loanPolicy, ReminderMetrics metrics,
+                                  PlatformTransactionManager transactionManager, Environment env) {
+        this.bookRepository = bookRepository;
+        this.reminderRepository = reminderRepository;
+        this.loanPolicy = loanPolicy;
+        this.metrics = metrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = env.getRequiredProperty("library.reminders.batch_size", Integer.class);
+    }
+
+    public synchronized int scan() {
+        long start = System.nanoTime();
+        try {
+            if (watermarkTimestamp == null) {
+                loadWatermark();
+            }
+            LocalDateTime cutoff = loanPolicy.overdueCutoff();
+            metrics.recordBacklog(bookRepository.countOverdueLoansAfter(cutoff, watermarkTimestamp, watermarkBookId));
+
+            int written = 0;
+            List<OverdueLoan> batch;
+            do {
+                batch = bookRepository.findOverdueLoansAfter(cutoff, watermarkTimestamp, watermarkBookId,
+                        PageRequest.of(0, batchSize));
+                if (!batch.isEmpty()) {
+                    written += writeReminders(batch);
+                    OverdueLoan last = batch.get(batch.size() - 1);
+                    watermarkTimestamp = last.getBorrowTimestamp();
+                    watermarkBookId = last.getBookId();
+                    metrics.recordWatermark(watermarkTimestamp);
+                }
+            } while (batch.size() == batchSize);
+
+            metrics.recordBacklog(0);
+            metrics.recordScan(System.nanoTime() - start, written);
+            return written;
+        } catch (RuntimeException e) {
+            metrics.recordFailure();
+            throw e;
+        }
+    }
+
+    private void loadWatermark() {
+        watermarkTimestamp = INITIAL_WATERMARK;
+        watermarkBookId = Integer.MIN_VALUE;
+        reminderRepository.findFirstByOrderByBorrowTimestampDescBookIdDesc().ifPresent(reminder -> {
+            watermarkTimestamp = reminder.getBorrowTimestamp();
+            watermarkBookId = reminder.getBookId();
+        });
+        metrics.recordWatermark(watermarkTimestamp);
+    }
+
+    private int writeReminders(List<OverdueLoan> batch) {
+        LocalDateTime now = LocalDateTime.now(loanPolicy.getClock());
+        List<Reminder> reminders = batch.stream()
+                .map(loan -> new Reminder(loan.getBookId(), loan.getPersonId(), loan.getPersonName(), loan.getTitle(),
+                        loan.getBorrowTimestamp(), now))
+                .collect(Collectors.toList());
+        transactionTemplate.executeWithoutResult(status -> reminderRepository.saveAll(reminders));
+        return reminders.size();
+    }
+}
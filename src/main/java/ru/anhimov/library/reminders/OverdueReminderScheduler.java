@@ -0,0 +1,64 @@
+package ru.anhimov.library.reminders;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Component
+public class OverdueReminderScheduler implements DisposableBean {
+    private static final Logger LOGGER = Logger.getLogger(OverdueReminderScheduler.class.getName());
+
+    private final OverdueReminderScanner scanner;
+    private final long intervalMillis;
+    private ScheduledExecutorService executor;
+
+    @Autowired
+    public OverdueReminderScheduler(OverdueReminderScanner scanner, Environment env) {
+        this.scanner = scanner;
+        this.intervalMillis = env.getRequiredProperty("library.reminders.interval_ms", Long.class);
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public synchronized void start() {
+        if (executor != null || intervalMillis <= 0) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "overdue-reminders");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::scanQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized boolean isRunning() {
+        return executor != null && !executor.isShutdown();
+    }
+
+    @Override
+    public synchronized void destroy() throws InterruptedException {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        executor.awaitTermination(intervalMillis, TimeUnit.MILLISECONDS);
+        executor = null;
+    }
+
+    private void scanQuietly() {
+        try {
+            scanner.scan();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Overdue reminder scan failed", e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ru.anhimov.library.repositories;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.anhimov.library.dto.BookListItem;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BookListQueries {
+    Page<BookListItem> findListItems(Pageable pageable);
+
+    List<BookListItem> findListItemsByIdIn(Collection<Integer> ids);
+
+    List<BookListItem> findListItemsByTitleOrAuthorLike(String query);
+
+    Slice<BookListItem> findSliceAfterId(int id, Pageable pageable);
+
+    Slice<BookListItem> findSliceBeforeId(int id, Pageable pageable);
+
+    Slice<BookListItem> findSliceAfterYearAndId(int year, int id, Pageable pageable);
+
+    Slice<BookListItem> findSliceBeforeYearAndId(int year, int id, Pageable pageable);
+}
@@ -1,21 +1,135 @@
 package ru.anhimov.library.repositories;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.anhimov.library.dto.BookListItem;
+import ru.anhimov.library.dto.BookOwnership;
+import ru.anhimov.library.dto.OverdueCount;
+import ru.anhimov.library.dto.OverdueLoan;
 import ru.anhimov.library.models.Book;
 import ru.anhimov.library.models.Person;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Integer> {
-    @Query("SELECT p FROM Person p JOIN Book b ON p.id = b.owner.id WHERE b.id = :bookId")
-    Optional<Person> findBookOwner(@Param("bookId") int bookId);
+public interface BookRepository extends JpaRepository<Book, Integer>, BookListQueries {
+    String LIST_ITEM = "SELECT new ru.anhimov.library.dto.BookListItem(b.id, b.title, b.author, b.year, o.name) FROM Book b LEFT JOIN b.owner o";
 
-    List<Book> findBookByTitleLikeIgnoreCase(String query);
+    @Query("SELECT b FROM Book b LEFT JOIN FETCH b.owner WHERE b.id = :id")
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "bookWithOwner")
+    })
+    Optional<Book> findWithOwnerById(@Param("id") int id);
+
+    @Query("SELECT new ru.anhimov.library.dto.BookOwnership(b.id, o.id, b.borrowTimestamp) " +
+            "FROM Book b JOIN b.owner o WHERE b.id = :id")
+    Optional<BookOwnership> findOwnership(@Param("id") int id);
 
     Optional<Book> findBookByTitleAndAuthor(String title, String author);
+
+    @Query(value = LIST_ITEM, countQuery = "SELECT count(b) FROM Book b")
+    @Override
+    Page<BookListItem> findListItems(Pageable pageable);
+
+    @Query(LIST_ITEM + " WHERE b.id IN :ids")
+    @Override
+    List<BookListItem> findListItemsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query(LIST_ITEM + " WHERE LOWER(b.title) LIKE LOWER(:query) OR LOWER(b.author) LIKE LOWER(:query)")
+    @Override
+    List<BookListItem> findListItemsByTitleOrAuthorLike(@Param("query") String query);
+
+    @Query(value = "SELECT new ru.anhimov.library.dto.OverdueLoan(b.id, b.title, b.author, o.id, o.name, b.borrowTimestamp) " +
+            "FROM Book b JOIN b.owner o WHERE b.owner IS NOT NULL AND b.borrowTimestamp < :cutoff " +
+            "ORDER BY b.borrowTimestamp, b.id",
+            countQuery = "SELECT count(b) FROM Book b WHERE b.owner IS NOT NULL AND b.borrowTimestamp < :cutoff")
+    Page<OverdueLoan> findOverdueLoans(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Query("SELECT new ru.anhimov.library.dto.OverdueLoan(b.id, b.title, b.author, o.id, o.name, b.borrowTimestamp) " +
+            "FROM Book b JOIN b.owner o WHERE b.owner IS NOT NULL AND b.borrowTimestamp < :cutoff " +
+            "AND (b.borrowTimestamp > :after OR (b.borrowTimestamp = :after AND b.id > :afterId)) " +
+            "ORDER BY b.borrowTimestamp, b.id")
+    List<OverdueLoan> findOverdueLoansAfter(@Param("cutoff") LocalDateTime cutoff, @Param("after") LocalDateTime after,
+                                            @Param("afterId") int afterId, Pageable pageable);
+
+    @Query("SELECT count(b) FROM Book b WHERE b.owner IS NOT NULL AND b.borrowTimestamp < :cutoff " +
+            "AND (b.borrowTimestamp > :after OR (b.borrowTimestamp = :after AND b.id > :afterId))")
+    long countOverdueLoansAfter(@Param("cutoff") LocalDateTime cutoff, @Param("after") LocalDateTime after,
+                                @Param("afterId") int afterId);
+
+    @Query("SELECT new ru.anhimov.library.dto.OverdueCount(o.id, o.name, count(b)) " +
+            "FROM Book b JOIN b.owner o WHERE b.owner IS NOT NULL AND b.borrowTimestamp < :cutoff " +
+            "GROUP BY o.id, o.name ORDER BY count(b) DESC, o.name")
+    List<OverdueCount> countOverdueLoansByPerson(@Param("cutoff") LocalDateTime cutoff);
+
+    long countByOwnerIsNotNull();
+
+    @Query("SELECT b.id FROM Book b WHERE b.id IN :ids AND b.owner IS NOT NULL ORDER BY b.id")
+    List<Integer> findBorrowedIdsIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("SELECT b.id FROM Book b WHERE b.id IN :ids AND b.owner = :owner AND b.borrowTimestamp = :timestamp " +
+            "ORDER BY b.id")
+    List<Integer> findIdsBorrowedAt(@Param("ids") Collection<Integer> ids, @Param("owner") Person owner,
+                                    @Param("timestamp") LocalDateTime timestamp);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.title = :title, b.author = :author, b.year = :year, b.version = b.version + 1 " +
+            "WHERE b.id = :id")
+    int updateDetails(@Param("id") int id, @Param("title") String title, @Param("author") String author,
+                      @Param("year") int year);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.owner = :owner, b.borrowTimestamp = :timestamp, b.version = b.version + 1 " +
+            "WHERE b.id = :id AND b.owner IS NULL")
+    int assignIfAvailable(@Param("id") int id, @Param("owner") Person owner, @Param("timestamp") LocalDateTime timestamp);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.owner = NULL, b.borrowTimestamp = NULL, b.version = b.version + 1 " +
+            "WHERE b.id = :id AND b.owner.id = :ownerId AND b.borrowTimestamp = :borrowedAt")
+    int releaseIfOwnedBy(@Param("id") int id, @Param("ownerId") int ownerId,
+                         @Param("borrowedAt") LocalDateTime borrowedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.owner = NULL, b.borrowTimestamp = NULL, b.version = b.version + 1 " +
+            "WHERE b.id = :id AND b.owner.id = :ownerId AND b.borrowTimestamp IS NULL")
+    int releaseUntimedIfOwnedBy(@Param("id") int id, @Param("ownerId") int ownerId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.owner = :owner, b.borrowTimestamp = :timestamp, b.version = b.version + 1 " +
+            "WHERE b.id IN :ids AND b.owner IS NULL")
+    int assignAvailable(@Param("ids") Collection<Integer> ids, @Param("owner") Person owner,
+                        @Param("timestamp") LocalDateTime timestamp);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.owner = NULL, b.borrowTimestamp = NULL, b.version = b.version + 1 " +
+            "WHERE b.id IN :ids AND b.owner IS NOT NULL")
+    int releaseBorrowed(@Param("ids") Collection<Integer> ids);
+
+    @Query(LIST_ITEM + " WHERE b.id > :id ORDER BY b.id")
+    @Override
+    Slice<BookListItem> findSliceAfterId(@Param("id") int id, Pageable pageable);
+
+    @Query(LIST_ITEM + " WHERE b.id < :id ORDER BY b.id DESC")
+    @Override
+    Slice<BookListItem> findSliceBeforeId(@Param("id") int id, Pageable pageable);
+
+    @Query(LIST_ITEM + " WHERE b.year > :year OR (b.year = :year AND b.id > :id) ORDER BY b.year, b.id")
+    @Override
+    Slice<BookListItem> findSliceAfterYearAndId(@Param("year") int year, @Param("id") int id, Pageable pageable);
+
+    @Query(LIST_ITEM + " WHERE b.year < :year OR (b.year = :year AND b.id < :id) ORDER BY b.year DESC, b.id DESC")
+    @Override
+    Slice<BookListItem> findSliceBeforeYearAndId(@Param("year") int year, @Param("id") int id, Pageable pageable);
 }
@@ -0,0 +1,18 @@
+package ru.anhimov.library.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.anhimov.library.models.CirculationStat;
+
+import java.util.Collection;
+
+@Repository
+public interface CirculationStatRepository extends JpaRepository<CirculationStat, String> {
+
+    @Modifying
+    @Query("DELETE FROM CirculationStat s WHERE s.key IN :keys")
+    int deleteByKeyIn(@Param("keys") Collection<String> keys);
+}
@@ -0,0 +1,39 @@
+package ru.anhimov.library.repositories;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.anhimov.library.dto.LoanDayCount;
+import ru.anhimov.library.models.LoanEvent;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LoanEventRepository extends JpaRepository<LoanEvent, Long> {
+
+    @Query("SELECT e FROM LoanEvent e WHERE e.id > :after ORDER BY e.id")
+    List<LoanEvent> findFoldBatch(@Param("after") long after, Pageable pageable);
+
+    @Query("SELECT e FROM LoanEvent e WHERE e.id IN :ids ORDER BY e.id")
+    List<LoanEvent> findByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT e FROM LoanEvent e WHERE e.bookId = :bookId " +
+            "AND e.occurredAt >= :from AND e.occurredAt < :to ORDER BY e.occurredAt DESC, e.id DESC")
+    List<LoanEvent> findBookHistory(@Param("bookId") int bookId, @Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to, Pageable pageable);
+
+    @Query("SELECT e FROM LoanEvent e WHERE e.personId = :personId " +
+            "AND e.occurredAt >= :from AND e.occurredAt < :to ORDER BY e.occurredAt DESC, e.id DESC")
+    List<LoanEvent> findPersonHistory(@Param("personId") int personId, @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to, Pageable pageable);
+
+    @Query("SELECT new ru.anhimov.library.dto.LoanDayCount(cast(e.occurredAt as date), count(e)) FROM LoanEvent e " +
+            "WHERE e.type = ru.anhimov.library.models.LoanEventType.ASSIGN " +
+            "AND e.occurredAt >= :from AND e.occurredAt < :to " +
+            "GROUP BY cast(e.occurredAt as date) ORDER BY cast(e.occurredAt as date)")
+    List<LoanDayCount> countLoansPerDay(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
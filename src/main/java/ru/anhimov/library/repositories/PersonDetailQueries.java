@@ -0,0 +1,13 @@
+package ru.anhimov.library.repositories;
+
+import ru.anhimov.library.models.Book;
+import ru.anhimov.library.models.Person;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface PersonDetailQueries {
+    Optional<Person> findPersonById(int id);
+
+    List<Book> findBooksByOwnerId(int id);
+}
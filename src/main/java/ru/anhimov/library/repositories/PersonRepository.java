@@ -1,12 +1,39 @@
 package ru.anhimov.library.repositories;
 
+import org.hibernate.Hibernate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.anhimov.library.models.Book;
 import ru.anhimov.library.models.Person;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface PersonRepository extends JpaRepository<Person, Integer> {
+public interface PersonRepository extends JpaRepository<Person, Integer>, PersonDetailQueries {
     Optional<Person> findByName(String name);
+
+    Slice<Person> findByNameStartingWithIgnoreCase(String prefix, Pageable pageable);
+
+    @Query("SELECT p FROM Person p WHERE p.id > :id ORDER BY p.id")
+    Slice<Person> findSliceAfterId(@Param("id") int id, Pageable pageable);
+
+    @Override
+    default Optional<Person> findPersonById(int id) {
+        return findById(id);
+    }
+
+    @Override
+    default List<Book> findBooksByOwnerId(int id) {
+        return findById(id)
+                .map(person -> {
+                    Hibernate.initialize(person.getBooks());
+                    return person.getBooks();
+                })
+                .orElse(List.of());
+    }
 }
@@ -0,0 +1,12 @@
+package ru.anhimov.library.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.anhimov.library.models.Reminder;
+
+import java.util.Optional;
+
+@Repository
+public interface ReminderRepository extends JpaRepository<Reminder, Integer> {
+    Optional<Reminder> findFirstByOrderByBorrowTimestampDescBookIdDesc();
+}
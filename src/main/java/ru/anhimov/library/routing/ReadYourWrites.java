@@ -0,0 +1,36 @@
+package ru.anhimov.library.routing;
+
+public final class ReadYourWrites {
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+    private static final ThreadLocal<Runnable> WRITE_LISTENER = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get() != null;
+    }
+
+    public static void onCommittedWrite(Runnable listener) {
+        WRITE_LISTENER.set(listener);
+    }
+
+    public static void writeCommitted() {
+        Runnable listener = WRITE_LISTENER.get();
+        if (listener == null) {
+            return;
+        }
+        WRITE_LISTENER.remove();
+        pinToPrimary();
+        listener.run();
+    }
+
+    public static void clear() {
+        PINNED_TO_PRIMARY.remove();
+        WRITE_LISTENER.remove();
+    }
+}
@@ -0,0 +1,60 @@
+package ru.anhimov.library.routing;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+    public static final String COOKIE_NAME = "library_primary_until";
+
+    private final long windowMillis;
+
+    public ReadYourWritesInterceptor(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (windowMillis <= 0) {
+            return true;
+        }
+        if (pinnedUntil(request) > System.currentTimeMillis()) {
+            ReadYourWrites.pinToPrimary();
+        }
+        ReadYourWrites.onCommittedWrite(() ->
+                response.addCookie(pinCookie(request, System.currentTimeMillis() + windowMillis)));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReadYourWrites.clear();
+    }
+
+    private Cookie pinCookie(HttpServletRequest request, long until) {
+        Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(until));
+        cookie.setPath(request.getContextPath().isEmpty() ? "/" : request.getContextPath());
+        cookie.setMaxAge((int) Math.max(1, (windowMillis + 999) / 1000));
+        cookie.setHttpOnly(true);
+        return cookie;
+    }
+
+    private static long pinnedUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
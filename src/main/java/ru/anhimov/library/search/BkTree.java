@@ -0,0 +1,138 @@
+package ru.anhimov.library.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BkTree {
+    private Node root;
+    private int size;
+    private int removed;
+
+    public void add(String word) {
+        if (root == null) {
+            root = new Node(word);
+            size++;
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int distance = distance(node.word, word);
+            if (distance == 0) {
+                if (node.removed) {
+                    node.removed = false;
+                    removed--;
+                    size++;
+                }
+                return;
+            }
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(word));
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    public boolean remove(String word) {
+        Node node = root;
+        while (node != null) {
+            int distance = distance(node.word, word);
+            if (distance == 0) {
+                break;
+            }
+            node = node.children.get(distance);
+        }
+        if (node == null || node.removed) {
+            return false;
+        }
+        node.removed = true;
+        removed++;
+        size--;
+        if (removed > size) {
+            rebuild();
+        }
+        return true;
+    }
+
+    public Map<String, Integer> search(String word, int maxDistance) {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        if (root == null) {
+            return result;
+        }
+        Deque<Node> candidates = new ArrayDeque<>();
+        candidates.push(root);
+        while (!candidates.isEmpty()) {
+            Node node = candidates.pop();
+            int distance = distance(node.word, word);
+            if (distance <= maxDistance && !node.removed) {
+                result.put(node.word, distance);
+            }
+            for (int d = Math.max(1, distance - maxDistance); d <= distance + maxDistance; d++) {
+                Node child = node.children.get(d);
+                if (child != null) {
+                    candidates.push(child);
+                }
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void rebuild() {
+        List<String> live = new ArrayList<>(size);
+        Deque<Node> nodes = new ArrayDeque<>();
+        if (root != null) {
+            nodes.push(root);
+        }
+        while (!nodes.isEmpty()) {
+            Node node = nodes.pop();
+            if (!node.removed) {
+                live.add(node.word);
+            }
+            node.children.values().forEach(nodes::push);
+        }
+        root = null;
+        size = 0;
+        removed = 0;
+        live.forEach(this::add);
+    }
+
+    public static int distance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static final class Node {
+        private final String word;
+        private final Map<Integer, Node> children = new HashMap<>();
+        private boolean removed;
+
+        private Node(String word) {
+            this.word = word;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package ru.anhimov.library.search;
+
+import org.springframework.stereotype.Component;
+import ru.anhimov.library.dto.BookListItem;
+
+import java.util.List;
+import java.util.Optional;
+
+@Component
+public class BookSearchIndex {
+    private static final String FIELD_SEPARATOR = "\n";
+
+    private volatile TrigramIndex trigramIndex;
+    private volatile FuzzyIndex fuzzyIndex;
+
+    public boolean isReady() {
+        return trigramIndex != null;
+    }
+
+    public void rebuild(Iterable<BookListItem> books) {
+        TrigramIndex rebuiltTrigrams = new TrigramIndex();
+        FuzzyIndex rebuiltFuzzy = new FuzzyIndex();
+        for (BookListItem book : books) {
+            String text = text(book);
+            rebuiltTrigrams.put(book.getId(), text);
+            rebuiltFuzzy.put(book.getId(), text);
+        }
+        fuzzyIndex = rebuiltFuzzy;
+        trigramIndex = rebuiltTrigrams;
+    }
+
+    public void index(BookListItem book) {
+        if (isReady()) {
+            String text = text(book);
+            trigramIndex.put(book.getId(), text);
+            fuzzyIndex.put(book.getId(), text);
+        }
+    }
+
+    public void remove(int id) {
+        if (isReady()) {
+            trigramIndex.remove(id);
+            fuzzyIndex.remove(id);
+        }
+    }
+
+    public Optional<List<Integer>> search(String query) {
+        TrigramIndex current = trigramIndex;
+        if (current == null || !TrigramIndex.isSearchable(query)) {
+            return Optional.empty();
+        }
+        return Optional.of(current.search(query));
+    }
+
+    public Optional<List<Integer>> fuzzySearch(String query, int maxDistance) {
+        FuzzyIndex current = fuzzyIndex;
+        if (current == null) {
+            return Optional.empty();
+        }
+        return Optional.of(current.search(query, maxDistance));
+    }
+
+    private static String text(BookListItem book) {
+        return book.getTitle() + FIELD_SEPARATOR + book.getAuthor();
+    }
+}
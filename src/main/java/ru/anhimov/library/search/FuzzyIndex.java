@@ -0,0 +1,126 @@
+package ru.anhimov.library.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+public class FuzzyIndex {
+    private static final String WORD_DELIMITER = "[^\\p{L}\\p{Nd}]+";
+
+    private final BkTree words = new BkTree();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Integer, Set<String>> wordsById = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public static Set<String> tokenize(String text) {
+        return Arrays.stream(TrigramIndex.normalize(text).split(WORD_DELIMITER))
+                .filter(word -> !word.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    public static int allowedDistance(String word, int maxDistance) {
+        int byLength = word.length() <= 2 ? 0 : word.length() <= 5 ? 1 : 2;
+        return Math.min(maxDistance, byLength);
+    }
+
+    public void put(int id, String text) {
+        Set<String> documentWords = tokenize(text);
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+            wordsById.put(id, documentWords);
+            for (String word : documentWords) {
+                postings.computeIfAbsent(word, key -> {
+                    words.add(key);
+                    return new PostingList();
+                }).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int wordCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Integer> search(String query, int maxDistance) {
+        Set<String> queryWords = tokenize(query);
+        if (queryWords.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Integer, Integer> scores = null;
+            for (String queryWord : queryWords) {
+                Map<Integer, Integer> wordScores = bestDistances(queryWord, allowedDistance(queryWord, maxDistance));
+                if (scores == null) {
+                    scores = wordScores;
+                } else {
+                    scores.keySet().retainAll(wordScores.keySet());
+                    scores.replaceAll((id, score) -> score + wordScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            List<Map.Entry<Integer, Integer>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Integer, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+            return ranked.stream().map(Map.Entry::getKey).collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Integer, Integer> bestDistances(String queryWord, int maxDistance) {
+        Map<Integer, Integer> result = new HashMap<>();
+        for (Map.Entry<String, Integer> match : words.search(queryWord, maxDistance).entrySet()) {
+            PostingList list = postings.get(match.getKey());
+            if (list == null) {
+                continue;
+            }
+            for (int i = 0; i < list.size(); i++) {
+                result.merge(list.get(i), match.getValue(), Math::min);
+            }
+        }
+        return result;
+    }
+
+    private void removeDocument(int id) {
+        Set<String> previous = wordsById.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String word : previous) {
+            PostingList list = postings.get(word);
+            if (list != null) {
+                list.remove(id);
+                if (list.size() == 0) {
+                    postings.remove(word);
+                    words.remove(word);
+                }
+            }
+        }
+    }
+}
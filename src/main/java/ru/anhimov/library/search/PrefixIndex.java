@@ -0,0 +1,54 @@
+package ru.anhimov.library.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+public class PrefixIndex {
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final NavigableMap<String, Suggestion> entries = new ConcurrentSkipListMap<>();
+    private final Map<Integer, String> keysById = new ConcurrentHashMap<>();
+
+    public synchronized void put(int id, String text) {
+        String key = TrigramIndex.normalize(text) + KEY_SEPARATOR + id;
+        String previous = keysById.put(id, key);
+        if (previous != null) {
+            entries.remove(previous);
+        }
+        entries.put(key, new Suggestion(id, text));
+    }
+
+    public synchronized void remove(int id) {
+        String previous = keysById.remove(id);
+        if (previous != null) {
+            entries.remove(previous);
+        }
+    }
+
+    public List<Suggestion> suggest(String prefix, int limit, boolean distinct) {
+        String normalizedPrefix = TrigramIndex.normalize(prefix);
+        List<Suggestion> result = new ArrayList<>(limit);
+        String previousText = null;
+
+        for (Map.Entry<String, Suggestion> entry : entries.tailMap(normalizedPrefix, true).entrySet()) {
+            if (result.size() >= limit || !entry.getKey().startsWith(normalizedPrefix)) {
+                break;
+            }
+            String text = entry.getKey().substring(0, entry.getKey().lastIndexOf(KEY_SEPARATOR));
+            if (distinct && text.equals(previousText)) {
+                continue;
+            }
+            previousText = text;
+            result.add(entry.getValue());
+        }
+        return result;
+    }
+
+    public int size() {
+        return keysById.size();
+    }
+}
@@ -0,0 +1,23 @@
+package ru.anhimov.library.search;
+
+import java.util.Locale;
+
+public enum SuggestField {
+    TITLE(false),
+    AUTHOR(true),
+    PERSON(false);
+
+    private final boolean distinct;
+
+    SuggestField(boolean distinct) {
+        this.distinct = distinct;
+    }
+
+    public boolean isDistinct() {
+        return distinct;
+    }
+
+    public static SuggestField fromParameter(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
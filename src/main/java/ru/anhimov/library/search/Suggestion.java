@@ -0,0 +1,37 @@
+package ru.anhimov.library.search;
+
+import lombok.Getter;
+
+@Getter
+public class Suggestion {
+    private final int id;
+    private final String text;
+
+    public Suggestion(int id, String text) {
+        this.id = id;
+        this.text = text;
+    }
+
+    @Override
+    public String toString() {
+        return "Suggestion{" +
+                "id=" + id +
+                ", text='" + text + '\'' +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Suggestion that = (Suggestion) o;
+
+        return id == that.id && text.equals(that.text);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * id + text.hashCode();
+    }
+}
@@ -0,0 +1,42 @@
+package ru.anhimov.library.search;
+
+import org.springframework.stereotype.Component;
+import ru.anhimov.library.dto.BookListItem;
+import ru.anhimov.library.models.Person;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class SuggestionIndex {
+    private final Map<SuggestField, PrefixIndex> indexes = new EnumMap<>(SuggestField.class);
+
+    public SuggestionIndex() {
+        for (SuggestField field : SuggestField.values()) {
+            indexes.put(field, new PrefixIndex());
+        }
+    }
+
+    public void indexBook(BookListItem book) {
+        indexes.get(SuggestField.TITLE).put(book.getId(), book.getTitle());
+        indexes.get(SuggestField.AUTHOR).put(book.getId(), book.getAuthor());
+    }
+
+    public void removeBook(int id) {
+        indexes.get(SuggestField.TITLE).remove(id);
+        indexes.get(SuggestField.AUTHOR).remove(id);
+    }
+
+    public void indexPerson(Person person) {
+        indexes.get(SuggestField.PERSON).put(person.getId(), person.getName());
+    }
+
+    public void removePerson(int id) {
+        indexes.get(SuggestField.PERSON).remove(id);
+    }
+
+    public List<Suggestion> suggest(SuggestField field, String prefix, int limit) {
+        return indexes.get(field).suggest(prefix, limit, field.isDistinct());
+    }
+}
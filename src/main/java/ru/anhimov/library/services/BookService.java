@@ -1,82 +1,205 @@
 package ru.anhimov.library.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.anhimov.library.cache.QueryResultCache;
+import ru.anhimov.library.config.ApplicationConstants;
+import ru.anhimov.library.dao.LoanEventDAO;
+import ru.anhimov.library.dto.BookListItem;
+import ru.anhimov.library.dto.BookOwnership;
+import ru.anhimov.library.dto.BulkUpdateReport;
+import ru.anhimov.library.importer.CatalogImportedEvent;
+import ru.anhimov.library.metrics.QueryCounter;
 import ru.anhimov.library.models.Book;
+import ru.anhimov.library.models.LoanEventType;
 import ru.anhimov.library.models.Person;
+import ru.anhimov.library.repositories.BookListQueries;
 import ru.anhimov.library.repositories.BookRepository;
+import ru.anhimov.library.search.BookSearchIndex;
+import ru.anhimov.library.search.SuggestionIndex;
+import ru.anhimov.library.search.TrigramIndex;
+import ru.anhimov.library.util.BookCursor;
+import ru.anhimov.library.util.ChunkedIterable;
+import ru.anhimov.library.util.TransactionCallbacks;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
 public class BookService {
     private final BookRepository bookRepository;
+    private final BookListQueries listQueries;
+    private final BookSearchIndex searchIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final QueryResultCache queryCache;
+    private final LoanEventDAO loanEventDAO;
 
     @Autowired
-    public BookService(BookRepository bookRepository) {
+    public BookService(BookRepository bookRepository, BookListQueries listQueries, BookSearchIndex searchIndex,
+                       SuggestionIndex suggestionIndex, QueryResultCache queryCache, LoanEventDAO loanEventDAO) {
         this.bookRepository = bookRepository;
+        this.listQueries = listQueries;
+        this.searchIndex = searchIndex;
+        this.suggestionIndex = suggestionIndex;
+        this.queryCache = queryCache;
+        this.loanEventDAO = loanEventDAO;
     }
 
-    public Page<Book> findAllBooks(Integer page, Integer size, Boolean sortByYear) {
-        Sort sort = sortByYear ? Sort.by("year") : Sort.unsorted();
-        return bookRepository.findAll(PageRequest.of(page, size, sort));
+    @EventListener(ContextRefreshedEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void buildSearchIndex() {
+        searchIndex.rebuild(streamAllBooks(false));
+        streamAllBooks(false).forEach(suggestionIndex::indexBook);
+    }
+
+    @EventListener(CatalogImportedEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onCatalogImported() {
+        buildSearchIndex();
+        queryCache.invalidateAll();
     }
 
-    public List<Book> findAllBooks(Boolean sortByYear) {
+    public Page<BookListItem> findAllBooks(Integer page, Integer size, Boolean sortByYear) {
         Sort sort = sortByYear ? Sort.by("year") : Sort.unsorted();
-        return bookRepository.findAll(sort);
+        return queryCache.get(QueryResultCache.key("books:page", page, size, sortByYear),
+                () -> listQueries.findListItems(PageRequest.of(page, size, sort)));
+    }
+
+    public Iterable<BookListItem> streamAllBooks(Boolean sortByYear) {
+        return new ChunkedIterable<>(last -> QueryCounter.chunk(() ->
+                findBooksAfter(last == null ? null : BookCursor.of(last), ApplicationConstants.STREAM_CHUNK_SIZE,
+                        sortByYear).getContent()),
+                ApplicationConstants.STREAM_CHUNK_SIZE);
+    }
+
+    public Slice<BookListItem> findBooksAfter(BookCursor after, int size, Boolean sortByYear) {
+        BookCursor cursor = after == null ? BookCursor.FIRST : after;
+        Pageable limit = PageRequest.of(0, size);
+        Slice<BookListItem> slice = sortByYear
+                ? listQueries.findSliceAfterYearAndId(cursor.getYear(), cursor.getId(), limit)
+                : listQueries.findSliceAfterId(cursor.getId(), limit);
+        return toCursorSlice(slice.getContent(), size, after != null, slice.hasNext());
+    }
+
+    public Slice<BookListItem> findBooksBefore(BookCursor before, int size, Boolean sortByYear) {
+        BookCursor cursor = before == null ? BookCursor.LAST : before;
+        Pageable limit = PageRequest.of(0, size);
+        Slice<BookListItem> slice = sortByYear
+                ? listQueries.findSliceBeforeYearAndId(cursor.getYear(), cursor.getId(), limit)
+                : listQueries.findSliceBeforeId(cursor.getId(), limit);
+        List<BookListItem> books = new ArrayList<>(slice.getContent());
+        Collections.reverse(books);
+        return toCursorSlice(books, size, slice.hasNext(), before != null);
     }
 
     public Book findById(int id) {
         return bookRepository.findById(id).orElse(null);
     }
 
-    public Optional<Person> findBookOwner(int id) {
-        return bookRepository.findBookOwner(id);
+    public Book findWithOwnerById(int id) {
+        return bookRepository.findWithOwnerById(id).orElse(null);
     }
 
     @Transactional
     public void save(Book book) {
         bookRepository.save(book);
+        TransactionCallbacks.afterCommit(() -> {
+            indexBook(BookListItem.of(book));
+            queryCache.invalidateAll();
+        });
     }
 
     @Transactional
     public void update(int id, Book book) {
-        bookRepository.findById(id).ifPresent(existingBook -> {
-            existingBook.setTitle(book.getTitle());
-            existingBook.setAuthor(book.getAuthor());
-            existingBook.setYear(book.getYear());
-            bookRepository.save(existingBook);
-        });
+        // A conditional update rather than load-and-save, so a checkout committed in between cannot fail the edit
+        if (bookRepository.updateDetails(id, book.getTitle(), book.getAuthor(), book.getYear()) == 0) {
+            return;
+        }
+        bookRepository.findListItemsByIdIn(List.of(id)).forEach(item -> TransactionCallbacks.afterCommit(() -> {
+            indexBook(item);
+            queryCache.invalidateAll();
+        }));
     }
 
     @Transactional
     public void delete(int id) {
         bookRepository.deleteById(id);
+        TransactionCallbacks.afterCommit(() -> {
+            searchIndex.remove(id);
+            suggestionIndex.removeBook(id);
+            queryCache.invalidateAll();
+        });
+    }
+
+    @Transactional
+    public boolean assign(int id, Person selectedPerson) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!afterOwnerChange(bookRepository.assignIfAvailable(id, selectedPerson, now))) {
+            return false;
+        }
+        loanEventDAO.recordEvents(List.of(id), LoanEventType.ASSIGN, now);
+        return true;
+    }
+
+    @Transactional
+    public boolean release(int id) {
+        Optional<BookOwnership> ownership = bookRepository.findOwnership(id);
+        if (ownership.isEmpty() || !afterOwnerChange(releaseIfOwnedBy(ownership.get()))) {
+            return false;
+        }
+        loanEventDAO.recordEvent(id, ownership.get().getOwnerId(), LoanEventType.RELEASE, LocalDateTime.now());
+        return true;
     }
 
     @Transactional
-    public void assign(int id, Person selectedPerson) {
-        bookRepository.findById(id).ifPresent(book -> {
-            book.setBorrowTimestamp(LocalDateTime.now());
-            book.setOwner(selectedPerson);
-            bookRepository.save(book);
+    public BulkUpdateReport assignAll(Collection<Integer> ids, Person selectedPerson) {
+        // Truncated so the stored timestamp compares equal when the assigned rows are read back
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        return updateOwners(ids, batch -> {
+            if (bookRepository.assignAvailable(batch, selectedPerson, now) == 0) {
+                return List.of();
+            }
+            List<Integer> assigned = bookRepository.findIdsBorrowedAt(batch, selectedPerson, now);
+            loanEventDAO.recordEvents(assigned, LoanEventType.ASSIGN, now);
+            return assigned;
         });
     }
 
     @Transactional
-    public void release(int id) {
-        bookRepository.findById(id).ifPresent(book -> {
-            book.setBorrowTimestamp(null);
-            book.setOwner(null);
-            bookRepository.save(book);
+    public BulkUpdateReport releaseAll(Collection<Integer> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        return updateOwners(ids, batch -> {
+            List<Integer> borrowed = bookRepository.findBorrowedIdsIn(batch);
+            if (borrowed.isEmpty()) {
+                return borrowed;
+            }
+            loanEventDAO.recordEvents(borrowed, LoanEventType.RELEASE, now);
+            if (bookRepository.releaseBorrowed(borrowed) != borrowed.size()) {
+                throw new OptimisticLockingFailureException("Books " + borrowed + " were returned concurrently");
+            }
+            return borrowed;
         });
     }
 
@@ -84,7 +207,69 @@ public class BookService {
         return bookRepository.findBookByTitleAndAuthor(title, author);
     }
 
-    public List<Book> findBookByTitleLikeIgnoreCase(String query) {
-        return bookRepository.findBookByTitleLikeIgnoreCase("%" + query + "%");
+    public List<BookListItem> searchBooks(String query) {
+        return queryCache.get(QueryResultCache.key("books:search", TrigramIndex.normalize(query)),
+                () -> searchIndex.search(query)
+                        .map(this::findAllByIdInOrder)
+                        .orElseGet(() -> listQueries.findListItemsByTitleOrAuthorLike(
+                                "%" + TrigramIndex.normalize(query) + "%")));
+    }
+
+    public List<BookListItem> fuzzySearchBooks(String query, int maxDistance) {
+        return queryCache.get(QueryResultCache.key("books:fuzzy", maxDistance, TrigramIndex.normalize(query)),
+                () -> searchIndex.fuzzySearch(query, maxDistance)
+                        .map(this::findAllByIdInOrder)
+                        .orElseGet(() -> searchBooks(query)));
+    }
+
+    private int releaseIfOwnedBy(BookOwnership ownership) {
+        // Loans recorded before borrow timestamps were kept have none to compare against
+        if (ownership.getBorrowedAt() == null) {
+            return bookRepository.releaseUntimedIfOwnedBy(ownership.getBookId(), ownership.getOwnerId());
+        }
+        return bookRepository.releaseIfOwnedBy(ownership.getBookId(), ownership.getOwnerId(), ownership.getBorrowedAt());
+    }
+
+    private boolean afterOwnerChange(int updatedRows) {
+        if (updatedRows == 0) {
+            return false;
+        }
+        TransactionCallbacks.afterCommit(queryCache::invalidateAll);
+        return true;
+    }
+
+    private BulkUpdateReport updateOwners(Collection<Integer> ids, Function<List<Integer>, List<Integer>> update) {
+        List<Integer> requested = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<Integer> changed = new ArrayList<>();
+        for (int from = 0; from < requested.size(); from += ApplicationConstants.BULK_UPDATE_BATCH_SIZE) {
+            List<Integer> batch = requested.subList(from,
+                    Math.min(from + ApplicationConstants.BULK_UPDATE_BATCH_SIZE, requested.size()));
+            changed.addAll(update.apply(batch));
+        }
+        if (!changed.isEmpty()) {
+            TransactionCallbacks.afterCommit(queryCache::invalidateAll);
+        }
+        return new BulkUpdateReport(requested, changed);
+    }
+
+    private void indexBook(BookListItem item) {
+        searchIndex.index(item);
+        suggestionIndex.indexBook(item);
+    }
+
+    private List<BookListItem> findAllByIdInOrder(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, BookListItem> books = listQueries.findListItemsByIdIn(ids).stream()
+                .collect(Collectors.toMap(BookListItem::getId, Function.identity()));
+        return ids.stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private Slice<BookListItem> toCursorSlice(List<BookListItem> books, int size, boolean hasPrevious, boolean hasNext) {
+        return new SliceImpl<>(books, PageRequest.of(hasPrevious ? 1 : 0, size), hasNext);
     }
 }
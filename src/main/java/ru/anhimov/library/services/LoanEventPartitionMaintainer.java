@@ -0,0 +1,78 @@
+package ru.anhimov.library.services;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import ru.anhimov.library.dao.LoanEventPartitionDAO;
+
+import java.time.Clock;
+import java.time.YearMonth;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Component
+public class LoanEventPartitionMaintainer implements DisposableBean {
+    private static final Logger LOGGER = Logger.getLogger(LoanEventPartitionMaintainer.class.getName());
+
+    private final LoanEventPartitionDAO partitionDAO;
+    private final Clock clock;
+    private final boolean partitioned;
+    private final int monthsAhead;
+    private ScheduledExecutorService executor;
+
+    @Autowired
+    public LoanEventPartitionMaintainer(LoanEventPartitionDAO partitionDAO, Environment env) {
+        this(partitionDAO, env, Clock.systemDefaultZone());
+    }
+
+    public LoanEventPartitionMaintainer(LoanEventPartitionDAO partitionDAO, Environment env, Clock clock) {
+        this.partitionDAO = partitionDAO;
+        this.clock = clock;
+        this.partitioned = env.getRequiredProperty("library.loan_events.partitioned", Boolean.class);
+        this.monthsAhead = env.getRequiredProperty("library.loan_events.months_ahead", Integer.class);
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public synchronized void start() {
+        if (executor != null || !partitioned) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "loan-event-partitions");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::ensurePartitionsQuietly, 0, 1, TimeUnit.DAYS);
+    }
+
+    public int ensurePartitions() {
+        YearMonth current = YearMonth.now(clock);
+        for (int i = 0; i <= monthsAhead; i++) {
+            partitionDAO.createMonthlyPartition(current.plusMonths(i));
+        }
+        return monthsAhead + 1;
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void ensurePartitionsQuietly() {
+        try {
+            ensurePartitions();
+        } catch (DataAccessException e) {
+            LOGGER.log(Level.WARNING, "Could not create loan_event partitions", e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ru.anhimov.library.services;
+
+import lombok.Getter;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+@Getter
+public class LoanPolicy {
+    private final int overdueDays;
+    private final Clock clock;
+
+    public LoanPolicy(int overdueDays) {
+        this(overdueDays, Clock.systemDefaultZone());
+    }
+
+    public LoanPolicy(int overdueDays, Clock clock) {
+        if (overdueDays < 0) {
+            throw new IllegalArgumentException("Overdue days must not be negative: " + overdueDays);
+        }
+        this.overdueDays = overdueDays;
+        this.clock = clock;
+    }
+
+    public LocalDateTime overdueCutoff() {
+        return LocalDateTime.now(clock).minusDays(overdueDays);
+    }
+
+    public boolean isOverdue(LocalDateTime borrowTimestamp) {
+        return borrowTimestamp != null && borrowTimestamp.isBefore(overdueCutoff());
+    }
+}
@@ -0,0 +1,57 @@
+package ru.anhimov.library.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.anhimov.library.dto.LoanDayCount;
+import ru.anhimov.library.dto.OverdueCount;
+import ru.anhimov.library.dto.OverdueLoan;
+import ru.anhimov.library.models.LoanEvent;
+import ru.anhimov.library.repositories.BookRepository;
+import ru.anhimov.library.repositories.LoanEventRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+@Transactional(readOnly = true)
+public class LoanService {
+    private final BookRepository bookRepository;
+    private final LoanEventRepository loanEventRepository;
+    private final LoanPolicy loanPolicy;
+
+    @Autowired
+    public LoanService(BookRepository bookRepository, LoanEventRepository loanEventRepository, LoanPolicy loanPolicy) {
+        this.bookRepository = bookRepository;
+        this.loanEventRepository = loanEventRepository;
+        this.loanPolicy = loanPolicy;
+    }
+
+    public Page<OverdueLoan> findOverdueLoans(int page, int size) {
+        return bookRepository.findOverdueLoans(loanPolicy.overdueCutoff(), PageRequest.of(page, size));
+    }
+
+    public List<OverdueCount> countOverdueLoansByPerson() {
+        return bookRepository.countOverdueLoansByPerson(loanPolicy.overdueCutoff());
+    }
+
+    public List<LoanEvent> findBookHistory(int bookId, LocalDate from, LocalDate to, int limit) {
+        return loanEventRepository.findBookHistory(bookId, from.atStartOfDay(), to.plusDays(1).atStartOfDay(),
+                PageRequest.of(0, limit));
+    }
+
+    public List<LoanEvent> findPersonHistory(int personId, LocalDate from, LocalDate to, int limit) {
+        return loanEventRepository.findPersonHistory(personId, from.atStartOfDay(), to.plusDays(1).atStartOfDay(),
+                PageRequest.of(0, limit));
+    }
+
+    public List<LoanDayCount> countLoansPerDay(LocalDate from, LocalDate to) {
+        return loanEventRepository.countLoansPerDay(from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+    }
+
+    public int getOverdueDays() {
+        return loanPolicy.getOverdueDays();
+    }
+}
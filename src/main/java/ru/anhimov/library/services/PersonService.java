@@ -1,15 +1,24 @@
 package ru.anhimov.library.services;
 
-import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.anhimov.library.cache.QueryResultCache;
+import ru.anhimov.library.config.ApplicationConstants;
 import ru.anhimov.library.models.Book;
 import ru.anhimov.library.models.Person;
+import ru.anhimov.library.repositories.PersonDetailQueries;
 import ru.anhimov.library.repositories.PersonRepository;
+import ru.anhimov.library.search.SuggestionIndex;
+import ru.anhimov.library.util.ChunkedIterable;
+import ru.anhimov.library.util.TransactionCallbacks;
 
-import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,35 +26,52 @@ import java.util.Optional;
 @Transactional(readOnly = true)
 public class PersonService {
     private final PersonRepository personRepository;
+    private final PersonDetailQueries detailQueries;
+    private final SuggestionIndex suggestionIndex;
+    private final QueryResultCache queryCache;
+    private final LoanPolicy loanPolicy;
 
     @Autowired
-    public PersonService(PersonRepository personRepository) {
+    public PersonService(PersonRepository personRepository, PersonDetailQueries detailQueries,
+                         SuggestionIndex suggestionIndex, QueryResultCache queryCache, LoanPolicy loanPolicy) {
         this.personRepository = personRepository;
+        this.detailQueries = detailQueries;
+        this.suggestionIndex = suggestionIndex;
+        this.queryCache = queryCache;
+        this.loanPolicy = loanPolicy;
     }
 
+    @EventListener(ContextRefreshedEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void buildSuggestionIndex() {
+        new ChunkedIterable<Person>(last -> personRepository.findSliceAfterId(last == null ? Integer.MIN_VALUE : last.getId(),
+                PageRequest.of(0, ApplicationConstants.STREAM_CHUNK_SIZE)).getContent(),
+                ApplicationConstants.STREAM_CHUNK_SIZE)
+                .forEach(suggestionIndex::indexPerson);
+    }
 
     public List<Person> findAll() {
         return personRepository.findAll();
     }
 
+    public Slice<Person> findByNamePrefix(String prefix, int page, int size) {
+        return personRepository.findByNameStartingWithIgnoreCase(prefix.trim(), PageRequest.of(page, size, Sort.by("name")));
+    }
+
     public Person findById(int id) {
-        return personRepository.findById(id).orElse(null);
+        return detailQueries.findPersonById(id).orElse(null);
     }
 
     public List<Book> findBooksByPersonId(int id) {
-        return personRepository.findById(id)
-                .map(person -> {
-                    Hibernate.initialize(person.getBooks());
-                    List<Book> books = person.getBooks();
-                    books.forEach(book -> book.setIsOverdue(isBookOverdue(book)));
-                    return books;
-                })
-                .orElse(Collections.emptyList());
+        List<Book> books = detailQueries.findBooksByOwnerId(id);
+        books.forEach(book -> book.setIsOverdue(loanPolicy.isOverdue(book.getBorrowTimestamp())));
+        return books;
     }
 
     @Transactional
     public void save(Person person) {
         personRepository.save(person);
+        TransactionCallbacks.afterCommit(() -> suggestionIndex.indexPerson(person));
     }
 
     @Transactional
@@ -54,23 +80,23 @@ public class PersonService {
             exsistingPerson.setName(person.getName());
             exsistingPerson.setAge(person.getAge());
             personRepository.save(exsistingPerson);
+            TransactionCallbacks.afterCommit(() -> {
+                suggestionIndex.indexPerson(exsistingPerson);
+                queryCache.invalidateAll();
+            });
         });
     }
 
     @Transactional
     public void delete(int id) {
         personRepository.deleteById(id);
+        TransactionCallbacks.afterCommit(() -> {
+            suggestionIndex.removePerson(id);
+            queryCache.invalidateAll();
+        });
     }
 
     public Optional<Person> findPersonByName(String name) {
         return personRepository.findByName(name);
     }
-
-    private boolean isBookOverdue(Book book) {
-        if (book.getBorrowTimestamp() == null) {
-            return false;
-        }
-        LocalDateTime now = LocalDateTime.now();
-        return book.getBorrowTimestamp().isBefore(now.minusDays(10));
-    }
 }
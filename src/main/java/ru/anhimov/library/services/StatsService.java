@@ -0,0 +1,57 @@
+package ru.anhimov.library.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.anhimov.library.dto.BookListItem;
+import ru.anhimov.library.dto.RankedItem;
+import ru.anhimov.library.dto.StatsDashboard;
+import ru.anhimov.library.models.Person;
+import ru.anhimov.library.repositories.BookListQueries;
+import ru.anhimov.library.repositories.PersonRepository;
+import ru.anhimov.library.stats.CirculationStats;
+import ru.anhimov.library.stats.StatsSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional(readOnly = true)
+public class StatsService {
+    private final CirculationStats stats;
+    private final BookListQueries listQueries;
+    private final PersonRepository personRepository;
+
+    @Autowired
+    public StatsService(CirculationStats stats, BookListQueries listQueries, PersonRepository personRepository) {
+        this.stats = stats;
+        this.listQueries = listQueries;
+        this.personRepository = personRepository;
+    }
+
+    public StatsDashboard getDashboard() {
+        StatsSnapshot snapshot = stats.snapshot();
+        Map<Integer, String> titles = snapshot.getTopBooks().isEmpty() ? Map.of()
+                : listQueries.findListItemsByIdIn(new ArrayList<>(snapshot.getTopBooks().keySet())).stream()
+                .collect(Collectors.toMap(BookListItem::getId, book -> book.getTitle() + ", " + book.getAuthor()));
+        Map<Integer, String> names = snapshot.getTopBorrowers().isEmpty() ? Map.of()
+                : personRepository.findAllById(snapshot.getTopBorrowers().keySet()).stream()
+                .collect(Collectors.toMap(Person::getId, Person::getName));
+        return new StatsDashboard(rank(snapshot.getTopBooks(), titles::get), rank(snapshot.getTopBorrowers(), names::get),
+                snapshot.getLoansPerMonth(), snapshot.getTotalBooks(), snapshot.getBorrowedBooks());
+    }
+
+    private static List<RankedItem> rank(Map<Integer, Long> counts, Function<Integer, String> labels) {
+        List<RankedItem> ranked = new ArrayList<>(counts.size());
+        counts.forEach((id, count) -> {
+            String label = labels.apply(id);
+            if (label != null) {
+                ranked.add(new RankedItem(id, label, count));
+            }
+        });
+        return ranked;
+    }
+}
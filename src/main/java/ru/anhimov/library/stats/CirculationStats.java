@@ -0,0 +1,153 @@
+package ru.anhimov.library.stats;
+
+import ru.anhimov.library.models.LoanEvent;
+import ru.anhimov.library.models.LoanEventType;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+public class CirculationStats {
+    static final String BOOK_PREFIX = "book:";
+    static final String PERSON_PREFIX = "person:";
+    static final String MONTH_PREFIX = "month:";
+    static final String WATERMARK_KEY = "watermark";
+    static final String GAP_PREFIX = "gap:";
+    static final int MAX_GAP_SPAN = 1000;
+
+    private final TopCounter books;
+    private final TopCounter borrowers;
+    private final NavigableMap<YearMonth, Long> loansPerMonth = new TreeMap<>();
+    private final int monthsShown;
+    private final NavigableMap<Long, Long> gaps = new TreeMap<>();
+    private final Set<String> dirty = new HashSet<>();
+    private final Set<String> closedGaps = new HashSet<>();
+    private long watermark;
+    private long totalBooks;
+    private long borrowedBooks;
+
+    public CirculationStats(int topK, int monthsShown) {
+        this.books = new TopCounter(topK);
+        this.borrowers = new TopCounter(topK);
+        this.monthsShown = monthsShown;
+    }
+
+    public synchronized void apply(LoanEvent event, long seenAtMillis) {
+        if (event.getId() <= watermark) {
+            if (gaps.remove(event.getId()) == null) {
+                return;
+            }
+            closeGap(event.getId());
+        } else {
+            for (long id = Math.max(watermark + 1, event.getId() - MAX_GAP_SPAN); id < event.getId(); id++) {
+                gaps.put(id, seenAtMillis);
+                dirty.add(GAP_PREFIX + id);
+            }
+            watermark = event.getId();
+            dirty.add(WATERMARK_KEY);
+        }
+        if (event.getType() == LoanEventType.ASSIGN) {
+            books.increment(event.getBookId());
+            borrowers.increment(event.getPersonId());
+            loansPerMonth.merge(YearMonth.from(event.getOccurredAt()), 1L, Long::sum);
+            dirty.add(BOOK_PREFIX + event.getBookId());
+            dirty.add(PERSON_PREFIX + event.getPersonId());
+            dirty.add(MONTH_PREFIX + YearMonth.from(event.getOccurredAt()));
+        }
+    }
+
+    public synchronized Set<Long> getGaps() {
+        return new HashSet<>(gaps.keySet());
+    }
+
+    public synchronized void expireGaps(long openedBeforeMillis) {
+        gaps.entrySet().removeIf(gap -> {
+            if (gap.getValue() >= openedBeforeMillis) {
+                return false;
+            }
+            closeGap(gap.getKey());
+            return true;
+        });
+    }
+
+    public synchronized void load(String key, long value) {
+        if (key.startsWith(BOOK_PREFIX)) {
+            books.set(Integer.parseInt(key.substring(BOOK_PREFIX.length())), value);
+        } else if (key.startsWith(PERSON_PREFIX)) {
+            borrowers.set(Integer.parseInt(key.substring(PERSON_PREFIX.length())), value);
+        } else if (key.startsWith(MONTH_PREFIX)) {
+            loansPerMonth.put(YearMonth.parse(key.substring(MONTH_PREFIX.length())), value);
+        } else if (key.startsWith(GAP_PREFIX)) {
+            gaps.put(Long.parseLong(key.substring(GAP_PREFIX.length())), value);
+        } else if (WATERMARK_KEY.equals(key)) {
+            watermark = value;
+        }
+    }
+
+    public synchronized Map<String, Long> drainDirty() {
+        Map<String, Long> values = new HashMap<>();
+        for (String key : dirty) {
+            values.put(key, valueOf(key));
+        }
+        dirty.clear();
+        return values;
+    }
+
+    public synchronized Set<String> drainClosedGaps() {
+        Set<String> keys = new HashSet<>(closedGaps);
+        closedGaps.clear();
+        return keys;
+    }
+
+    public synchronized void markClosed(Collection<String> gapKeys) {
+        closedGaps.addAll(gapKeys);
+    }
+
+    public synchronized void markDirty(Collection<String> keys) {
+        dirty.addAll(keys);
+    }
+
+    public synchronized void setCatalog(long totalBooks, long borrowedBooks) {
+        this.totalBooks = totalBooks;
+        this.borrowedBooks = borrowedBooks;
+    }
+
+    public synchronized long getWatermark() {
+        return watermark;
+    }
+
+    public synchronized StatsSnapshot snapshot() {
+        Map<YearMonth, Long> months = new LinkedHashMap<>();
+        loansPerMonth.descendingMap().entrySet().stream()
+                .limit(monthsShown)
+                .forEach(entry -> months.put(entry.getKey(), entry.getValue()));
+        return new StatsSnapshot(books.top(), borrowers.top(), months, totalBooks, borrowedBooks, watermark);
+    }
+
+    private long valueOf(String key) {
+        if (key.startsWith(BOOK_PREFIX)) {
+            return books.get(Integer.parseInt(key.substring(BOOK_PREFIX.length())));
+        }
+        if (key.startsWith(PERSON_PREFIX)) {
+            return borrowers.get(Integer.parseInt(key.substring(PERSON_PREFIX.length())));
+        }
+        if (key.startsWith(MONTH_PREFIX)) {
+            return loansPerMonth.getOrDefault(YearMonth.parse(key.substring(MONTH_PREFIX.length())), 0L);
+        }
+        if (key.startsWith(GAP_PREFIX)) {
+            return gaps.get(Long.parseLong(key.substring(GAP_PREFIX.length())));
+        }
+        return watermark;
+    }
+
+    private void closeGap(long id) {
+        dirty.remove(GAP_PREFIX + id);
+        closedGaps.add(GAP_PREFIX + id);
+    }
+}
@@ -0,0 +1,141 @@
+package ru.anhimov.library.stats;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.anhimov.library.models.CirculationStat;
+import ru.anhimov.library.models.LoanEvent;
+import ru.anhimov.library.repositories.BookRepository;
+import ru.anhimov.library.repositories.CirculationStatRepository;
+import ru.anhimov.library.repositories.LoanEventRepository;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+@Component
+public class CirculationStatsFolder implements DisposableBean {
+    private static final Logger LOGGER = Logger.getLogger(CirculationStatsFolder.class.getName());
+
+    private final CirculationStats stats;
+    private final LoanEventRepository loanEventRepository;
+    private final BookRepository bookRepository;
+    private final CirculationStatRepository statRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final long intervalMillis;
+    private final long gapTimeoutMillis;
+    private final int batchSize;
+    private boolean loaded;
+    private ScheduledExecutorService executor;
+
+    @Autowired
+    public CirculationStatsFolder(CirculationStats stats, LoanEventRepository loanEventRepository,
+                                  BookRepository bookRepository, CirculationStatRepository statRepository,
+                                  PlatformTransactionManager transactionManager, Environment env) {
+        this(stats, loanEventRepository, bookRepository, statRepository, transactionManager, env,
+                Clock.systemDefaultZone());
+    }
+
+    public CirculationStatsFolder(CirculationStats stats, LoanEventRepository loanEventRepository,
+                                  BookRepository bookRepository, CirculationStatRepository statRepository,
+                                  PlatformTransactionManager transactionManager, Environment env, Clock clock) {
+        this.stats = stats;
+        this.loanEventRepository = loanEventRepository;
+        this.bookRepository = bookRepository;
+        this.statRepository = statRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.intervalMillis = env.getRequiredProperty("library.stats.interval_ms", Long.class);
+        this.gapTimeoutMillis = env.getRequiredProperty("library.stats.gap_timeout_ms", Long.class);
+        this.batchSize = env.getRequiredProperty("library.stats.batch_size", Integer.class);
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "circulation-stats");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(this::foldQuietly);
+        if (intervalMillis > 0) {
+            executor.scheduleWithFixedDelay(this::foldQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public synchronized int fold() {
+        if (!loaded) {
+            statRepository.findAll().forEach(stat -> stats.load(stat.getKey(), stat.getValue()));
+            loaded = true;
+        }
+        long now = clock.millis();
+        int folded = 0;
+        List<Long> gaps = new ArrayList<>(stats.getGaps());
+        for (int from = 0; from < gaps.size(); from += batchSize) {
+            List<LoanEvent> late = loanEventRepository.findByIdIn(
+                    gaps.subList(from, Math.min(from + batchSize, gaps.size())));
+            late.forEach(event -> stats.apply(event, now));
+            folded += late.size();
+        }
+        List<LoanEvent> batch;
+        do {
+            batch = loanEventRepository.findFoldBatch(stats.getWatermark(), PageRequest.of(0, batchSize));
+            batch.forEach(event -> stats.apply(event, now));
+            folded += batch.size();
+        } while (batch.size() == batchSize);
+        stats.expireGaps(now - gapTimeoutMillis);
+
+        Map<String, Long> dirty = stats.drainDirty();
+        Set<String> closed = stats.drainClosedGaps();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                statRepository.saveAll(dirty.entrySet().stream()
+                        .map(entry -> new CirculationStat(entry.getKey(), entry.getValue()))
+                        .collect(Collectors.toList()));
+                if (!closed.isEmpty()) {
+                    statRepository.deleteByKeyIn(closed);
+                }
+            });
+        } catch (RuntimeException e) {
+            stats.markDirty(dirty.keySet());
+            stats.markClosed(closed);
+            throw e;
+        }
+        stats.setCatalog(bookRepository.count(), bookRepository.countByOwnerIsNotNull());
+        return folded;
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void foldQuietly() {
+        try {
+            fold();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Circulation statistics fold failed", e);
+        }
+    }
+}
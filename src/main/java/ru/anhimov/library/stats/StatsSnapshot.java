@@ -0,0 +1,38 @@
+package ru.anhimov.library.stats;
+
+import lombok.Getter;
+
+import java.time.YearMonth;
+import java.util.Map;
+
+@Getter
+public class StatsSnapshot {
+    private final Map<Integer, Long> topBooks;
+    private final Map<Integer, Long> topBorrowers;
+    private final Map<YearMonth, Long> loansPerMonth;
+    private final long totalBooks;
+    private final long borrowedBooks;
+    private final long watermark;
+
+    public StatsSnapshot(Map<Integer, Long> topBooks, Map<Integer, Long> topBorrowers,
+                         Map<YearMonth, Long> loansPerMonth, long totalBooks, long borrowedBooks, long watermark) {
+        this.topBooks = topBooks;
+        this.topBorrowers = topBorrowers;
+        this.loansPerMonth = loansPerMonth;
+        this.totalBooks = totalBooks;
+        this.borrowedBooks = borrowedBooks;
+        this.watermark = watermark;
+    }
+
+    @Override
+    public String toString() {
+        return "StatsSnapshot{" +
+                "topBooks=" + topBooks +
+                ", topBorrowers=" + topBorrowers +
+                ", loansPerMonth=" + loansPerMonth +
+                ", totalBooks=" + totalBooks +
+                ", borrowedBooks=" + borrowedBooks +
+                ", watermark=" + watermark +
+                '}';
+    }
+}
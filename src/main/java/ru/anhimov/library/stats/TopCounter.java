@@ -0,0 +1,93 @@
+package ru.anhimov.library.stats;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class TopCounter {
+    private final Map<Integer, Long> counts = new HashMap<>();
+    private final int[] topKeys;
+    private final long[] topCounts;
+    private int topSize;
+
+    public TopCounter(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive: " + k);
+        }
+        this.topKeys = new int[k];
+        this.topCounts = new long[k];
+    }
+
+    public long increment(int key) {
+        long count = counts.merge(key, 1L, Long::sum);
+        offer(key, count);
+        return count;
+    }
+
+    public void set(int key, long count) {
+        counts.put(key, count);
+        offer(key, count);
+    }
+
+    public long get(int key) {
+        return counts.getOrDefault(key, 0L);
+    }
+
+    public int size() {
+        return counts.size();
+    }
+
+    public Map<Integer, Long> top() {
+        Map<Integer, Long> top = new LinkedHashMap<>();
+        for (int i = 0; i < topSize; i++) {
+            top.put(topKeys[i], topCounts[i]);
+        }
+        return top;
+    }
+
+    private void offer(int key, long count) {
+        int index = indexOf(key);
+        if (index < 0) {
+            if (topSize < topKeys.length) {
+                index = topSize++;
+            } else if (count > topCounts[topSize - 1]) {
+                index = topSize - 1;
+            } else {
+                return;
+            }
+            topKeys[index] = key;
+        }
+        topCounts[index] = count;
+        while (index > 0 && topCounts[index - 1] < topCounts[index]) {
+            swap(index - 1, index);
+            index--;
+        }
+    }
+
+    private int indexOf(int key) {
+        for (int i = 0; i < topSize; i++) {
+            if (topKeys[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void swap(int i, int j) {
+        int key = topKeys[i];
+        topKeys[i] = topKeys[j];
+        topKeys[j] = key;
+        long count = topCounts[i];
+        topCounts[i] = topCounts[j];
+        topCounts[j] = count;
+    }
+
+    @Override
+    public String toString() {
+        return "TopCounter{" +
+                "keys=" + counts.size() +
+                ", top=" + Arrays.toString(Arrays.copyOf(topKeys, topSize)) +
+                '}';
+    }
+}
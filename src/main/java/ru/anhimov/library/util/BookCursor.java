@@ -0,0 +1,72 @@
+package ru.anhimov.library.util;
+
+import lombok.Getter;
+import ru.anhimov.library.dto.BookListItem;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
+@Getter
+public final class BookCursor {
+    public static final BookCursor FIRST = new BookCursor(Integer.MIN_VALUE, Integer.MIN_VALUE);
+    public static final BookCursor LAST = new BookCursor(Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+    private static final String SEPARATOR = ",";
+
+    private final int year;
+    private final int id;
+
+    public BookCursor(int year, int id) {
+        this.year = year;
+        this.id = id;
+    }
+
+    public static BookCursor of(BookListItem book) {
+        return new BookCursor(book.getYear(), book.getId());
+    }
+
+    public static Optional<BookCursor> decode(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARATOR);
+            if (parts.length != 2) {
+                return Optional.empty();
+            }
+            return Optional.of(new BookCursor(Integer.parseInt(parts[0]), Integer.parseInt(parts[1])));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((year + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public String toString() {
+        return "BookCursor{" +
+                "year=" + year +
+                ", id=" + id +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        BookCursor that = (BookCursor) o;
+
+        return year == that.year && id == that.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * year + id;
+    }
+}
@@ -0,0 +1,51 @@
+package ru.anhimov.library.util;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+public class ChunkedIterable<T> implements Iterable<T> {
+    private final Function<T, List<T>> nextChunk;
+    private final int chunkSize;
+
+    public ChunkedIterable(Function<T, List<T>> nextChunk, int chunkSize) {
+        this.nextChunk = nextChunk;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new ChunkIterator();
+    }
+
+    private class ChunkIterator implements Iterator<T> {
+        private Iterator<T> chunk = Collections.emptyIterator();
+        private T last;
+        private boolean exhausted;
+
+        @Override
+        public boolean hasNext() {
+            if (chunk.hasNext()) {
+                return true;
+            }
+            if (exhausted) {
+                return false;
+            }
+            List<T> items = nextChunk.apply(last);
+            exhausted = items.size() < chunkSize;
+            chunk = items.iterator();
+            return chunk.hasNext();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = chunk.next();
+            return last;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+CREATE TABLE IF NOT EXISTS person
+(
+    id int GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name      varchar(100) NOT NULL UNIQUE,
+    age       int CHECK (age > 0),
+    version   int NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS book
+(
+    id   int GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title     varchar(150) NOT NULL,
+    author    varchar(100) NOT NULL,
+    year      int CHECK (year >= -1000 AND year <= EXTRACT(YEAR FROM CURRENT_DATE)),
+    person_id int REFERENCES person (id) ON DELETE SET NULL ON UPDATE CASCADE,
+    borrow_timestamp TIMESTAMP,
+    version   int NOT NULL DEFAULT 0,
+    CONSTRAINT unique_title_author UNIQUE (title, author)
+);
+
+CREATE TABLE IF NOT EXISTS reminder
+(
+    id int GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    book_id          int NOT NULL REFERENCES book (id) ON DELETE CASCADE,
+    person_id        int NOT NULL REFERENCES person (id) ON DELETE CASCADE,
+    person_name      varchar(100) NOT NULL,
+    title            varchar(150) NOT NULL,
+    borrow_timestamp TIMESTAMP NOT NULL,
+    created_at       TIMESTAMP NOT NULL,
+    sent_at          TIMESTAMP,
+    CONSTRAINT unique_reminder_loan UNIQUE (book_id, borrow_timestamp)
+);
+
+CREATE TABLE IF NOT EXISTS circulation_stat
+(
+    stat_key   varchar(40) PRIMARY KEY,
+    stat_value bigint NOT NULL
+);
+
+ALTER TABLE person ADD COLUMN IF NOT EXISTS version int NOT NULL DEFAULT 0;
+ALTER TABLE book ADD COLUMN IF NOT EXISTS version int NOT NULL DEFAULT 0;
+
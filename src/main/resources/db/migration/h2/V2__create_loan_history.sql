@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS loan_event
+(
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    book_id     int NOT NULL,
+    person_id   int NOT NULL,
+    event_type  varchar(10) NOT NULL CHECK (event_type IN ('ASSIGN', 'RELEASE')),
+    occurred_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS loan_event_book_idx ON loan_event (book_id, occurred_at);
+CREATE INDEX IF NOT EXISTS loan_event_person_idx ON loan_event (person_id, occurred_at);
+CREATE INDEX IF NOT EXISTS loan_event_day_idx ON loan_event (event_type, occurred_at);
@@ -0,0 +1,3 @@
+CREATE INDEX IF NOT EXISTS book_person_id_idx ON book (person_id);
+CREATE INDEX IF NOT EXISTS book_year_id_idx ON book (year, id);
+CREATE INDEX IF NOT EXISTS book_overdue_idx ON book (borrow_timestamp, id);
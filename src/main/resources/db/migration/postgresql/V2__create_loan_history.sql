@@ -0,0 +1,31 @@
+CREATE SEQUENCE IF NOT EXISTS loan_event_id_seq AS bigint;
+
+CREATE TABLE IF NOT EXISTS loan_event
+(
+    id          bigint NOT NULL DEFAULT nextval('loan_event_id_seq'),
+    book_id     int NOT NULL,
+    person_id   int NOT NULL,
+    event_type  varchar(10) NOT NULL CHECK (event_type IN ('ASSIGN', 'RELEASE')),
+    occurred_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (id, occurred_at)
+) PARTITION BY RANGE (occurred_at);
+
+ALTER SEQUENCE loan_event_id_seq OWNED BY loan_event.id;
+
+CREATE TABLE IF NOT EXISTS loan_event_default PARTITION OF loan_event DEFAULT;
+
+CREATE INDEX IF NOT EXISTS loan_event_book_idx ON loan_event (book_id, occurred_at) INCLUDE (id, person_id, event_type);
+CREATE INDEX IF NOT EXISTS loan_event_person_idx ON loan_event (person_id, occurred_at) INCLUDE (id, book_id, event_type);
+CREATE INDEX IF NOT EXISTS loan_event_day_idx ON loan_event (event_type, occurred_at);
+
+CREATE OR REPLACE FUNCTION loan_event_append_only() RETURNS trigger AS
+$$
+BEGIN
+    RAISE EXCEPTION 'loan_event is append-only; drop a monthly partition to remove history';
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS loan_event_append_only ON loan_event;
+CREATE TRIGGER loan_event_append_only
+    BEFORE UPDATE OR DELETE ON loan_event
+    FOR EACH STATEMENT EXECUTE FUNCTION loan_event_append_only();
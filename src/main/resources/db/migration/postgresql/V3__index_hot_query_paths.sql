@@ -0,0 +1,7 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS book_person_id_idx ON book (person_id) WHERE person_id IS NOT NULL;
+CREATE INDEX IF NOT EXISTS book_year_id_idx ON book (year, id);
+CREATE INDEX IF NOT EXISTS book_overdue_idx ON book (borrow_timestamp, id) WHERE person_id IS NOT NULL;
+CREATE INDEX IF NOT EXISTS book_title_lower_trgm_idx ON book USING gin (lower(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS person_name_upper_idx ON person (upper(name) text_pattern_ops);
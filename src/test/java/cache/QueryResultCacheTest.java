@@ -0,0 +1,90 @@
+package cache;
+
+import org.junit.jupiter.api.Test;
+import ru.anhimov.library.cache.CacheStats;
+import ru.anhimov.library.cache.QueryResultCache;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryResultCacheTest {
+
+    @Test
+    void getLoadsOnceAndCountsHits() {
+        QueryResultCache cache = new QueryResultCache(10);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("key", loads::incrementAndGet);
+        Integer result = cache.get("key", loads::incrementAndGet);
+
+        assertEquals(1, result);
+        assertEquals(1, loads.get());
+        CacheStats stats = cache.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    void invalidateAllBumpsVersionAndDropsEntries() {
+        QueryResultCache cache = new QueryResultCache(10);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("key", loads::incrementAndGet);
+        cache.invalidateAll();
+        Integer result = cache.get("key", loads::incrementAndGet);
+
+        assertEquals(2, result);
+        assertEquals(1, cache.getStats().getVersion());
+    }
+
+    @Test
+    void valueLoadedBeforeInvalidationIsNotStored() {
+        QueryResultCache cache = new QueryResultCache(10);
+
+        cache.get("key", () -> {
+            cache.invalidateAll();
+            return "stale";
+        });
+
+        assertEquals("fresh", cache.get("key", () -> "fresh"));
+        assertEquals(0, cache.getStats().getHits());
+    }
+
+    @Test
+    void valueLoadedWithinSettleWindowIsNotStored() {
+        QueryResultCache cache = new QueryResultCache(10, 60_000);
+
+        assertEquals("first", cache.get("key", () -> "first"));
+        assertEquals("first", cache.get("key", () -> "second"));
+        cache.invalidateAll();
+        assertEquals("lagging", cache.get("key", () -> "lagging"));
+
+        assertEquals("fresh", cache.get("key", () -> "fresh"));
+        assertEquals(1, cache.getStats().getHits());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedWhenOverWeight() {
+        QueryResultCache cache = new QueryResultCache(4);
+        List<Integer> pair = Arrays.asList(1, 2);
+
+        cache.get("a", () -> pair);
+        cache.get("b", () -> pair);
+        cache.get("a", () -> pair);
+        cache.get("c", () -> pair);
+
+        CacheStats stats = cache.getStats();
+        assertEquals(1, stats.getEvictions());
+        assertEquals(2, stats.getSize());
+        assertEquals(4, stats.getWeight());
+        assertSame(pair, cache.get("a", () -> null));
+    }
+
+    @Test
+    void keyJoinsNormalizedParts() {
+        assertEquals("books:page|0|10|true", QueryResultCache.key("books:page", 0, 10, true));
+    }
+}
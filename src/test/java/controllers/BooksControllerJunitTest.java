@@ -10,9 +10,14 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.servlet.mvc.support.RedirectAttributesModelMap;
+import ru.anhimov.library.config.ApplicationConstants;
 import ru.anhimov.library.controllers.BooksController;
+import ru.anhimov.library.dto.BookListItem;
 import ru.anhimov.library.models.Book;
 import ru.anhimov.library.models.Person;
 import ru.anhimov.library.services.BookService;
@@ -22,7 +27,6 @@ import ru.anhimov.library.util.BookValidator;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 
 public class BooksControllerJunitTest {
 
@@ -54,8 +58,8 @@ public class BooksControllerJunitTest {
         int page = 1;
         int size = 5;
         boolean sortByYear = true;
-        List<Book> books = Arrays.asList(new Book(), new Book());
-        Page<Book> bookPage = new PageImpl<>(books);
+        List<BookListItem> books = Arrays.asList(new BookListItem(1, "Title", "Author", 1900, null), new BookListItem(2, "Title", "Author", 1900, null));
+        Page<BookListItem> bookPage = new PageImpl<>(books);
         when(bookService.findAllBooks(page, size, sortByYear)).thenReturn(bookPage);
 
         String viewName = booksController.getBooks(model, page, size, sortByYear);
@@ -74,16 +78,17 @@ public class BooksControllerJunitTest {
         Integer page = null;
         Integer size = null;
         boolean sortByYear = false;
-        List<Book> books = Arrays.asList(new Book(), new Book(), new Book());
-        when(bookService.findAllBooks(sortByYear)).thenReturn(books);
+        Iterable<BookListItem> books = Arrays.asList(new BookListItem(1, "Title", "Author", 1900, null), new BookListItem(2, "Title", "Author", 1900, null), new BookListItem(3, "Title", "Author", 1900, null));
+        when(bookService.streamAllBooks(sortByYear)).thenReturn(books);
 
         String viewName = booksController.getBooks(model, page, size, sortByYear);
 
         assertThat(viewName).isEqualTo("books/index");
-        verify(bookService, times(1)).findAllBooks(sortByYear);
+        verify(bookService, times(1)).streamAllBooks(sortByYear);
+        verify(bookService, never()).findAllBooks(anyInt(), anyInt(), anyBoolean());
         verify(model, times(1)).addAttribute("bookPage", books);
         verify(model, times(1)).addAttribute("currentPage", 0);
-        verify(model, times(1)).addAttribute("pageSize", books.size());
+        verify(model, times(1)).addAttribute("pageSize", ApplicationConstants.STREAM_CHUNK_SIZE);
         verify(model, times(1)).addAttribute("totalPages", 1);
         verify(model, times(1)).addAttribute("isSortByYear", sortByYear);
     }
@@ -94,16 +99,16 @@ public class BooksControllerJunitTest {
         Integer size = null;
         boolean sortByYear = true;
 
-        List<Book> books = List.of(new Book());
-        when(bookService.findAllBooks(sortByYear)).thenReturn(books);
+        Iterable<BookListItem> books = List.of(new BookListItem(1, "Title", "Author", 1900, null));
+        when(bookService.streamAllBooks(sortByYear)).thenReturn(books);
 
         String viewName = booksController.getBooks(model, page, size, sortByYear);
 
         assertThat(viewName).isEqualTo("books/index");
-        verify(bookService, times(1)).findAllBooks(sortByYear);
+        verify(bookService, times(1)).streamAllBooks(sortByYear);
         verify(model, times(1)).addAttribute("bookPage", books);
         verify(model, times(1)).addAttribute("currentPage", 0);
-        verify(model, times(1)).addAttribute("pageSize", books.size());
+        verify(model, times(1)).addAttribute("pageSize", ApplicationConstants.STREAM_CHUNK_SIZE);
         verify(model, times(1)).addAttribute("totalPages", 1);
         verify(model, times(1)).addAttribute("isSortByYear", sortByYear);
     }
@@ -115,10 +120,11 @@ public class BooksControllerJunitTest {
         book.setId(bookId);
         book.setTitle("Test Book");
 
-        when(bookService.findById(bookId)).thenReturn(book);
-        when(bookService.findBookOwner(bookId)).thenReturn(Optional.empty());
+        when(bookService.findWithOwnerById(bookId)).thenReturn(book);
+        when(personService.findByNamePrefix("", 0, ApplicationConstants.PEOPLE_PICKER_SIZE))
+                .thenReturn(new SliceImpl<>(Collections.emptyList()));
 
-        String viewName = booksController.getBook(bookId, model, new Person());
+        String viewName = booksController.getBook(bookId, model, new Person(), "", 0);
 
         assertThat(viewName).isEqualTo("books/show");
         verify(model).addAttribute("book", book);
@@ -136,11 +142,11 @@ public class BooksControllerJunitTest {
         owner.setId(1);
         owner.setName("Test Owner");
 
-        when(bookService.findById(bookId)).thenReturn(book);
-        when(bookService.findBookOwner(bookId)).thenReturn(Optional.of(owner));
-        when(personService.findAll()).thenReturn(Collections.emptyList());
+        book.setOwner(owner);
 
-        String viewName = booksController.getBook(bookId, model, new Person());
+        when(bookService.findWithOwnerById(bookId)).thenReturn(book);
+
+        String viewName = booksController.getBook(bookId, model, new Person(), "", 0);
 
         assertThat(viewName).isEqualTo("books/show");
         verify(model).addAttribute("book", book);
@@ -203,19 +209,39 @@ public class BooksControllerJunitTest {
         Person person = new Person();
         person.setId(42);
 
-        String redirectUrl = booksController.assignBook(bookId, person);
+        RedirectAttributes redirectAttributes = new RedirectAttributesModelMap();
+        when(bookService.assign(bookId, person)).thenReturn(true);
+
+        String redirectUrl = booksController.assignBook(bookId, person, redirectAttributes);
 
         assertThat(redirectUrl).isEqualTo("redirect:/books/" + bookId);
+        assertThat(redirectAttributes.getFlashAttributes()).isEmpty();
         verify(bookService).assign(bookId, person);
     }
 
+    @Test
+    public void testAssignBorrowedBookAddsConflict() {
+        int bookId = 1;
+        Person person = new Person();
+        RedirectAttributes redirectAttributes = new RedirectAttributesModelMap();
+        when(bookService.assign(bookId, person)).thenReturn(false);
+
+        String redirectUrl = booksController.assignBook(bookId, person, redirectAttributes);
+
+        assertThat(redirectUrl).isEqualTo("redirect:/books/" + bookId);
+        assertThat(redirectAttributes.getFlashAttributes().get("conflict")).isEqualTo(BooksController.ALREADY_BORROWED);
+    }
+
     @Test
     public void testReleaseBook() {
         int bookId = 1;
+        RedirectAttributes redirectAttributes = new RedirectAttributesModelMap();
+        when(bookService.release(bookId)).thenReturn(true);
 
-        String redirectUrl = booksController.releaseBook(bookId);
+        String redirectUrl = booksController.releaseBook(bookId, redirectAttributes);
 
         assertThat(redirectUrl).isEqualTo("redirect:/books/" + bookId);
+        assertThat(redirectAttributes.getFlashAttributes()).isEmpty();
         verify(bookService).release(bookId);
     }
 }
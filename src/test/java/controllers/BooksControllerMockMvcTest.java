@@ -6,23 +6,28 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.anhimov.library.config.ApplicationConstants;
 import ru.anhimov.library.controllers.BooksController;
+import ru.anhimov.library.dto.BookListItem;
+import ru.anhimov.library.dto.BulkUpdateReport;
 import ru.anhimov.library.models.Book;
 import ru.anhimov.library.models.Person;
 import ru.anhimov.library.services.BookService;
 import ru.anhimov.library.services.PersonService;
+import ru.anhimov.library.util.BookCursor;
 import ru.anhimov.library.util.BookValidator;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -78,7 +83,7 @@ class BooksControllerMockMvcTest {
 
     @Test
     void testGetBooksWithoutPagination() throws Exception {
-        when(bookService.findAllBooks(false)).thenReturn(Collections.emptyList());
+        when(bookService.streamAllBooks(false)).thenReturn(Collections.emptyList());
 
         mockMvc.perform(get("/books"))
                 .andExpect(status().isOk())
@@ -87,7 +92,8 @@ class BooksControllerMockMvcTest {
                 .andExpect(model().attribute("bookPage", Collections.emptyList()))
                 .andExpect(model().attribute("isSortByYear", false));
 
-        verify(bookService, times(1)).findAllBooks(false);
+        verify(bookService, times(1)).streamAllBooks(false);
+        verify(bookService, never()).findAllBooks(anyInt(), anyInt(), anyBoolean());
     }
 
     @Test
@@ -96,7 +102,7 @@ class BooksControllerMockMvcTest {
         int size = 10;
         boolean sortByYear = false;
 
-        Page<Book> mockPage = new PageImpl<>(Collections.emptyList(), PageRequest.of(page, size), 15);
+        Page<BookListItem> mockPage = new PageImpl<>(Collections.emptyList(), PageRequest.of(page, size), 15);
         when(bookService.findAllBooks(page, size, sortByYear)).thenReturn(mockPage);
 
         mockMvc.perform(get("/books")
@@ -120,7 +126,7 @@ class BooksControllerMockMvcTest {
         int size = 5;
         boolean sortByYear = true;
 
-        Page<Book> mockPage = new PageImpl<>(Collections.emptyList(), PageRequest.of(page, size), 10);
+        Page<BookListItem> mockPage = new PageImpl<>(Collections.emptyList(), PageRequest.of(page, size), 10);
         when(bookService.findAllBooks(page, size, sortByYear)).thenReturn(mockPage);
 
         mockMvc.perform(get("/books")
@@ -139,25 +145,146 @@ class BooksControllerMockMvcTest {
         verify(bookService, times(1)).findAllBooks(page, size, sortByYear);
     }
 
+    @Test
+    void testGetBooksAfterCursor() throws Exception {
+        BookListItem first = new BookListItem(3, "First", "Author", 1900, null);
+        BookListItem last = new BookListItem(4, "Last", "Author", 1950, null);
+        BookCursor after = new BookCursor(1850, 2);
+        List<BookListItem> books = List.of(first, last);
+
+        when(bookService.findBooksAfter(after, 2, true))
+                .thenReturn(new SliceImpl<>(books, PageRequest.of(1, 2), true));
+
+        mockMvc.perform(get("/books")
+                        .param("after", after.encode())
+                        .param("size", "2")
+                        .param("sort_by_year", "true"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("books/index"))
+                .andExpect(model().attributeDoesNotExist("totalPages"))
+                .andExpect(model().attribute("bookPage", books))
+                .andExpect(model().attribute("isCursorMode", true))
+                .andExpect(model().attribute("prevCursor", BookCursor.of(first).encode()))
+                .andExpect(model().attribute("nextCursor", BookCursor.of(last).encode()));
+
+        verify(bookService, times(1)).findBooksAfter(after, 2, true);
+        verify(bookService, never()).findAllBooks(anyInt(), anyInt(), anyBoolean());
+    }
+
+    @Test
+    void testGetBooksFirstCursorPage() throws Exception {
+        List<BookListItem> books = List.of(new BookListItem(1, "Only", "Author", 1900, null));
+        when(bookService.findBooksAfter(null, 10, false))
+                .thenReturn(new SliceImpl<>(books, PageRequest.of(0, 10), false));
+
+        mockMvc.perform(get("/books").param("after", ""))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("pageSize", 10))
+                .andExpect(model().attribute("prevCursor", (Object) null))
+                .andExpect(model().attribute("nextCursor", (Object) null));
+
+        verify(bookService, times(1)).findBooksAfter(null, 10, false);
+    }
+
+    @Test
+    void testGetBooksCursorClampsSize() throws Exception {
+        when(bookService.findBooksAfter(null, 1, false))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 1), false));
+        when(bookService.findBooksBefore(BookCursor.LAST, ApplicationConstants.MAX_PAGE_SIZE, false))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, ApplicationConstants.MAX_PAGE_SIZE), false));
+
+        mockMvc.perform(get("/books").param("after", "").param("size", "0"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("pageSize", 1));
+        mockMvc.perform(get("/books").param("before", BookCursor.LAST.encode()).param("size", "100000"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("pageSize", ApplicationConstants.MAX_PAGE_SIZE));
+
+        verify(bookService, times(1)).findBooksAfter(null, 1, false);
+        verify(bookService, times(1)).findBooksBefore(BookCursor.LAST, ApplicationConstants.MAX_PAGE_SIZE, false);
+    }
+
+    @Test
+    void testGetBooksRejectsUndecodableCursor() throws Exception {
+        mockMvc.perform(get("/books").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/books").param("before", "%%%"))
+                .andExpect(status().isBadRequest());
+
+        verify(bookService, never()).findBooksAfter(any(), anyInt(), anyBoolean());
+        verify(bookService, never()).findBooksBefore(any(), anyInt(), anyBoolean());
+    }
+
+    @Test
+    void testSearchBooks() throws Exception {
+        List<BookListItem> books = List.of(new BookListItem(1, "War and Peace", "Leo Tolstoy", 1869, null));
+        when(bookService.searchBooks("tolstoy")).thenReturn(books);
+
+        mockMvc.perform(post("/books/search").param("query", "tolstoy"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("books/search"))
+                .andExpect(model().attribute("books", books));
+
+        verify(bookService, times(1)).searchBooks("tolstoy");
+    }
+
+    @Test
+    void testFuzzySearchBooksClampsDistance() throws Exception {
+        List<BookListItem> books = List.of(new BookListItem(1, "War and Peace", "Leo Tolstoy", 1869, null));
+        when(bookService.fuzzySearchBooks("tolstoi", 2)).thenReturn(books);
+
+        mockMvc.perform(post("/books/search")
+                        .param("query", "tolstoi")
+                        .param("fuzzy", "true")
+                        .param("distance", "5"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("books/search"))
+                .andExpect(model().attribute("books", books))
+                .andExpect(model().attribute("isFuzzy", true));
+
+        verify(bookService, times(1)).fuzzySearchBooks("tolstoi", 2);
+        verify(bookService, never()).searchBooks(anyString());
+    }
+
     @Test
     void testGetBookAndBookOwnerNotPresent() throws Exception {
         Book mockBook = new Book();
         mockBook.setId(1);
         mockBook.setTitle("Test Book");
-        when(bookService.findById(1)).thenReturn(mockBook);
-        when(bookService.findBookOwner(1)).thenReturn(Optional.empty());
-        when(personService.findAll()).thenReturn(Collections.emptyList());
+        when(bookService.findWithOwnerById(1)).thenReturn(mockBook);
+        when(personService.findByNamePrefix("", 0, ApplicationConstants.PEOPLE_PICKER_SIZE))
+                .thenReturn(new SliceImpl<>(Collections.emptyList()));
 
         mockMvc.perform(get("/books/1"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("books/show"))
                 .andExpect(model().attributeExists("book", "people"))
                 .andExpect(model().attribute("book", mockBook))
-                .andExpect(model().attribute("people", Collections.emptyList()));
+                .andExpect(model().attribute("people", Collections.emptyList()))
+                .andExpect(model().attribute("hasMorePeople", false));
 
-        verify(bookService, times(1)).findById(1);
-        verify(bookService, times(1)).findBookOwner(1);
-        verify(personService, times(1)).findAll();
+        verify(bookService, times(1)).findWithOwnerById(1);
+        verify(personService, never()).findAll();
+    }
+
+    @Test
+    void testGetBookFiltersPeopleByNamePrefix() throws Exception {
+        Book mockBook = new Book();
+        mockBook.setId(1);
+        mockBook.setTitle("Test Book");
+        Person person = new Person(2, "John Doe", 30);
+        when(bookService.findWithOwnerById(1)).thenReturn(mockBook);
+        when(personService.findByNamePrefix("jo", 1, ApplicationConstants.PEOPLE_PICKER_SIZE))
+                .thenReturn(new SliceImpl<>(List.of(person), PageRequest.of(1, ApplicationConstants.PEOPLE_PICKER_SIZE), true));
+
+        mockMvc.perform(get("/books/1")
+                        .param("people_query", "jo")
+                        .param("people_page", "1"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("people", List.of(person)))
+                .andExpect(model().attribute("peopleQuery", "jo"))
+                .andExpect(model().attribute("peoplePage", 1))
+                .andExpect(model().attribute("hasMorePeople", true));
     }
 
     @Test
@@ -170,18 +297,18 @@ class BooksControllerMockMvcTest {
         person.setBooks(List.of(mockBook));
         mockBook.setOwner(person);
 
-        when(bookService.findById(1)).thenReturn(mockBook);
-        when(bookService.findBookOwner(1)).thenReturn(Optional.of(person));
+        when(bookService.findWithOwnerById(1)).thenReturn(mockBook);
 
         mockMvc.perform(get("/books/1"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("books/show"))
                 .andExpect(model().attributeExists("book", "bookOwner"))
+                .andExpect(model().attributeDoesNotExist("people"))
                 .andExpect(model().attribute("book", mockBook))
                 .andExpect(model().attribute("bookOwner", person));
 
-        verify(bookService, times(1)).findById(1);
-        verify(bookService, times(1)).findBookOwner(1);
+        verify(bookService, times(1)).findWithOwnerById(1);
+        verifyNoInteractions(personService);
     }
 
     @Test
@@ -252,19 +379,83 @@ class BooksControllerMockMvcTest {
         selectedPerson.setName("John Doe");
         selectedPerson.setAge(1990);
 
+        when(bookService.assign(1, selectedPerson)).thenReturn(true);
+
         mockMvc.perform(patch("/books/1/assign")
                         .flashAttr("person", selectedPerson))
                 .andExpect(status().is3xxRedirection())
-                .andExpect(redirectedUrl("/books/1"));
+                .andExpect(redirectedUrl("/books/1"))
+                .andExpect(flash().attributeCount(0));
 
         verify(bookService, times(1)).assign(eq(1), eq(selectedPerson));
     }
 
+    @Test
+    void testAssignBorrowedBook() throws Exception {
+        Person selectedPerson = new Person(7, "John Doe", 30);
+        when(bookService.assign(1, selectedPerson)).thenReturn(false);
+
+        mockMvc.perform(patch("/books/1/assign")
+                        .flashAttr("person", selectedPerson))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/books/1"))
+                .andExpect(flash().attribute("conflict", BooksController.ALREADY_BORROWED));
+    }
+
+    @Test
+    void testAssignBooksInBulk() throws Exception {
+        Person selectedPerson = new Person(7, "John Doe", 30);
+        when(personService.findById(7)).thenReturn(selectedPerson);
+        when(bookService.assignAll(List.of(1, 2), selectedPerson))
+                .thenReturn(new BulkUpdateReport(List.of(1, 2), List.of(2)));
+
+        mockMvc.perform(patch("/books/assign")
+                        .param("ids", "1", "2")
+                        .param("person_id", "7"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"requested\":[1,2],\"changed\":[2],\"unchanged\":[1]}"));
+
+        verify(bookService, times(1)).assignAll(List.of(1, 2), selectedPerson);
+    }
+
+    @Test
+    void testAssignBooksToUnknownPerson() throws Exception {
+        when(personService.findById(8)).thenReturn(null);
+
+        mockMvc.perform(patch("/books/assign")
+                        .param("ids", "1")
+                        .param("person_id", "8"))
+                .andExpect(status().isNotFound());
+
+        verify(bookService, never()).assignAll(anyList(), any());
+    }
+
+    @Test
+    void testReleaseBooksInBulk() throws Exception {
+        when(bookService.releaseAll(List.of(3))).thenReturn(new BulkUpdateReport(List.of(3), List.of(3)));
+
+        mockMvc.perform(patch("/books/release").param("ids", "3"))
+                .andExpect(status().isOk());
+
+        verify(bookService, times(1)).releaseAll(List.of(3));
+    }
+
+    @Test
+    void testReleaseBooksInBulkReportsConcurrentReturn() throws Exception {
+        when(bookService.releaseAll(List.of(3))).thenThrow(new OptimisticLockingFailureException("returned"));
+
+        mockMvc.perform(patch("/books/release").param("ids", "3"))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void testReleaseBook() throws Exception {
+        when(bookService.release(1)).thenReturn(false);
+
         mockMvc.perform(patch("/books/1/release"))
                 .andExpect(status().is3xxRedirection())
-                .andExpect(redirectedUrl("/books/1"));
+                .andExpect(redirectedUrl("/books/1"))
+                .andExpect(flash().attribute("conflict", BooksController.ALREADY_RELEASED));
 
         verify(bookService, times(1)).release(1);
     }
@@ -0,0 +1,57 @@
+package controllers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.anhimov.library.controllers.ExportController;
+import ru.anhimov.library.exporter.CatalogExporter;
+import ru.anhimov.library.exporter.ExportFormat;
+
+import java.io.Writer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ExportControllerTest {
+    private CatalogExporter catalogExporter;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        catalogExporter = Mockito.mock(CatalogExporter.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new ExportController(catalogExporter)).build();
+    }
+
+    @Test
+    void booksAreExportedAsCsvByDefault() throws Exception {
+        mockMvc.perform(get("/api/export/books"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"books.csv\""));
+
+        verify(catalogExporter, times(1)).exportBooks(any(Writer.class), eq(ExportFormat.CSV));
+    }
+
+    @Test
+    void peopleAreExportedAsNdjson() throws Exception {
+        mockMvc.perform(get("/api/export/people").param("format", "ndjson"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"people.ndjson\""));
+
+        verify(catalogExporter, times(1)).exportPeople(any(Writer.class), eq(ExportFormat.NDJSON));
+    }
+
+    @Test
+    void unknownFormatIsRejected() throws Exception {
+        mockMvc.perform(get("/api/export/books").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(catalogExporter);
+    }
+}
@@ -0,0 +1,65 @@
+package controllers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.anhimov.library.controllers.ImportController;
+import ru.anhimov.library.importer.CatalogImporter;
+import ru.anhimov.library.importer.ImportFormat;
+import ru.anhimov.library.importer.ImportReport;
+
+import java.io.InputStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ImportControllerTest {
+    private CatalogImporter catalogImporter;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        catalogImporter = Mockito.mock(CatalogImporter.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new ImportController(catalogImporter))
+                .setMessageConverters(new MappingJackson2HttpMessageConverter())
+                .build();
+    }
+
+    @Test
+    void csvBodyIsImportedAsCsv() throws Exception {
+        when(catalogImporter.importBooks(any(InputStream.class), eq(ImportFormat.CSV))).thenReturn(new ImportReport());
+
+        mockMvc.perform(post("/api/import/books")
+                        .contentType("text/csv")
+                        .content("title,author,year\n"))
+                .andExpect(status().isOk());
+
+        verify(catalogImporter, times(1)).importBooks(any(InputStream.class), eq(ImportFormat.CSV));
+    }
+
+    @Test
+    void ndjsonBodyIsImportedAsJson() throws Exception {
+        when(catalogImporter.importBooks(any(InputStream.class), eq(ImportFormat.JSON))).thenReturn(new ImportReport());
+
+        mockMvc.perform(post("/api/import/books")
+                        .contentType("application/x-ndjson")
+                        .content("{}"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void unsupportedContentTypeIsRejected() throws Exception {
+        mockMvc.perform(post("/api/import/books")
+                        .contentType("text/plain")
+                        .content("hello"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(catalogImporter);
+    }
+}
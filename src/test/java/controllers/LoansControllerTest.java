@@ -0,0 +1,59 @@
+package controllers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.anhimov.library.controllers.LoansController;
+import ru.anhimov.library.dto.OverdueCount;
+import ru.anhimov.library.dto.OverdueLoan;
+import ru.anhimov.library.services.LoanService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class LoansControllerTest {
+    private LoanService loanService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        loanService = mock(LoanService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new LoansController(loanService)).build();
+    }
+
+    @Test
+    void overdueLoansArePagedAndCountedPerPerson() throws Exception {
+        OverdueLoan loan = new OverdueLoan(3, "Dune", "Frank Herbert", 7, "Yuri Gagarin",
+                LocalDateTime.now().minusDays(14));
+        when(loanService.findOverdueLoans(1, 5))
+                .thenReturn(new PageImpl<>(List.of(loan), PageRequest.of(1, 5), 6));
+        when(loanService.countOverdueLoansByPerson()).thenReturn(List.of(new OverdueCount(7, "Yuri Gagarin", 6)));
+        when(loanService.getOverdueDays()).thenReturn(10);
+
+        mockMvc.perform(get("/loans/overdue").param("page", "1").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("loans/overdue"))
+                .andExpect(model().attribute("currentPage", 1))
+                .andExpect(model().attribute("pageSize", 5))
+                .andExpect(model().attribute("totalPages", 2))
+                .andExpect(model().attribute("overdueDays", 10))
+                .andExpect(model().attributeExists("loanPage", "overdueCounts"));
+    }
+
+    @Test
+    void negativePageAndSizeAreClamped() throws Exception {
+        when(loanService.findOverdueLoans(0, 1)).thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 1), 0));
+
+        mockMvc.perform(get("/loans/overdue").param("page", "-3").param("size", "0"))
+                .andExpect(status().isOk());
+
+        verify(loanService).findOverdueLoans(0, 1);
+    }
+}
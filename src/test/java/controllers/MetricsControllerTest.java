@@ -0,0 +1,89 @@
+package controllers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.anhimov.library.config.LibraryConfig;
+import ru.anhimov.library.config.SpringDataSourceTestConfig;
+import ru.anhimov.library.controllers.MetricsController;
+import ru.anhimov.library.controllers.PeopleController;
+import ru.anhimov.library.dao.BookDAO;
+import ru.anhimov.library.dao.PersonDAO;
+import ru.anhimov.library.metrics.HandlerTimingInterceptor;
+import ru.anhimov.library.metrics.LatencyMetrics;
+import ru.anhimov.library.models.Person;
+import ru.anhimov.library.repositories.PersonRepository;
+import ru.anhimov.library.search.SuggestionIndex;
+import ru.anhimov.library.services.PersonService;
+import ru.anhimov.library.util.PersonValidator;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {SpringDataSourceTestConfig.class, LibraryConfig.class, BookDAO.class, PersonDAO.class,
+        PersonService.class, SuggestionIndex.class, PersonValidator.class, PeopleController.class,
+        MetricsController.class})
+@TestPropertySource("classpath:hibernate-test.properties")
+@ActiveProfiles("test")
+class MetricsControllerTest {
+    @Autowired
+    private PeopleController peopleController;
+
+    @Autowired
+    private MetricsController metricsController;
+
+    @Autowired
+    private LatencyMetrics latencyMetrics;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    private MockMvc mockMvc;
+    private Person reader;
+
+    @BeforeEach
+    void setUp() {
+        reader = new Person();
+        reader.setName("Metrics Reader");
+        reader.setAge(30);
+        reader = personRepository.save(reader);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(peopleController, metricsController)
+                .addInterceptors(new HandlerTimingInterceptor(latencyMetrics))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        personRepository.deleteById(reader.getId());
+    }
+
+    @Test
+    void scrapeCoversHandlersRenderingServicesAndHibernate() throws Exception {
+        mockMvc.perform(get("/people/{id}", reader.getId())).andExpect(status().isOk());
+
+        mockMvc.perform(get("/metrics"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/plain"))
+                .andExpect(content().string(containsString(
+                        "library_handler_seconds_count{handler=\"PeopleController.getPerson\"} 1\n")))
+                .andExpect(content().string(containsString(
+                        "library_render_seconds_count{handler=\"PeopleController.getPerson\"} 1\n")))
+                .andExpect(content().string(containsString(
+                        "library_service_seconds_count{method=\"PersonService.findById\"}")))
+                .andExpect(content().string(containsString(
+                        "library_service_seconds{method=\"PersonService.findBooksByPersonId\",quantile=\"0.95\"}")))
+                .andExpect(content().string(containsString("hibernate_entity_loads_total ")));
+    }
+}
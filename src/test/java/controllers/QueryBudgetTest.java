@@ -0,0 +1,184 @@
+package controllers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.anhimov.library.config.ApplicationConstants;
+import ru.anhimov.library.config.LibraryConfig;
+import ru.anhimov.library.config.SpringDataSourceTestConfig;
+import ru.anhimov.library.controllers.BooksController;
+import ru.anhimov.library.controllers.PeopleController;
+import ru.anhimov.library.dao.BookDAO;
+import ru.anhimov.library.dao.LoanEventDAO;
+import ru.anhimov.library.dao.PersonDAO;
+import ru.anhimov.library.metrics.QueryBudgetBreach;
+import ru.anhimov.library.metrics.QueryBudgetInterceptor;
+import ru.anhimov.library.metrics.QueryBudgetMetrics;
+import ru.anhimov.library.metrics.QueryBudgets;
+import ru.anhimov.library.metrics.QueryCount;
+import ru.anhimov.library.metrics.QueryCounter;
+import ru.anhimov.library.models.Book;
+import ru.anhimov.library.models.Person;
+import ru.anhimov.library.repositories.BookRepository;
+import ru.anhimov.library.repositories.PersonRepository;
+import ru.anhimov.library.search.BookSearchIndex;
+import ru.anhimov.library.search.SuggestionIndex;
+import ru.anhimov.library.services.BookService;
+import ru.anhimov.library.services.PersonService;
+import ru.anhimov.library.util.BookValidator;
+import ru.anhimov.library.util.PersonValidator;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static metrics.QueryCountAssertions.assertQueryCount;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {SpringDataSourceTestConfig.class, LibraryConfig.class, BookDAO.class, PersonDAO.class,
+        LoanEventDAO.class, BookService.class, PersonService.class, BookSearchIndex.class, SuggestionIndex.class,
+        BookValidator.class, PersonValidator.class, BooksController.class, PeopleController.class})
+@TestPropertySource("classpath:hibernate-test.properties")
+@ActiveProfiles("test")
+class QueryBudgetTest {
+    @Autowired
+    private BooksController booksController;
+
+    @Autowired
+    private PeopleController peopleController;
+
+    @Autowired
+    private QueryBudgets queryBudgets;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final QueryBudgetMetrics metrics = new QueryBudgetMetrics();
+    private MockMvc mockMvc;
+    private Person reader;
+    private Book borrowed;
+    private Book onShelf;
+
+    @BeforeEach
+    void setUp() {
+        reader = new Person();
+        reader.setName("Budget Reader");
+        reader.setAge(30);
+        reader = personRepository.save(reader);
+
+        borrowed = new Book();
+        borrowed.setTitle("Counted Loan");
+        borrowed.setAuthor("Budget Author");
+        borrowed.setYear(2001);
+        borrowed.setOwner(reader);
+        borrowed = bookRepository.save(borrowed);
+
+        onShelf = new Book();
+        onShelf.setTitle("Counted Shelf");
+        onShelf.setAuthor("Budget Author");
+        onShelf.setYear(2002);
+        onShelf = bookRepository.save(onShelf);
+
+        entityManagerFactory.getCache().evictAll();
+        mockMvc = MockMvcBuilders.standaloneSetup(booksController, peopleController)
+                .addInterceptors(new QueryBudgetInterceptor(queryBudgets, metrics))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteById(borrowed.getId());
+        bookRepository.deleteById(onShelf.getId());
+        personRepository.deleteById(reader.getId());
+    }
+
+    @Test
+    void borrowedBookPageLoadsBookAndOwnerInOneStatement() throws Exception {
+        QueryCount count = assertQueryCount(1, () -> mockMvc.perform(get("/books/{id}", borrowed.getId()))
+                .andExpect(status().isOk()));
+
+        assertThat(count.getRows()).isEqualTo(1);
+    }
+
+    @Test
+    void shelvedBookPageAddsOneStatementForThePeoplePicker() throws Exception {
+        assertQueryCount(2, () -> mockMvc.perform(get("/books/{id}", onShelf.getId()))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void personPageStaysWithinItsBudget() throws Exception {
+        QueryCount count = assertQueryCount(2, () -> mockMvc.perform(get("/people/{id}", reader.getId()))
+                .andExpect(status().isOk()));
+
+        assertThat(count.getStatements()).isLessThanOrEqualTo(queryBudgets.budgetFor("GET /people/{id}"));
+        assertThat(metrics.getSnapshot()).isEmpty();
+    }
+
+    @Test
+    void streamedBookListIsBudgetedPerChunk() throws Exception {
+        List<Book> shelf = new ArrayList<>();
+        for (int i = 0; i < 3 * ApplicationConstants.STREAM_CHUNK_SIZE; i++) {
+            Book book = new Book();
+            book.setTitle("Streamed Shelf " + i);
+            book.setAuthor("Budget Author");
+            book.setYear(2003);
+            shelf.add(book);
+        }
+        shelf = bookRepository.saveAll(shelf);
+        try {
+            MockMvc streaming = MockMvcBuilders.standaloneSetup(booksController)
+                    .addInterceptors(new QueryBudgetInterceptor(queryBudgets, metrics))
+                    .setSingleView((model, request, response) ->
+                            ((Iterable<?>) model.get("bookPage")).forEach(item -> { }))
+                    .build();
+
+            QueryCounter.start();
+            streaming.perform(get("/books")).andExpect(status().isOk());
+            QueryCount count = QueryCounter.stop();
+
+            assertThat(count.getChunks()).isGreaterThan(3);
+            assertThat(count.getChunkStatements()).isEqualTo(count.getChunks());
+            assertThat(count.getStatements()).isGreaterThan(queryBudgets.budgetFor("GET /books"));
+            assertThat(count.getBudgetedStatements()).isEqualTo(count.getStatements() - count.getChunks() + 1);
+            assertThat(metrics.getSnapshot()).isEmpty();
+        } finally {
+            bookRepository.deleteAll(shelf);
+        }
+    }
+
+    @Test
+    void requestsOverTheirBudgetAreRecorded() throws Exception {
+        QueryBudgetMetrics tightMetrics = new QueryBudgetMetrics();
+        MockMvc tight = MockMvcBuilders.standaloneSetup(booksController)
+                .addInterceptors(new QueryBudgetInterceptor(QueryBudgets.parse(10, "GET /books/{id}=1"), tightMetrics))
+                .build();
+
+        tight.perform(get("/books/{id}", onShelf.getId())).andExpect(status().isOk());
+        tight.perform(get("/books/{id}", borrowed.getId())).andExpect(status().isOk());
+
+        List<QueryBudgetBreach> breaches = tightMetrics.getSnapshot();
+        assertThat(breaches).hasSize(1);
+        assertThat(breaches.get(0).getEndpoint()).isEqualTo("GET /books/{id}");
+        assertThat(breaches.get(0).getBudget()).isEqualTo(1);
+        assertThat(breaches.get(0).getBreaches()).isEqualTo(1);
+        assertThat(breaches.get(0).getWorstStatements()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,36 @@
+package controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.anhimov.library.controllers.StatsController;
+import ru.anhimov.library.dto.RankedItem;
+import ru.anhimov.library.dto.StatsDashboard;
+import ru.anhimov.library.services.StatsService;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class StatsControllerTest {
+
+    @Test
+    void statsPageShowsDashboard() throws Exception {
+        StatsService statsService = mock(StatsService.class);
+        StatsDashboard dashboard = new StatsDashboard(List.of(new RankedItem(1, "Dune, Frank Herbert", 4)), List.of(),
+                Map.of(YearMonth.of(2024, 3), 4L), 8, 3);
+        when(statsService.getDashboard()).thenReturn(dashboard);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new StatsController(statsService)).build();
+
+        mockMvc.perform(get("/stats"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("stats/index"))
+                .andExpect(model().attribute("stats", dashboard));
+        assertThat(dashboard.getUtilisationPercent()).isEqualTo(38);
+    }
+}
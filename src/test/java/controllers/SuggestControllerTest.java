@@ -0,0 +1,54 @@
+package controllers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.anhimov.library.controllers.SuggestController;
+import ru.anhimov.library.dto.BookListItem;
+import ru.anhimov.library.models.Book;
+import ru.anhimov.library.models.Person;
+import ru.anhimov.library.search.SuggestionIndex;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class SuggestControllerTest {
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        SuggestionIndex suggestionIndex = new SuggestionIndex();
+        suggestionIndex.indexBook(new BookListItem(1, "War and Peace", "Leo Tolstoy", 1869, null));
+        suggestionIndex.indexBook(new BookListItem(2, "Anna Karenina", "Leo Tolstoy", 1877, null));
+        suggestionIndex.indexPerson(new Person(7, "Yuri Gagarin", 45));
+        mockMvc = MockMvcBuilders.standaloneSetup(new SuggestController(suggestionIndex)).build();
+    }
+
+    @Test
+    void suggestTitles() throws Exception {
+        mockMvc.perform(get("/api/suggest").param("field", "title").param("prefix", "war"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("[{\"id\":1,\"text\":\"War and Peace\"}]"));
+    }
+
+    @Test
+    void suggestAuthorsAreDistinct() throws Exception {
+        mockMvc.perform(get("/api/suggest").param("field", "AUTHOR").param("prefix", "leo"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("[{\"id\":1,\"text\":\"Leo Tolstoy\"}]"));
+    }
+
+    @Test
+    void suggestPeople() throws Exception {
+        mockMvc.perform(get("/api/suggest").param("field", "person").param("prefix", "yu").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("[{\"id\":7,\"text\":\"Yuri Gagarin\"}]"));
+    }
+
+    @Test
+    void unknownFieldIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/suggest").param("field", "isbn").param("prefix", "9"))
+                .andExpect(status().isBadRequest());
+    }
+}
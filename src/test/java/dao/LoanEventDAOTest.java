@@ -0,0 +1,84 @@
+package dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+import ru.anhimov.library.config.SpringDataSourceTestConfig;
+import ru.anhimov.library.dao.LoanEventDAO;
+import ru.anhimov.library.models.Book;
+import ru.anhimov.library.models.LoanEvent;
+import ru.anhimov.library.models.LoanEventType;
+import ru.anhimov.library.models.Person;
+import ru.anhimov.library.repositories.LoanEventRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {SpringDataSourceTestConfig.class, LoanEventDAO.class})
+@TestPropertySource("classpath:hibernate-test.properties")
+@ActiveProfiles("test")
+@Transactional
+class LoanEventDAOTest {
+    private static final LocalDateTime MARCH = LocalDateTime.of(2031, 3, 10, 9, 0);
+
+    @Autowired
+    private LoanEventDAO loanEventDAO;
+
+    @Autowired
+    private LoanEventRepository loanEventRepository;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private Book book;
+    private Person reader;
+
+    @BeforeEach
+    void setUp() {
+        reader = new Person();
+        reader.setName("Event Reader");
+        reader.setAge(30);
+        em.persist(reader);
+        book = new Book();
+        book.setTitle("Event Book");
+        book.setAuthor("Event Author");
+        book.setYear(1999);
+        book.setOwner(reader);
+        em.persist(book);
+        em.flush();
+    }
+
+    @Test
+    void recordEventsCopiesTheCurrentOwner() {
+        int recorded = loanEventDAO.recordEvents(List.of(book.getId(), Integer.MAX_VALUE), LoanEventType.ASSIGN, MARCH);
+
+        assertThat(recorded).isEqualTo(1);
+        List<LoanEvent> history = loanEventRepository.findBookHistory(book.getId(), MARCH, MARCH.plusSeconds(1),
+                PageRequest.of(0, 10));
+        assertThat(history).extracting(LoanEvent::getPersonId).containsExactly(reader.getId());
+        assertThat(history).extracting(LoanEvent::getType).containsExactly(LoanEventType.ASSIGN);
+    }
+
+    @Test
+    void recordEventWritesTheGivenReader() {
+        int recorded = loanEventDAO.recordEvent(book.getId(), reader.getId(), LoanEventType.RELEASE, MARCH);
+
+        assertThat(recorded).isEqualTo(1);
+        List<LoanEvent> history = loanEventRepository.findPersonHistory(reader.getId(), MARCH, MARCH.plusSeconds(1),
+                PageRequest.of(0, 10));
+        assertThat(history).extracting(LoanEvent::getBookId).containsExactly(book.getId());
+        assertThat(history).extracting(LoanEvent::getType).containsExactly(LoanEventType.RELEASE);
+    }
+}
@@ -0,0 +1,45 @@
+package dao;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.env.MockEnvironment;
+import ru.anhimov.library.dao.LoanEventPartitionDAO;
+import ru.anhimov.library.services.LoanEventPartitionMaintainer;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class LoanEventPartitionDAOTest {
+
+    @Test
+    void partitionCoversOneCalendarMonth() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+        new LoanEventPartitionDAO(jdbcTemplate).createMonthlyPartition(YearMonth.of(2026, 12));
+
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS loan_event_y2026m12 PARTITION OF loan_event " +
+                "FOR VALUES FROM ('2026-12-01') TO ('2027-01-01')");
+    }
+
+    @Test
+    void maintainerCreatesCurrentAndUpcomingMonths() {
+        LoanEventPartitionDAO partitionDAO = mock(LoanEventPartitionDAO.class);
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("library.loan_events.partitioned", "true")
+                .withProperty("library.loan_events.months_ahead", "2");
+        Clock clock = Clock.fixed(Instant.parse("2026-11-30T23:00:00Z"), ZoneOffset.UTC);
+
+        int created = new LoanEventPartitionMaintainer(partitionDAO, env, clock).ensurePartitions();
+
+        assertThat(created).isEqualTo(3);
+        verify(partitionDAO).createMonthlyPartition(YearMonth.of(2026, 11));
+        verify(partitionDAO).createMonthlyPartition(YearMonth.of(2026, 12));
+        verify(partitionDAO).createMonthlyPartition(YearMonth.of(2027, 1));
+        verifyNoMoreInteractions(partitionDAO);
+    }
+}
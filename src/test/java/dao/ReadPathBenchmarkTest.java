@@ -0,0 +1,134 @@
+package dao;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.anhimov.library.config.ApplicationConstants;
+import ru.anhimov.library.config.SpringDataSourceTestConfig;
+import ru.anhimov.library.dao.BookDAO;
+import ru.anhimov.library.dao.PersonDAO;
+import ru.anhimov.library.models.Book;
+import ru.anhimov.library.repositories.BookListQueries;
+import ru.anhimov.library.repositories.BookRepository;
+import ru.anhimov.library.repositories.PersonDetailQueries;
+import ru.anhimov.library.repositories.PersonRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {SpringDataSourceTestConfig.class, BookDAO.class, PersonDAO.class})
+@TestPropertySource(value = "classpath:hibernate-test.properties", properties = {
+        "hibernate.show_sql=false",
+        "hibernate.generate_statistics=false"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ReadPathBenchmarkTest {
+    private static final int BOOKS = 5_000;
+    private static final int WARMUP = 300;
+    private static final int ITERATIONS = 2_000;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private BookDAO bookDAO;
+
+    @Autowired
+    private PersonDAO personDAO;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnly;
+    private int readerId;
+
+    @BeforeEach
+    void setUp() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        List<Book> books = new ArrayList<>(BOOKS);
+        for (int i = 0; i < BOOKS; i++) {
+            books.add(new Book(0, "Benchmark Title " + i, "Benchmark Author", 1900 + i % 120));
+        }
+        bookDAO.insertIgnoringDuplicates(books);
+        jdbcTemplate.update("INSERT INTO person(name, age) VALUES ('Benchmark Reader', 30)");
+        readerId = jdbcTemplate.queryForObject("SELECT id FROM person WHERE name = 'Benchmark Reader'", Integer.class);
+        jdbcTemplate.update("UPDATE book SET person_id = ?, borrow_timestamp = CURRENT_TIMESTAMP " +
+                "WHERE author = 'Benchmark Author' AND MOD(id, 500) = 0", readerId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM book WHERE author = 'Benchmark Author'");
+        jdbcTemplate.update("DELETE FROM person WHERE id = ?", readerId);
+    }
+
+    @Test
+    void compareJdbcAndJpaReadPaths() {
+        List<Integer> ids = jdbcTemplate.queryForList("SELECT id FROM book WHERE author = 'Benchmark Author' " +
+                "ORDER BY id LIMIT 20", Integer.class);
+
+        System.out.printf("%-28s %12s %12s %8s%n", "query (" + ITERATIONS + " runs)", "jpa us/op", "jdbc us/op", "speedup");
+        compare("page of 50 by year",
+                queries -> queries.findListItems(PageRequest.of(3, 50, Sort.by("year"))).getContent());
+        compare("stream chunk after id",
+                queries -> queries.findSliceAfterId(Integer.MIN_VALUE, PageRequest.of(0, ApplicationConstants.STREAM_CHUNK_SIZE)).getContent());
+        compare("search by 20 ids", queries -> queries.findListItemsByIdIn(ids));
+        compare("title or author like",
+                queries -> queries.findListItemsByTitleOrAuthorLike("%title 12%"));
+        compareDetail("person detail", queries -> {
+            queries.findPersonById(readerId).orElseThrow();
+            return queries.findBooksByOwnerId(readerId);
+        });
+    }
+
+    private void compare(String name, Function<BookListQueries, Collection<?>> query) {
+        report(name, measure(() -> query.apply(bookRepository)), measure(() -> query.apply(bookDAO)));
+    }
+
+    private void compareDetail(String name, Function<PersonDetailQueries, Collection<?>> query) {
+        report(name, measure(() -> query.apply(personRepository)), measure(() -> query.apply(personDAO)));
+    }
+
+    private double measure(Supplier<Collection<?>> query) {
+        for (int i = 0; i < WARMUP; i++) {
+            readOnly.execute(status -> query.get());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            Collection<?> result = readOnly.execute(status -> query.get());
+            assertThat(result).isNotEmpty();
+        }
+        return (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+    }
+
+    private static void report(String name, double jpaMicros, double jdbcMicros) {
+        System.out.printf("%-28s %12.1f %12.1f %7.2fx%n", name, jpaMicros, jdbcMicros, jpaMicros / jdbcMicros);
+    }
+}
@@ -0,0 +1,151 @@
+package dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+import ru.anhimov.library.config.SpringDataSourceTestConfig;
+import ru.anhimov.library.dao.BookDAO;
+import ru.anhimov.library.dao.PersonDAO;
+import ru.anhimov.library.dto.BookListItem;
+import ru.anhimov.library.models.Book;
+import ru.anhimov.library.models.Person;
+import ru.anhimov.library.repositories.BookRepository;
+import ru.anhimov.library.repositories.PersonRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {SpringDataSourceTestConfig.class, BookDAO.class, PersonDAO.class})
+@TestPropertySource("classpath:hibernate-test.properties")
+@ActiveProfiles("test")
+@Transactional
+class ReadPathEquivalenceTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private BookDAO bookDAO;
+
+    @Autowired
+    private PersonDAO personDAO;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private Person reader;
+    private List<Integer> ids;
+
+    @BeforeEach
+    void setUp() {
+        reader = new Person();
+        reader.setName("Path Reader");
+        reader.setAge(40);
+        em.persist(reader);
+
+        persist("Java Puzzlers", 2005, reader);
+        persist("Effective Java", 2008, null);
+        persist("Refactoring", 1999, reader);
+        persist("Clean Code", 2009, null);
+        em.flush();
+        em.clear();
+
+        ids = bookRepository.findAll(Sort.by("id")).stream()
+                .map(Book::getId)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void pagesMatchIncludingTotals() {
+        PageRequest pageable = PageRequest.of(1, 2, Sort.by("year"));
+
+        Page<BookListItem> jpa = bookRepository.findListItems(pageable);
+        Page<BookListItem> jdbc = bookDAO.findListItems(pageable);
+
+        assertThat(jdbc.getContent()).containsExactlyElementsOf(jpa.getContent());
+        assertThat(jdbc.getTotalElements()).isEqualTo(jpa.getTotalElements());
+    }
+
+    @Test
+    void cursorSlicesMatch() {
+        PageRequest limit = PageRequest.of(0, 2);
+
+        assertSameSlice(bookDAO.findSliceAfterId(Integer.MIN_VALUE, limit), bookRepository.findSliceAfterId(Integer.MIN_VALUE, limit));
+        assertSameSlice(bookDAO.findSliceBeforeId(Integer.MAX_VALUE, limit), bookRepository.findSliceBeforeId(Integer.MAX_VALUE, limit));
+        assertSameSlice(bookDAO.findSliceAfterYearAndId(2005, Integer.MIN_VALUE, limit),
+                bookRepository.findSliceAfterYearAndId(2005, Integer.MIN_VALUE, limit));
+        assertSameSlice(bookDAO.findSliceBeforeYearAndId(Integer.MAX_VALUE, Integer.MAX_VALUE, limit),
+                bookRepository.findSliceBeforeYearAndId(Integer.MAX_VALUE, Integer.MAX_VALUE, limit));
+    }
+
+    @Test
+    void searchQueriesMatch() {
+        List<Integer> someIds = ids.subList(0, 3);
+
+        assertThat(bookDAO.findListItemsByIdIn(someIds))
+                .containsExactlyInAnyOrderElementsOf(bookRepository.findListItemsByIdIn(someIds));
+        assertThat(bookDAO.findListItemsByTitleOrAuthorLike("%JAVA%"))
+                .containsExactlyInAnyOrderElementsOf(bookRepository.findListItemsByTitleOrAuthorLike("%JAVA%"))
+                .hasSize(2);
+        assertThat(bookDAO.findListItemsByTitleOrAuthorLike("%PATH AUTHOR%"))
+                .containsExactlyInAnyOrderElementsOf(bookRepository.findListItemsByTitleOrAuthorLike("%PATH AUTHOR%"))
+                .hasSize(4);
+    }
+
+    @Test
+    void personDetailMatches() {
+        Person jdbcPerson = personDAO.findPersonById(reader.getId()).orElseThrow();
+        Person jpaPerson = personRepository.findPersonById(reader.getId()).orElseThrow();
+
+        assertThat(jdbcPerson.getName()).isEqualTo(jpaPerson.getName());
+        assertThat(jdbcPerson.getAge()).isEqualTo(jpaPerson.getAge());
+        assertThat(personDAO.findBooksByOwnerId(reader.getId()))
+                .extracting(Book::getTitle, Book::getBorrowTimestamp)
+                .containsExactlyInAnyOrderElementsOf(personRepository.findBooksByOwnerId(reader.getId()).stream()
+                        .map(book -> tuple(book.getTitle(), book.getBorrowTimestamp()))
+                        .collect(Collectors.toList()));
+        assertThat(personDAO.findPersonById(Integer.MAX_VALUE)).isEmpty();
+    }
+
+    @Test
+    void unknownSortPropertyIsRejected() {
+        assertThatThrownBy(() -> bookDAO.findListItems(PageRequest.of(0, 2, Sort.by("owner; DROP TABLE book"))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void persist(String title, int year, Person owner) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor("Path Author");
+        book.setYear(year);
+        book.setOwner(owner);
+        book.setBorrowTimestamp(owner == null ? null : LocalDateTime.of(2024, 1, year % 28 + 1, 12, 0));
+        em.persist(book);
+    }
+
+    private static void assertSameSlice(Slice<BookListItem> jdbc, Slice<BookListItem> jpa) {
+        assertThat(jdbc.getContent()).containsExactlyElementsOf(jpa.getContent());
+        assertThat(jdbc.hasNext()).isEqualTo(jpa.hasNext());
+    }
+}
@@ -0,0 +1,79 @@
+package exporter;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import ru.anhimov.library.config.SpringDataSourceTestConfig;
+import ru.anhimov.library.dao.BookDAO;
+import ru.anhimov.library.dao.PersonDAO;
+import ru.anhimov.library.exporter.CatalogExporter;
+import ru.anhimov.library.exporter.ExportFormat;
+
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {SpringDataSourceTestConfig.class, BookDAO.class, PersonDAO.class, CatalogExporter.class})
+@TestPropertySource("classpath:hibernate-test.properties")
+@ActiveProfiles("test")
+class CatalogExporterTest {
+
+    @Autowired
+    private CatalogExporter catalogExporter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO book(title, author, year) VALUES ('Plain', 'Export Author', 2001)");
+        jdbcTemplate.update("INSERT INTO book(title, author, year) VALUES ('Comma, \"Quoted\"', 'Export Author', 2002)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM book WHERE author = 'Export Author'");
+    }
+
+    @Test
+    void booksAreExportedAsCsvWithHeaderAndEscaping() {
+        StringWriter writer = new StringWriter();
+
+        long rows = catalogExporter.exportBooks(writer, ExportFormat.CSV);
+
+        String[] lines = writer.toString().split("\n");
+        assertThat(lines[0]).isEqualTo("id,title,author,year,person_id,borrow_timestamp");
+        assertThat(lines).hasSize((int) rows + 1)
+                .anyMatch(line -> line.endsWith(",Plain,Export Author,2001,,"))
+                .anyMatch(line -> line.endsWith(",\"Comma, \"\"Quoted\"\"\",Export Author,2002,,"));
+    }
+
+    @Test
+    void booksAreExportedAsOneJsonObjectPerLine() {
+        StringWriter writer = new StringWriter();
+
+        long rows = catalogExporter.exportBooks(writer, ExportFormat.NDJSON);
+
+        String[] lines = writer.toString().split("\n");
+        assertThat(lines).hasSize((int) rows)
+                .allMatch(line -> line.startsWith("{\"id\":") && line.endsWith("}"))
+                .anyMatch(line -> line.contains("\"title\":\"Plain\",\"author\":\"Export Author\",\"year\":2001,\"person_id\":null"));
+    }
+
+    @Test
+    void peopleExportHasPersonColumns() {
+        StringWriter writer = new StringWriter();
+
+        catalogExporter.exportPeople(writer, ExportFormat.CSV);
+
+        assertThat(writer.toString()).startsWith("id,name,age\n");
+    }
+}
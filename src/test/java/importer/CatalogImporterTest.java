@@ -0,0 +1,88 @@
+package importer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import ru.anhimov.library.config.SpringDataSourceTestConfig;
+import ru.anhimov.library.dao.BookDAO;
+import ru.anhimov.library.importer.CatalogImporter;
+import ru.anhimov.library.importer.ImportFormat;
+import ru.anhimov.library.importer.ImportReport;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {SpringDataSourceTestConfig.class, BookDAO.class, CatalogImporter.class})
+@TestPropertySource(value = "classpath:hibernate-test.properties", properties = "library.import.batch_size=2")
+@ActiveProfiles("test")
+class CatalogImporterTest {
+
+    @Autowired
+    private CatalogImporter catalogImporter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM book WHERE author LIKE 'Import %'");
+    }
+
+    @Test
+    void csvImportSkipsDuplicatesAndRejectsInvalidRows() throws IOException {
+        jdbcTemplate.update("INSERT INTO book(title, author, year) VALUES ('Existing', 'Import Author', 2000)");
+        String csv = "title,author,year\n" +
+                "First,Import Author,2001\n" +
+                "Existing,Import Author,2000\n" +
+                "\"Second, Part Two\",Import Author,2002\n" +
+                "First,Import Author,2001\n" +
+                "X,Import Author,2003\n" +
+                "Third,Import Author,not-a-year\n" +
+                "Fourth,Import Author,3000\n" +
+                "Fifth,Import Author,2005\n";
+
+        ImportReport report = catalogImporter.importBooks(stream(csv), ImportFormat.CSV);
+
+        assertThat(report.getRead()).isEqualTo(8);
+        assertThat(report.getInserted()).isEqualTo(3);
+        assertThat(report.getDuplicates()).isEqualTo(2);
+        assertThat(report.getRejected()).isEqualTo(3);
+        assertThat(report.getErrors()).hasSize(3).allMatch(error -> error.startsWith("Line "));
+        assertThat(report.getRowsPerSecond()).isPositive();
+        assertThat(jdbcTemplate.queryForList("SELECT title FROM book WHERE author = 'Import Author' ORDER BY year", String.class))
+                .containsExactly("Existing", "First", "Second, Part Two", "Fifth");
+    }
+
+    @Test
+    void jsonImportAcceptsArrayAndNewlineDelimitedObjects() throws IOException {
+        String array = "[{\"title\": \"Array Book\", \"author\": \"Import Json\", \"year\": 1999, \"extra\": true}]";
+        String ndjson = "{\"title\": \"Line Book\", \"author\": \"Import Json\", \"year\": 1998}\n" +
+                "{\"title\": \"Array Book\", \"author\": \"Import Json\", \"year\": 1999}\n" +
+                "{\"title\": \"No Year\", \"author\": \"Import Json\"}\n";
+
+        ImportReport arrayReport = catalogImporter.importBooks(stream(array), ImportFormat.JSON);
+        ImportReport ndjsonReport = catalogImporter.importBooks(stream(ndjson), ImportFormat.JSON);
+
+        assertThat(arrayReport.getInserted()).isEqualTo(1);
+        assertThat(ndjsonReport.getInserted()).isEqualTo(1);
+        assertThat(ndjsonReport.getDuplicates()).isEqualTo(1);
+        assertThat(ndjsonReport.getErrors()).containsExactly("Line 3: Year is missing");
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM book WHERE author = 'Import Json'", Integer.class))
+                .isEqualTo(2);
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,40 @@
+package importer;
+
+import org.junit.jupiter.api.Test;
+import ru.anhimov.library.importer.CsvReader;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReaderTest {
+
+    @Test
+    void readsQuotedFieldsWithSeparatorsQuotesAndNewlines() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(
+                "title,author,year\r\n\"War, and \"\"Peace\"\"\",Leo Tolstoy,1869\n\"Multi\nline\",Author,1900"));
+
+        assertEquals(List.of("title", "author", "year"), reader.readRecord());
+        assertEquals(List.of("War, and \"Peace\"", "Leo Tolstoy", "1869"), reader.readRecord());
+        assertEquals(List.of("Multi\nline", "Author", "1900"), reader.readRecord());
+        assertNull(reader.readRecord());
+        assertEquals(3, reader.getLineNumber());
+    }
+
+    @Test
+    void keepsEmptyTrailingField() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,,\n"));
+
+        assertEquals(List.of("a", "", ""), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void unterminatedQuoteFails() {
+        CsvReader reader = new CsvReader(new StringReader("\"open,1"));
+
+        assertThrows(IOException.class, reader::readRecord);
+    }
+}
@@ -0,0 +1,219 @@
+package jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.anhimov.library.config.LibraryConfig;
+import ru.anhimov.library.config.SpringDataSourceTestConfig;
+import ru.anhimov.library.controllers.BooksController;
+import ru.anhimov.library.dao.BookDAO;
+import ru.anhimov.library.dao.LoanEventDAO;
+import ru.anhimov.library.dao.PersonDAO;
+import ru.anhimov.library.jfr.FlightRecorderInterceptor;
+import ru.anhimov.library.models.Book;
+import ru.anhimov.library.models.Person;
+import ru.anhimov.library.repositories.BookRepository;
+import ru.anhimov.library.repositories.LoanEventRepository;
+import ru.anhimov.library.repositories.PersonRepository;
+import ru.anhimov.library.search.BookSearchIndex;
+import ru.anhimov.library.search.SuggestionIndex;
+import ru.anhimov.library.services.BookService;
+import ru.anhimov.library.services.PersonService;
+import ru.anhimov.library.util.BookValidator;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {SpringDataSourceTestConfig.class, LibraryConfig.class, BookDAO.class, PersonDAO.class,
+        LoanEventDAO.class, BookService.class, PersonService.class, BookSearchIndex.class, SuggestionIndex.class,
+        BookValidator.class, BooksController.class})
+@TestPropertySource("classpath:hibernate-test.properties")
+@ActiveProfiles("test")
+class FlightRecorderEventsTest {
+    private static final String REQUEST = "ru.anhimov.library.Request";
+    private static final String SERVICE_CALL = "ru.anhimov.library.ServiceCall";
+    private static final String REPOSITORY_QUERY = "ru.anhimov.library.RepositoryQuery";
+    private static final String CHECKOUT = "ru.anhimov.library.Checkout";
+
+    @Autowired
+    private BooksController booksController;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private LoanEventRepository loanEventRepository;
+
+    @Autowired
+    private BookDAO bookDAO;
+
+    @Autowired
+    private PersonDAO personDAO;
+
+    @TempDir
+    Path dir;
+
+    private MockMvc mockMvc;
+    private Person reader;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        reader = new Person();
+        reader.setName("Recorded Reader");
+        reader.setAge(30);
+        reader = personRepository.save(reader);
+
+        book = new Book();
+        book.setTitle("Recorded Flight");
+        book.setAuthor("Recorder Author");
+        book.setYear(2003);
+        book = bookRepository.save(book);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(booksController)
+                .addInterceptors(new FlightRecorderInterceptor())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        loanEventRepository.deleteAll(loanEventRepository.findAll().stream()
+                .filter(event -> event.getBookId() == book.getId())
+                .collect(Collectors.toList()));
+        bookRepository.deleteById(book.getId());
+        personRepository.deleteById(reader.getId());
+    }
+
+    @Test
+    void enabledEventsRecordRequestsServiceCallsQueriesAndCheckouts() throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(REQUEST);
+            recording.enable(SERVICE_CALL);
+            recording.enable(REPOSITORY_QUERY);
+            recording.enable(CHECKOUT);
+            recording.start();
+
+            mockMvc.perform(get("/books/{id}?people_query=Rec", book.getId()))
+                    .andExpect(status().isOk());
+            bookService.assign(book.getId(), reader);
+            bookService.release(book.getId());
+
+            recording.stop();
+            Path file = dir.resolve("library.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        RecordedEvent request = only(events, REQUEST);
+        assertThat(request.getString("method")).isEqualTo("GET");
+        assertThat(request.getString("endpoint")).isEqualTo("/books/{id}");
+        assertThat(request.getString("uri")).isEqualTo("/books/" + book.getId());
+        assertThat(request.getString("query")).isEqualTo("people_query=Rec");
+        assertThat(request.getInt("status")).isEqualTo(200);
+
+        assertThat(named(events, SERVICE_CALL))
+                .extracting(event -> event.getString("method") + "(" + event.getString("arguments") + ")")
+                .contains("BookService.findWithOwnerById(" + book.getId() + ")",
+                        "BookService.assign(" + book.getId() + ", Person#" + reader.getId() + ")",
+                        "BookService.release(" + book.getId() + ")");
+        assertThat(named(events, REPOSITORY_QUERY))
+                .extracting(event -> event.getString("method"))
+                .contains("BookRepository.findWithOwnerById", "BookRepository.assignIfAvailable",
+                        "BookRepository.releaseIfOwnedBy");
+
+        assertThat(named(events, CHECKOUT))
+                .extracting(event -> event.getString("operation") + ":" + event.getInt("bookId") + ":"
+                        + event.getInt("personId") + ":" + event.getBoolean("succeeded"))
+                .containsExactly("ASSIGN:" + book.getId() + ":" + reader.getId() + ":true",
+                        "RELEASE:" + book.getId() + ":0:true");
+    }
+
+    @Test
+    void jdbcReadPathRecordsRepositoryQueries() throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(REPOSITORY_QUERY);
+            recording.start();
+
+            bookDAO.findListItemsByTitleOrAuthorLike("%recorded%");
+            personDAO.findPersonById(reader.getId());
+            personDAO.findBooksByOwnerId(reader.getId());
+
+            recording.stop();
+            Path file = dir.resolve("jdbc.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        assertThat(named(events, REPOSITORY_QUERY))
+                .extracting(event -> event.getString("method") + "(" + event.getString("arguments") + ")")
+                .containsExactly("BookDAO.findListItemsByTitleOrAuthorLike('%recorded%')",
+                        "PersonDAO.findPersonById(" + reader.getId() + ")",
+                        "PersonDAO.findBooksByOwnerId(" + reader.getId() + ")");
+    }
+
+    @Test
+    void onlyBeansThatAreAlreadyProxiedAreAdvised() {
+        assertThat(AopUtils.isAopProxy(bookDAO)).isFalse();
+        assertThat(AopUtils.isAopProxy(personDAO)).isFalse();
+        assertThat(AopUtils.isJdkDynamicProxy(bookRepository)).isTrue();
+        assertThat(AopUtils.isCglibProxy(bookService)).isTrue();
+    }
+
+    @Test
+    void eventsAreDisabledByDefault() throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.start();
+
+            mockMvc.perform(get("/books/{id}", book.getId())).andExpect(status().isOk());
+            bookService.assign(book.getId(), reader);
+
+            recording.stop();
+            Path file = dir.resolve("default.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        assertThat(events).extracting(event -> event.getEventType().getName())
+                .doesNotContain(REQUEST, SERVICE_CALL, REPOSITORY_QUERY, CHECKOUT);
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+    }
+
+    private static RecordedEvent only(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = named(events, name);
+        assertThat(matching).hasSize(1);
+        return matching.get(0);
+    }
+}
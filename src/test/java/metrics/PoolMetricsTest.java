@@ -0,0 +1,85 @@
+package metrics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import ru.anhimov.library.config.PooledDataSources;
+import ru.anhimov.library.metrics.PoolMetrics;
+import ru.anhimov.library.metrics.PoolSnapshot;
+import ru.anhimov.library.routing.ReplicaRoutingDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PoolMetricsTest {
+    private PoolMetrics poolMetrics;
+    private MockEnvironment env;
+    private HikariDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        env = new MockEnvironment()
+                .withProperty("datasource.driver_class", "org.h2.Driver")
+                .withProperty("datasource.url", "jdbc:h2:mem:pool-metrics")
+                .withProperty("datasource.username", "sa")
+                .withProperty("datasource.password", "")
+                .withProperty("hikari.minimum_idle", "1")
+                .withProperty("hikari.maximum_pool_size", "2")
+                .withProperty("hikari.connection_timeout_ms", "250")
+                .withProperty("hikari.leak_detection_threshold_ms", "0")
+                .withProperty("hikari.data_source_properties", "");
+        poolMetrics = new PoolMetrics();
+        dataSource = PooledDataSources.create(env, poolMetrics);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void poolIsSizedFromProperties() {
+        assertEquals(1, dataSource.getMinimumIdle());
+        assertEquals(2, dataSource.getMaximumPoolSize());
+        assertEquals(250, dataSource.getConnectionTimeout());
+    }
+
+    @Test
+    void snapshotTracksActiveConnectionsAndAcquisitions() throws SQLException {
+        try (Connection ignored = dataSource.getConnection()) {
+            PoolSnapshot snapshot = poolMetrics.getSnapshot(PooledDataSources.PRIMARY_POOL);
+            assertEquals(1, snapshot.getActive());
+            assertEquals(2, snapshot.getMaxSize());
+        }
+
+        PoolSnapshot snapshot = poolMetrics.getSnapshot(PooledDataSources.PRIMARY_POOL);
+        assertEquals(1, snapshot.getAcquisitions());
+        assertTrue(snapshot.getMaxAcquireMicros() >= snapshot.getMeanAcquireMicros());
+    }
+
+    @Test
+    void exhaustedPoolRecordsTimeout() throws SQLException {
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            assertThrows(SQLException.class, dataSource::getConnection);
+        }
+
+        assertEquals(1, poolMetrics.getSnapshot(PooledDataSources.PRIMARY_POOL).getTimeouts());
+    }
+
+    @Test
+    void unreachableReplicaDoesNotFailStartupAndIsTrackedByName() {
+        env.setProperty("datasource.replica_urls", "jdbc:h2:mem:pool-metrics-replica, jdbc:h2:tcp://localhost:1/missing");
+        ReplicaRoutingDataSource routing = PooledDataSources.createRouting(env, poolMetrics);
+        try {
+            assertEquals(Set.of("primary", "replica-1", "replica-2"), poolMetrics.getSnapshot().keySet());
+            assertEquals(2, poolMetrics.getSnapshot("replica-1").getMaxSize());
+        } finally {
+            routing.close();
+        }
+    }
+}
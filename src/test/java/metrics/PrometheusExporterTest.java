@@ -0,0 +1,72 @@
+package metrics;
+
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import ru.anhimov.library.metrics.LatencyMetrics;
+import ru.anhimov.library.metrics.LatencySnapshot;
+import ru.anhimov.library.metrics.LatencyTimer;
+import ru.anhimov.library.metrics.PrometheusExporter;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PrometheusExporterTest {
+
+    @Test
+    void histogramsReportPercentilesAndMaxSinceThePreviousSnapshot() {
+        LatencyMetrics metrics = new LatencyMetrics(true);
+        for (int millis = 1; millis <= 100; millis++) {
+            metrics.record(LatencyTimer.SERVICE, "BookService.findAll", TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        LatencySnapshot first = metrics.snapshot(LatencyTimer.SERVICE).get("BookService.findAll");
+        assertThat(first.getCount()).isEqualTo(100);
+        assertThat(first.getP50Micros()).isBetween(49_000L, 51_000L);
+        assertThat(first.getP99Micros()).isBetween(98_000L, 100_000L);
+        assertThat(first.getMaxMicros()).isBetween(99_000L, 101_000L);
+
+        LatencySnapshot second = metrics.snapshot(LatencyTimer.SERVICE).get("BookService.findAll");
+        assertThat(second.getCount()).isEqualTo(100);
+        assertThat(second.getIntervalCount()).isZero();
+    }
+
+    @Test
+    void scrapeWritesSummariesAndHibernateCountersInTextFormat() {
+        LatencyMetrics metrics = new LatencyMetrics(true);
+        metrics.record(LatencyTimer.HANDLER, "BooksController.getBook", TimeUnit.MILLISECONDS.toNanos(2));
+        Statistics statistics = mock(Statistics.class);
+        when(statistics.getEntityLoadCount()).thenReturn(7L);
+        when(statistics.getSecondLevelCacheHitCount()).thenReturn(3L);
+        when(statistics.getQueryExecutionCount()).thenReturn(5L);
+
+        String text = new PrometheusExporter(metrics, statistics).scrape();
+
+        verify(statistics).setStatisticsEnabled(true);
+        assertThat(text)
+                .contains("# TYPE library_handler_seconds summary\n")
+                .contains("library_handler_seconds{handler=\"BooksController.getBook\",quantile=\"0.99\"} 0.002")
+                .contains("library_handler_seconds_count{handler=\"BooksController.getBook\"} 1\n")
+                .contains("library_handler_seconds_max{handler=\"BooksController.getBook\"} 0.002")
+                .contains("hibernate_entity_loads_total 7\n")
+                .contains("hibernate_query_executions_total 5\n")
+                .contains("hibernate_second_level_cache_requests_total{result=\"hit\"} 3\n");
+    }
+
+    @Test
+    void disabledMetricsRecordNothingAndLeaveStatisticsAlone() {
+        LatencyMetrics metrics = new LatencyMetrics(false);
+        metrics.record(LatencyTimer.HANDLER, "BooksController.getBook", 1_000);
+        Statistics statistics = mock(Statistics.class);
+
+        PrometheusExporter exporter = new PrometheusExporter(metrics, statistics);
+
+        assertThat(exporter.isEnabled()).isFalse();
+        assertThat(metrics.snapshot(LatencyTimer.HANDLER)).isEmpty();
+        verify(statistics, never()).setStatisticsEnabled(true);
+    }
+}
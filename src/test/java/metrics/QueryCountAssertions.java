@@ -0,0 +1,41 @@
+package metrics;
+
+import ru.anhimov.library.metrics.QueryCount;
+import ru.anhimov.library.metrics.QueryCounter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class QueryCountAssertions {
+
+    private QueryCountAssertions() {
+    }
+
+    public static QueryCount assertQueryCount(int expected, Action action) throws Exception {
+        QueryCount count = measure(action);
+        assertEquals(expected, count.getStatements(), () -> "Unexpected number of SQL statements: " + count);
+        return count;
+    }
+
+    public static QueryCount assertMaxQueryCount(int budget, Action action) throws Exception {
+        QueryCount count = measure(action);
+        assertTrue(count.getStatements() <= budget, () -> "SQL statement budget " + budget + " exceeded: " + count);
+        return count;
+    }
+
+    public static QueryCount measure(Action action) throws Exception {
+        QueryCounter.start();
+        try {
+            action.run();
+        } catch (Exception | Error e) {
+            QueryCounter.stop();
+            throw e;
+        }
+        return QueryCounter.stop();
+    }
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,88 @@
+package metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import ru.anhimov.library.metrics.CountingDataSource;
+import ru.anhimov.library.metrics.SlowQuery;
+import ru.anhimov.library.metrics.SlowQueryLog;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SlowQueryLogTest {
+    private static final String URL = "jdbc:h2:mem:slow_queries;DB_CLOSE_DELAY=-1";
+    private static final int SLOW_MILLIS = 30;
+
+    private SlowQueryLog slowQueryLog;
+
+    public static int pause(int millis) throws InterruptedException {
+        Thread.sleep(millis);
+        return millis;
+    }
+
+    @AfterEach
+    void tearDown() {
+        slowQueryLog.close();
+    }
+
+    @Test
+    void onlyStatementsOverTheThresholdAreKeptWithTheirBindValuesAndPlan() {
+        slowQueryLog = new SlowQueryLog(SLOW_MILLIS / 2, true, 10);
+        JdbcTemplate jdbcTemplate = jdbcTemplate(slowQueryLog);
+
+        jdbcTemplate.queryForObject("SELECT PAUSE(?)", Integer.class, 0);
+        jdbcTemplate.queryForObject("SELECT PAUSE(?) + LENGTH(?)", Integer.class, SLOW_MILLIS, "Dune");
+
+        List<SlowQuery> recent = slowQueryLog.getRecent();
+        assertThat(recent).hasSize(1);
+        SlowQuery query = recent.get(0);
+        assertThat(query.getSql()).isEqualTo("SELECT PAUSE(?) + LENGTH(?)");
+        assertThat(query.getParameters()).containsExactly(String.valueOf(SLOW_MILLIS), "Dune");
+        assertThat(query.getElapsedMicros()).isGreaterThanOrEqualTo(SLOW_MILLIS * 1_000L);
+        assertThat(query.getPlan()).containsIgnoringCase("PAUSE");
+    }
+
+    @Test
+    void bufferKeepsTheNewestQueriesFirst() {
+        slowQueryLog = new SlowQueryLog(SLOW_MILLIS / 2, false, 2);
+        JdbcTemplate jdbcTemplate = jdbcTemplate(slowQueryLog);
+
+        for (int i = 1; i <= 3; i++) {
+            jdbcTemplate.queryForObject("SELECT PAUSE(?) + " + i, Integer.class, SLOW_MILLIS);
+        }
+
+        assertThat(slowQueryLog.getRecent()).extracting(SlowQuery::getSql)
+                .containsExactly("SELECT PAUSE(?) + 3", "SELECT PAUSE(?) + 2");
+        assertThat(slowQueryLog.getRecent()).extracting(SlowQuery::getPlan).containsOnlyNulls();
+    }
+
+    @Test
+    void slowQueriesAreWrittenAsJsonLinesToTheRotatingLog(@TempDir Path dir) throws Exception {
+        slowQueryLog = new SlowQueryLog(SLOW_MILLIS / 2, false, 10);
+        slowQueryLog.writeTo(dir.resolve("slow-queries.%g.log").toString(), 1_000_000, 2);
+        JdbcTemplate jdbcTemplate = jdbcTemplate(slowQueryLog);
+
+        jdbcTemplate.queryForObject("SELECT PAUSE(?)", Integer.class, SLOW_MILLIS);
+        slowQueryLog.close();
+
+        List<String> lines = Files.readAllLines(dir.resolve("slow-queries.0.log"));
+        assertThat(lines).hasSize(1);
+        assertThat(lines.get(0))
+                .startsWith("{")
+                .contains("\"sql\":\"SELECT PAUSE(?)\"")
+                .contains("\"parameters\":[\"" + SLOW_MILLIS + "\"]")
+                .contains("\"elapsedMicros\":");
+    }
+
+    private static JdbcTemplate jdbcTemplate(SlowQueryLog slowQueryLog) {
+        DriverManagerDataSource h2 = new DriverManagerDataSource(URL, "sa", "");
+        new JdbcTemplate(h2).execute("CREATE ALIAS IF NOT EXISTS PAUSE FOR \"metrics.SlowQueryLogTest.pause\"");
+        return new JdbcTemplate(new CountingDataSource(h2, slowQueryLog));
+    }
+}
@@ -0,0 +1,122 @@
+package reminders;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.anhimov.library.config.SpringDataSourceTestConfig;
+import ru.anhimov.library.metrics.ReminderMetrics;
+import ru.anhimov.library.metrics.ReminderSnapshot;
+import ru.anhimov.library.models.Book;
+import ru.anhimov.library.models.Person;
+import ru.anhimov.library.models.Reminder;
+import ru.anhimov.library.reminders.OverdueReminderScanner;
+import ru.anhimov.library.repositories.BookRepository;
+import ru.anhimov.library.repositories.PersonRepository;
+import ru.anhimov.library.repositories.ReminderRepository;
+import ru.anhimov.library.services.LoanPolicy;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {SpringDataSourceTestConfig.class})
+@TestPropertySource("classpath:hibernate-test.properties")
+@ActiveProfiles("test")
+class OverdueReminderScannerTest {
+    private static final Instant NOW = Instant.parse("2030-06-01T12:00:00Z");
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private ReminderRepository reminderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Book> books = new ArrayList<>();
+    private Person reader;
+
+    @BeforeEach
+    void setUp() {
+        reader = new Person();
+        reader.setName("Reminder Reader");
+        reader.setAge(30);
+        reader = personRepository.save(reader);
+        LocalDateTime now = LocalDateTime.ofInstant(NOW, ZoneOffset.UTC);
+        books.add(borrowed("Scanner Book 1", now.minusDays(20)));
+        books.add(borrowed("Scanner Book 2", now.minusDays(15)));
+        books.add(borrowed("Scanner Book 3", now.minusDays(12)));
+        books.add(borrowed("Scanner Book 4", now.minusDays(9)));
+        books.add(borrowed("Scanner Book 5", now.minusDays(1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        reminderRepository.deleteAll();
+        bookRepository.deleteAll(books);
+        personRepository.delete(reader);
+    }
+
+    @Test
+    void scanWritesEachOverdueLoanOnceInBatches() {
+        ReminderMetrics metrics = new ReminderMetrics();
+        OverdueReminderScanner scanner = scanner(Clock.fixed(NOW, ZoneOffset.UTC), metrics);
+
+        assertThat(scanner.scan()).isEqualTo(3);
+        assertThat(scanner.scan()).isZero();
+
+        assertThat(reminderRepository.findAll()).extracting(Reminder::getTitle)
+                .containsExactlyInAnyOrder("Scanner Book 1", "Scanner Book 2", "Scanner Book 3");
+        ReminderSnapshot snapshot = metrics.getSnapshot();
+        assertThat(snapshot.getScans()).isEqualTo(2);
+        assertThat(snapshot.getRemindersWritten()).isEqualTo(3);
+        assertThat(snapshot.getWatermark()).isEqualTo(books.get(2).getBorrowTimestamp().toString());
+    }
+
+    @Test
+    void laterScanOnlyPicksUpLoansThatCrossedTheThreshold() {
+        scanner(Clock.fixed(NOW, ZoneOffset.UTC), new ReminderMetrics()).scan();
+
+        ReminderMetrics metrics = new ReminderMetrics();
+        OverdueReminderScanner restarted = scanner(Clock.fixed(NOW.plus(Duration.ofDays(2)), ZoneOffset.UTC), metrics);
+
+        assertThat(restarted.scan()).isEqualTo(1);
+        assertThat(metrics.getSnapshot().getWatermark()).isEqualTo(books.get(3).getBorrowTimestamp().toString());
+        assertThat(reminderRepository.count()).isEqualTo(4);
+    }
+
+    private OverdueReminderScanner scanner(Clock clock, ReminderMetrics metrics) {
+        MockEnvironment env = new MockEnvironment().withProperty("library.reminders.batch_size", "2");
+        return new OverdueReminderScanner(bookRepository, reminderRepository, new LoanPolicy(10, clock), metrics,
+                transactionManager, env);
+    }
+
+    private Book borrowed(String title, LocalDateTime borrowTimestamp) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor("Scanner Author");
+        book.setYear(2000);
+        book.setOwner(reader);
+        book.setBorrowTimestamp(borrowTimestamp);
+        return bookRepository.save(book);
+    }
+}
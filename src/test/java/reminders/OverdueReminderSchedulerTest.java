@@ -0,0 +1,51 @@
+package reminders;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import ru.anhimov.library.reminders.OverdueReminderScanner;
+import ru.anhimov.library.reminders.OverdueReminderScheduler;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class OverdueReminderSchedulerTest {
+
+    @Test
+    void zeroIntervalDisablesScheduling() throws Exception {
+        OverdueReminderScanner scanner = mock(OverdueReminderScanner.class);
+        OverdueReminderScheduler scheduler = new OverdueReminderScheduler(scanner,
+                new MockEnvironment().withProperty("library.reminders.interval_ms", "0"));
+
+        scheduler.start();
+
+        assertThat(scheduler.isRunning()).isFalse();
+        scheduler.destroy();
+        verifyNoInteractions(scanner);
+    }
+
+    @Test
+    void failedScanDoesNotStopLaterRuns() throws Exception {
+        CountDownLatch scans = new CountDownLatch(2);
+        OverdueReminderScanner scanner = mock(OverdueReminderScanner.class);
+        when(scanner.scan()).thenAnswer(invocation -> {
+            scans.countDown();
+            if (scans.getCount() == 1) {
+                throw new IllegalStateException("database is down");
+            }
+            return 1;
+        });
+        OverdueReminderScheduler scheduler = new OverdueReminderScheduler(scanner,
+                new MockEnvironment().withProperty("library.reminders.interval_ms", "10"));
+
+        scheduler.start();
+        scheduler.start();
+
+        assertThat(scans.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(scheduler.isRunning()).isTrue();
+        scheduler.destroy();
+        assertThat(scheduler.isRunning()).isFalse();
+    }
+}
@@ -1,23 +1,36 @@
 package repositories;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.transaction.annotation.Transactional;
 import ru.anhimov.library.config.SpringDataSourceTestConfig;
+import ru.anhimov.library.dto.BookListItem;
+import ru.anhimov.library.dto.BookOwnership;
+import ru.anhimov.library.dto.OverdueCount;
+import ru.anhimov.library.dto.OverdueLoan;
 import ru.anhimov.library.models.Book;
 import ru.anhimov.library.models.Person;
 import ru.anhimov.library.repositories.BookRepository;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -34,43 +47,168 @@ class BookRepositoryTest {
     @PersistenceContext
     private EntityManager em;
 
+    private Book ownedBook;
+
     @BeforeEach
     void setUp() {
         Person person = new Person();
         person.setName("John Doe");
+        person.setAge(30);
         em.persist(person);
 
         Book book1 = new Book();
         book1.setTitle("Spring in Action");
         book1.setAuthor("Craig Walls");
+        book1.setYear(2018);
         book1.setOwner(person);
         em.persist(book1);
+        ownedBook = book1;
 
         Book book2 = new Book();
         book2.setTitle("Effective Java: Programming Language Guide");
         book2.setAuthor("Joshua Bloch");
+        book2.setYear(2001);
         em.persist(book2);
 
         Book book3 = new Book();
         book3.setTitle("Java Concurrency in Practice");
         book3.setAuthor("Joshua Bloch");
+        book3.setYear(2006);
         em.persist(book3);
 
         em.flush();
     }
 
     @Test
-    void testFindBookOwner() {
-        Optional<Person> owner = bookRepository.findBookOwner(1);
-        assertThat(owner).isPresent();
-        assertThat(owner.get().getName()).isEqualTo("John Doe");
+    void testFindWithOwnerByIdLoadsOwnerInOneStatement() {
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Optional<Book> book = bookRepository.findWithOwnerById(ownedBook.getId());
+
+        assertThat(book).isPresent();
+        assertThat(book.get().getOwner().getName()).isEqualTo("John Doe");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testReleaseIfOwnedBySurvivesAnEditButNotASecondLoan() {
+        ownedBook.setBorrowTimestamp(LocalDateTime.of(2024, 3, 1, 10, 0));
+        em.flush();
+        em.clear();
+        BookOwnership ownership = bookRepository.findOwnership(ownedBook.getId()).orElseThrow();
+
+        Book edited = bookRepository.findById(ownedBook.getId()).orElseThrow();
+        edited.setTitle("Spring in Action, Sixth Edition");
+        bookRepository.saveAndFlush(edited);
+
+        assertThat(bookRepository.releaseIfOwnedBy(ownedBook.getId(), ownership.getOwnerId(),
+                ownership.getBorrowedAt().minusDays(1))).isZero();
+        assertThat(bookRepository.releaseIfOwnedBy(ownedBook.getId(), ownership.getOwnerId(),
+                ownership.getBorrowedAt())).isEqualTo(1);
+    }
+
+    @Test
+    void testListItemQueriesIssueFixedStatementCountWhateverTheOwners() {
+        Person reader = new Person();
+        reader.setName("Jane Roe");
+        reader.setAge(30);
+        em.persist(reader);
+        Book borrowed = bookRepository
+                .findBookByTitleAndAuthor("Effective Java: Programming Language Guide", "Joshua Bloch").orElseThrow();
+        borrowed.setOwner(reader);
+        em.flush();
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        Page<BookListItem> page = bookRepository.findListItems(PageRequest.of(0, 2, Sort.by("year")));
+        assertThat(page.getContent()).extracting(BookListItem::getOwnerName).containsExactly("Jane Roe", null);
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        statistics.clear();
+        Slice<BookListItem> slice = bookRepository.findSliceAfterId(Integer.MIN_VALUE, PageRequest.of(0, 3));
+        assertThat(slice.getContent()).extracting(BookListItem::isAvailable).containsExactly(false, false, true);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        List<BookListItem> hits = bookRepository.findListItemsByIdIn(List.of(ownedBook.getId(), borrowed.getId()));
+        assertThat(hits).extracting(BookListItem::getOwnerName).containsExactlyInAnyOrder("John Doe", "Jane Roe");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        List<BookListItem> matches = bookRepository.findListItemsByTitleOrAuthorLike("%java%");
+        assertThat(matches).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testBulkOwnerUpdateIssuesOneStatementPerBatch() {
+        Person reader = new Person();
+        reader.setName("Jane Roe");
+        reader.setAge(30);
+        em.persist(reader);
+        em.flush();
+        List<Integer> ids = bookRepository.findSliceAfterId(Integer.MIN_VALUE, PageRequest.of(0, 3)).getContent().stream()
+                .map(BookListItem::getId)
+                .collect(Collectors.toList());
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+        statistics.clear();
+        int updated = bookRepository.assignAvailable(ids, reader, now);
+
+        assertThat(updated).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(bookRepository.findIdsBorrowedAt(ids, reader, now)).hasSize(2).doesNotContain(ownedBook.getId());
+        assertThat(bookRepository.assignAvailable(ids, reader, now)).isZero();
+
+        List<Integer> borrowed = bookRepository.findBorrowedIdsIn(ids);
+        assertThat(borrowed).containsExactlyElementsOf(ids);
+        statistics.clear();
+        assertThat(bookRepository.releaseBorrowed(borrowed)).isEqualTo(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(bookRepository.releaseBorrowed(borrowed)).isZero();
+        assertThat(bookRepository.findById(ownedBook.getId()).orElseThrow().getBorrowTimestamp()).isNull();
     }
 
     @Test
-    void testFindBookByTitleLikeIgnoreCase() {
-        List<Book> books = bookRepository.findBookByTitleLikeIgnoreCase("%spring%");
-        assertThat(books).hasSize(1);
-        assertThat(books.get(0).getTitle()).isEqualTo("Spring in Action");
+    void testOverdueLoansAreOldestFirstAndCountedPerPerson() {
+        Person reader = new Person();
+        reader.setName("Jane Roe");
+        reader.setAge(30);
+        em.persist(reader);
+        LocalDateTime now = LocalDateTime.now();
+        ownedBook.setBorrowTimestamp(now.minusDays(12));
+        List<Book> others = bookRepository.findAll(Sort.by("id")).stream()
+                .filter(book -> book.getId() != ownedBook.getId())
+                .collect(Collectors.toList());
+        others.get(0).setOwner(reader);
+        others.get(0).setBorrowTimestamp(now.minusDays(30));
+        others.get(1).setOwner(reader);
+        others.get(1).setBorrowTimestamp(now.minusDays(2));
+        em.flush();
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        LocalDateTime cutoff = now.minusDays(10);
+        Page<OverdueLoan> first = bookRepository.findOverdueLoans(cutoff, PageRequest.of(0, 1));
+        assertThat(first.getContent()).extracting(OverdueLoan::getBookId).containsExactly(others.get(0).getId());
+        assertThat(first.getContent().get(0).getPersonName()).isEqualTo("Jane Roe");
+        assertThat(first.getContent().get(0).getDaysBorrowed()).isEqualTo(30);
+        assertThat(first.getTotalElements()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        Page<OverdueLoan> second = bookRepository.findOverdueLoans(cutoff, PageRequest.of(1, 1));
+        assertThat(second.getContent()).extracting(OverdueLoan::getBookId).containsExactly(ownedBook.getId());
+
+        List<OverdueCount> counts = bookRepository.countOverdueLoansByPerson(now.minusDays(1));
+        assertThat(counts).extracting(OverdueCount::getPersonName).containsExactly("Jane Roe", "John Doe");
+        assertThat(counts).extracting(OverdueCount::getOverdueBooks).containsExactly(2L, 1L);
     }
 
     @Test
@@ -80,5 +218,24 @@ class BookRepositoryTest {
         assertThat(book).isPresent();
         assertThat(book.get().getTitle()).isEqualTo("Effective Java: Programming Language Guide");
     }
-}
 
+    @Test
+    void testFindSliceAfterYearAndIdSeeksPastCursor() {
+        Slice<BookListItem> first = bookRepository.findSliceAfterYearAndId(Integer.MIN_VALUE, Integer.MIN_VALUE, PageRequest.of(0, 2));
+        assertThat(first.getContent()).extracting(BookListItem::getYear).containsExactly(2001, 2006);
+        assertThat(first.hasNext()).isTrue();
+
+        BookListItem last = first.getContent().get(1);
+        Slice<BookListItem> second = bookRepository.findSliceAfterYearAndId(last.getYear(), last.getId(), PageRequest.of(0, 2));
+        assertThat(second.getContent()).extracting(BookListItem::getYear).containsExactly(2018);
+        assertThat(second.hasNext()).isFalse();
+    }
+
+    @Test
+    void testFindSliceBeforeIdReturnsDescendingOrder() {
+        Slice<BookListItem> slice = bookRepository.findSliceBeforeId(Integer.MAX_VALUE, PageRequest.of(0, 2));
+        assertThat(slice.getContent()).extracting(BookListItem::getTitle)
+                .containsExactly("Java Concurrency in Practice", "Effective Java: Programming Language Guide");
+        assertThat(slice.hasNext()).isTrue();
+    }
+}
@@ -0,0 +1,83 @@
+package repositories;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+import ru.anhimov.library.config.SpringDataSourceTestConfig;
+import ru.anhimov.library.dto.LoanDayCount;
+import ru.anhimov.library.models.Book;
+import ru.anhimov.library.models.LoanEvent;
+import ru.anhimov.library.models.LoanEventType;
+import ru.anhimov.library.models.Person;
+import ru.anhimov.library.repositories.LoanEventRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {SpringDataSourceTestConfig.class})
+@TestPropertySource("classpath:hibernate-test.properties")
+@ActiveProfiles("test")
+@Transactional
+class LoanEventRepositoryTest {
+    private static final LocalDateTime MARCH = LocalDateTime.of(2031, 3, 10, 9, 0);
+
+    @Autowired
+    private LoanEventRepository loanEventRepository;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private Book book;
+    private Person reader;
+
+    @BeforeEach
+    void setUp() {
+        reader = new Person();
+        reader.setName("History Reader");
+        reader.setAge(30);
+        em.persist(reader);
+        book = new Book();
+        book.setTitle("History Book");
+        book.setAuthor("History Author");
+        book.setYear(1999);
+        book.setOwner(reader);
+        em.persist(book);
+        em.flush();
+    }
+
+    @Test
+    void historyQueriesAreBoundedByTimeRange() {
+        em.persist(new LoanEvent(book.getId(), reader.getId(), LoanEventType.ASSIGN, MARCH.minusMonths(1)));
+        em.persist(new LoanEvent(book.getId(), reader.getId(), LoanEventType.RELEASE, MARCH.minusMonths(1).plusDays(3)));
+        em.persist(new LoanEvent(book.getId(), reader.getId(), LoanEventType.ASSIGN, MARCH));
+        em.persist(new LoanEvent(book.getId(), reader.getId(), LoanEventType.RELEASE, MARCH.plusHours(5)));
+        em.persist(new LoanEvent(book.getId(), reader.getId(), LoanEventType.ASSIGN, MARCH.plusHours(6)));
+        em.persist(new LoanEvent(book.getId(), reader.getId(), LoanEventType.ASSIGN, MARCH.plusDays(2)));
+        em.flush();
+
+        LocalDateTime from = MARCH.toLocalDate().withDayOfMonth(1).atStartOfDay();
+        LocalDateTime to = from.plusMonths(1);
+        assertThat(loanEventRepository.findBookHistory(book.getId(), from, to, PageRequest.of(0, 10)))
+                .extracting(LoanEvent::getOccurredAt)
+                .containsExactly(MARCH.plusDays(2), MARCH.plusHours(6), MARCH.plusHours(5), MARCH);
+        assertThat(loanEventRepository.findPersonHistory(reader.getId(), from.minusMonths(1), from, PageRequest.of(0, 1)))
+                .extracting(LoanEvent::getType)
+                .containsExactly(LoanEventType.RELEASE);
+        assertThat(loanEventRepository.countLoansPerDay(from, to)).containsExactly(
+                new LoanDayCount(LocalDate.of(2031, 3, 10), 2),
+                new LoanDayCount(LocalDate.of(2031, 3, 12), 1));
+    }
+}
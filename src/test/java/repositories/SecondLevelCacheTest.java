@@ -0,0 +1,160 @@
+package repositories;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.anhimov.library.config.SpringDataSourceTestConfig;
+import ru.anhimov.library.dto.BookOwnership;
+import ru.anhimov.library.models.Book;
+import ru.anhimov.library.models.Person;
+import ru.anhimov.library.repositories.BookRepository;
+import ru.anhimov.library.repositories.PersonRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {SpringDataSourceTestConfig.class})
+@TestPropertySource("classpath:hibernate-test.properties")
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+    private Person person;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        person = new Person();
+        person.setName("Jane Roe");
+        person.setAge(30);
+        personRepository.save(person);
+
+        book = new Book();
+        book.setTitle("Domain-Driven Design");
+        book.setAuthor("Eric Evans");
+        book.setYear(2003);
+        book.setOwner(person);
+        book.setBorrowTimestamp(LocalDateTime.of(2024, 3, 1, 10, 0));
+        bookRepository.save(book);
+
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteById(book.getId());
+        personRepository.deleteById(person.getId());
+    }
+
+    @Test
+    void repeatedBookReadIsServedFromCache() {
+        bookRepository.findById(book.getId());
+        assertThat(statistics.getPrepareStatementCount()).isPositive();
+
+        statistics.clear();
+        Book cached = bookRepository.findById(book.getId()).orElseThrow();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+        assertThat(cached.getOwner().getName()).isEqualTo("Jane Roe");
+    }
+
+    @Test
+    void repeatedBookDetailReadIsServedFromCache() {
+        bookRepository.findWithOwnerById(book.getId());
+
+        statistics.clear();
+        Book cached = bookRepository.findWithOwnerById(book.getId()).orElseThrow();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(cached.getOwner().getName()).isEqualTo("Jane Roe");
+    }
+
+    @Test
+    void returningBookInvalidatesCachedDetailRead() {
+        bookRepository.findWithOwnerById(book.getId());
+        BookOwnership ownership = bookRepository.findOwnership(book.getId()).orElseThrow();
+        transactionTemplate.executeWithoutResult(status ->
+                bookRepository.releaseIfOwnedBy(book.getId(), ownership.getOwnerId(), ownership.getBorrowedAt()));
+
+        statistics.clear();
+        Book fresh = bookRepository.findWithOwnerById(book.getId()).orElseThrow();
+
+        assertThat(statistics.getPrepareStatementCount()).isPositive();
+        assertThat(fresh.getOwner()).isNull();
+    }
+
+    @Test
+    void repeatedPersonReadIsServedFromCache() {
+        personRepository.findById(person.getId());
+
+        statistics.clear();
+        personRepository.findById(person.getId());
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+    }
+
+    @Test
+    void repeatedPersonBooksReadIsServedFromCache() {
+        transactionTemplate.executeWithoutResult(status ->
+                personRepository.findById(person.getId()).orElseThrow().getBooks().size());
+
+        statistics.clear();
+        Integer size = transactionTemplate.execute(status ->
+                personRepository.findById(person.getId()).orElseThrow().getBooks().size());
+
+        assertThat(size).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void deletingBookEvictsOwnersCachedBooks() {
+        Book second = new Book();
+        second.setTitle("Implementing Domain-Driven Design");
+        second.setAuthor("Vaughn Vernon");
+        second.setYear(2013);
+        second.setOwner(person);
+        bookRepository.save(second);
+        transactionTemplate.executeWithoutResult(status ->
+                personRepository.findById(person.getId()).orElseThrow().getBooks().size());
+
+        bookRepository.deleteById(second.getId());
+
+        Integer size = transactionTemplate.execute(status ->
+                personRepository.findById(person.getId()).orElseThrow().getBooks().size());
+
+        assertThat(size).isEqualTo(1);
+    }
+}
@@ -0,0 +1,76 @@
+package routing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.anhimov.library.routing.ReadYourWrites;
+import ru.anhimov.library.routing.ReadYourWritesInterceptor;
+
+import javax.servlet.http.Cookie;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesInterceptorTest {
+    private final ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(5_000);
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    void requestWithoutCommittedWriteIsNotPinned() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(new MockHttpServletRequest("POST", "/books/search"), response, null);
+
+        assertThat(ReadYourWrites.isPinnedToPrimary()).isFalse();
+        assertThat(response.getCookies()).isEmpty();
+    }
+
+    @Test
+    void committedWritePinsToPrimaryAndSetsCookie() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(new MockHttpServletRequest("PATCH", "/books/1/assign"), response, null);
+        ReadYourWrites.writeCommitted();
+
+        assertThat(ReadYourWrites.isPinnedToPrimary()).isTrue();
+        Cookie cookie = response.getCookie(ReadYourWritesInterceptor.COOKIE_NAME);
+        assertThat(cookie).isNotNull();
+        assertThat(Long.parseLong(cookie.getValue())).isGreaterThan(System.currentTimeMillis());
+        assertThat(cookie.getMaxAge()).isEqualTo(5);
+    }
+
+    @Test
+    void writeCommittedOutsideRequestDoesNotPin() {
+        ReadYourWrites.writeCommitted();
+
+        assertThat(ReadYourWrites.isPinnedToPrimary()).isFalse();
+    }
+
+    @Test
+    void readWithinWindowIsPinnedToPrimary() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/books/1");
+        request.setCookies(new Cookie(ReadYourWritesInterceptor.COOKIE_NAME, Long.toString(System.currentTimeMillis() + 5_000)));
+
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+        assertThat(ReadYourWrites.isPinnedToPrimary()).isTrue();
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), null, null);
+        assertThat(ReadYourWrites.isPinnedToPrimary()).isFalse();
+    }
+
+    @Test
+    void readAfterWindowGoesToReplicas() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/books");
+        request.setCookies(new Cookie(ReadYourWritesInterceptor.COOKIE_NAME, Long.toString(System.currentTimeMillis() - 1)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, null);
+
+        assertThat(ReadYourWrites.isPinnedToPrimary()).isFalse();
+        assertThat(response.getCookies()).isEmpty();
+    }
+}
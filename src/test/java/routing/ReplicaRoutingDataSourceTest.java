@@ -0,0 +1,90 @@
+package routing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.anhimov.library.routing.ReadYourWrites;
+import ru.anhimov.library.routing.ReplicaRoutingDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTest {
+    private static final String PRIMARY = "jdbc:h2:mem:routing_unit_primary";
+    private static final String FIRST_REPLICA = "jdbc:h2:mem:routing_unit_replica1";
+    private static final String SECOND_REPLICA = "jdbc:h2:mem:routing_unit_replica2";
+    private static final String MISSING_REPLICA = "jdbc:h2:mem:routing_unit_missing;IFEXISTS=TRUE";
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    void writesStayOnPrimary() throws SQLException {
+        ReplicaRoutingDataSource dataSource = routing(List.of(h2(FIRST_REPLICA)));
+
+        assertThat(urlOf(dataSource)).isEqualTo(PRIMARY);
+    }
+
+    @Test
+    void readOnlyTransactionsAreSpreadRoundRobinOverReplicas() throws SQLException {
+        ReplicaRoutingDataSource dataSource = routing(List.of(h2(FIRST_REPLICA), h2(SECOND_REPLICA)));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            urls.add(urlOf(dataSource));
+        }
+
+        assertThat(urls).containsExactly(FIRST_REPLICA, SECOND_REPLICA, FIRST_REPLICA, SECOND_REPLICA);
+    }
+
+    @Test
+    void unreachableReplicaIsSkippedUntilRetry() throws SQLException {
+        ReplicaRoutingDataSource dataSource = routing(List.of(h2(MISSING_REPLICA), h2(SECOND_REPLICA)));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(urlOf(dataSource)).isEqualTo(SECOND_REPLICA);
+        assertThat(urlOf(dataSource)).isEqualTo(SECOND_REPLICA);
+        assertThat(dataSource.getHealthyReplicaCount()).isEqualTo(1);
+    }
+
+    @Test
+    void readsFallBackToPrimaryWhenNoReplicaIsHealthy() throws SQLException {
+        ReplicaRoutingDataSource dataSource = routing(List.of(h2(MISSING_REPLICA)));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(urlOf(dataSource)).isEqualTo(PRIMARY);
+        assertThat(dataSource.getHealthyReplicaCount()).isZero();
+    }
+
+    @Test
+    void readYourWritesPinsReadsToPrimary() throws SQLException {
+        ReplicaRoutingDataSource dataSource = routing(List.of(h2(FIRST_REPLICA)));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReadYourWrites.pinToPrimary();
+
+        assertThat(urlOf(dataSource)).isEqualTo(PRIMARY);
+    }
+
+    private static ReplicaRoutingDataSource routing(List<DriverManagerDataSource> replicas) {
+        return new ReplicaRoutingDataSource(h2(PRIMARY), replicas, 60_000);
+    }
+
+    private static DriverManagerDataSource h2(String url) {
+        return new DriverManagerDataSource(url, "sa", "");
+    }
+
+    private static String urlOf(ReplicaRoutingDataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+}
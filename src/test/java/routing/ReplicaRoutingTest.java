@@ -0,0 +1,105 @@
+package routing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.anhimov.library.config.SchemaMigrations;
+import ru.anhimov.library.config.SpringDataSourceTestConfig;
+import ru.anhimov.library.models.Book;
+import ru.anhimov.library.repositories.BookRepository;
+import ru.anhimov.library.routing.ReadYourWrites;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {SpringDataSourceTestConfig.class})
+@TestPropertySource(value = "classpath:hibernate-test.properties", properties = {
+        "datasource.url=" + ReplicaRoutingTest.PRIMARY_URL,
+        "datasource.replica_urls=" + ReplicaRoutingTest.REPLICA_URL,
+        "hibernate.cache.use_second_level_cache=false",
+        "hibernate.cache.use_query_cache=false"
+})
+@ActiveProfiles("test")
+class ReplicaRoutingTest {
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource replicaDataSource = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        SchemaMigrations.create(replicaDataSource).migrate();
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.update("INSERT INTO book(title, author, year) VALUES ('Replica Copy', 'Routing Author', 2001)");
+
+        Book book = new Book();
+        book.setTitle("Primary Copy");
+        book.setAuthor("Routing Author");
+        book.setYear(2002);
+        bookRepository.save(book);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+        replica.update("DELETE FROM book");
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    void readOnlyTransactionsReadFromReplica() {
+        assertThat(titles(true)).containsExactly("Replica Copy");
+    }
+
+    @Test
+    void readWriteTransactionsStayOnPrimary() {
+        assertThat(titles(false)).containsExactly("Primary Copy");
+    }
+
+    @Test
+    void readYourWritesWindowReadsFromPrimary() {
+        ReadYourWrites.pinToPrimary();
+
+        assertThat(titles(true)).containsExactly("Primary Copy");
+    }
+
+    @Test
+    void committedWritePinsLaterReadsToPrimary() {
+        ReadYourWrites.onCommittedWrite(() -> { });
+        titles(true);
+        assertThat(ReadYourWrites.isPinnedToPrimary()).isFalse();
+
+        titles(false);
+
+        assertThat(ReadYourWrites.isPinnedToPrimary()).isTrue();
+        assertThat(titles(true)).containsExactly("Primary Copy");
+    }
+
+    private List<String> titles(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> bookRepository.findAll().stream()
+                .map(Book::getTitle)
+                .collect(Collectors.toList()));
+    }
+}
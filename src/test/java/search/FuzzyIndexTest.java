@@ -0,0 +1,106 @@
+package search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.anhimov.library.search.BkTree;
+import ru.anhimov.library.search.FuzzyIndex;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FuzzyIndexTest {
+    private FuzzyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FuzzyIndex();
+        index.put(1, "Crime and Punishment\nFyodor Dostoevsky");
+        index.put(2, "The Brothers Karamazov\nFyodor Dostoevsky");
+        index.put(3, "War and Peace\nLeo Tolstoy");
+    }
+
+    @Test
+    void levenshteinDistance() {
+        assertThat(BkTree.distance("kitten", "sitting")).isEqualTo(3);
+        assertThat(BkTree.distance("", "abc")).isEqualTo(3);
+        assertThat(BkTree.distance("tolstoy", "tolstoy")).isZero();
+    }
+
+    @Test
+    void bkTreeFindsWordsWithinDistance() {
+        BkTree tree = new BkTree();
+        tree.add("book");
+        tree.add("books");
+        tree.add("cake");
+        tree.add("boo");
+        tree.add("cape");
+
+        assertThat(tree.search("book", 1)).containsOnlyKeys("book", "books", "boo");
+        assertThat(tree.search("cale", 1)).containsOnlyKeys("cake", "cape");
+        assertThat(tree.size()).isEqualTo(5);
+    }
+
+    @Test
+    void bkTreeSkipsRemovedWordsAndCompacts() {
+        BkTree tree = new BkTree();
+        tree.add("book");
+        tree.add("books");
+        tree.add("boo");
+
+        assertThat(tree.remove("books")).isTrue();
+        assertThat(tree.remove("books")).isFalse();
+        assertThat(tree.search("book", 1)).containsOnlyKeys("book", "boo");
+        assertThat(tree.remove("book")).isTrue();
+        assertThat(tree.search("boo", 1)).containsOnlyKeys("boo");
+        assertThat(tree.size()).isEqualTo(1);
+
+        tree.add("book");
+        assertThat(tree.search("boo", 1)).containsOnlyKeys("boo", "book");
+        assertThat(tree.size()).isEqualTo(2);
+    }
+
+    @Test
+    void searchToleratesTypos() {
+        assertThat(index.search("dostoyevsky", 2)).containsExactly(1, 2);
+        assertThat(index.search("tolstoi", 1)).containsExactly(3);
+        assertThat(index.search("karamazof brothers", 2)).containsExactly(2);
+    }
+
+    @Test
+    void searchRanksCloserMatchesFirst() {
+        index.put(4, "Punishment Park\nPeter Watkins");
+
+        assertThat(index.search("crime punishmant", 2)).containsExactly(1);
+        assertThat(index.search("punishment", 2)).containsExactly(1, 4);
+        assertThat(index.search("punishmnt", 2)).containsExactly(1, 4);
+    }
+
+    @Test
+    void allowedDistanceScalesWithWordLength() {
+        assertThat(FuzzyIndex.allowedDistance("an", 2)).isZero();
+        assertThat(FuzzyIndex.allowedDistance("wat", 2)).isEqualTo(1);
+        assertThat(FuzzyIndex.allowedDistance("tolstoi", 1)).isEqualTo(1);
+        assertThat(index.search("an", 2)).isEmpty();
+        assertThat(index.search("wat", 2)).containsExactly(3);
+        assertThat(index.search("and", 0)).containsExactly(1, 3);
+    }
+
+    @Test
+    void removedDocumentsAreNotReturned() {
+        index.remove(1);
+
+        assertThat(index.search("dostoevsky", 0)).containsExactly(2);
+    }
+
+    @Test
+    void editedTitleDropsWordsNoLongerUsed() {
+        int words = index.wordCount();
+
+        index.put(3, "Anna Karenina\nLeo Tolstoy");
+
+        assertThat(index.search("war", 0)).isEmpty();
+        assertThat(index.search("peace", 1)).isEmpty();
+        assertThat(index.search("karenina", 0)).containsExactly(3);
+        assertThat(index.search("and", 0)).containsExactly(1);
+        assertThat(index.wordCount()).isEqualTo(words);
+    }
+}
@@ -0,0 +1,50 @@
+package search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.anhimov.library.search.PrefixIndex;
+import ru.anhimov.library.search.Suggestion;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixIndexTest {
+    private PrefixIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PrefixIndex();
+        index.put(1, "Leo Tolstoy");
+        index.put(2, "Leo Tolstoy");
+        index.put(3, "Lewis Carroll");
+        index.put(4, "Homer");
+    }
+
+    @Test
+    void suggestReturnsEntriesStartingWithPrefixInOrder() {
+        assertThat(index.suggest("le", 10, false)).extracting(Suggestion::getId).containsExactly(1, 2, 3);
+        assertThat(index.suggest("LEW", 10, false)).containsExactly(new Suggestion(3, "Lewis Carroll"));
+        assertThat(index.suggest("x", 10, false)).isEmpty();
+    }
+
+    @Test
+    void suggestRespectsLimit() {
+        assertThat(index.suggest("le", 2, false)).extracting(Suggestion::getId).containsExactly(1, 2);
+    }
+
+    @Test
+    void distinctSuggestionsCollapseEqualTexts() {
+        assertThat(index.suggest("le", 10, true)).extracting(Suggestion::getText)
+                .containsExactly("Leo Tolstoy", "Lewis Carroll");
+    }
+
+    @Test
+    void putReplacesAndRemoveDropsEntries() {
+        index.put(4, "Hesiod");
+        index.remove(3);
+
+        assertThat(index.suggest("ho", 10, false)).isEmpty();
+        assertThat(index.suggest("he", 10, false)).containsExactly(new Suggestion(4, "Hesiod"));
+        assertThat(index.suggest("lew", 10, false)).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,64 @@
+package search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.anhimov.library.search.TrigramIndex;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TrigramIndexTest {
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.put(1, "War and Peace\nLeo Tolstoy");
+        index.put(2, "Anna Karenina\nLeo Tolstoy");
+        index.put(3, "The Brothers Karamazov\nFyodor Dostoevsky");
+    }
+
+    @Test
+    void searchMatchesSubstringIgnoringCase() {
+        assertThat(index.search("KAREN")).containsExactly(2);
+        assertThat(index.search("tolstoy")).containsExactly(1, 2);
+        assertThat(index.search("  peace ")).containsExactly(1);
+    }
+
+    @Test
+    void searchVerifiesCandidatesAgainstDocument() {
+        index.put(4, "abcxbcd");
+
+        assertThat(index.search("abcd")).isEmpty();
+        assertThat(index.search("xbcd")).containsExactly(4);
+    }
+
+    @Test
+    void searchDoesNotMatchAcrossFields() {
+        assertThat(index.search("peaceleo")).isEmpty();
+    }
+
+    @Test
+    void putReplacesPreviousDocument() {
+        index.put(1, "Resurrection\nLeo Tolstoy");
+
+        assertThat(index.search("peace")).isEmpty();
+        assertThat(index.search("resurrection")).containsExactly(1);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void removeDropsDocumentFromPostings() {
+        index.remove(2);
+
+        assertThat(index.search("tolstoy")).containsExactly(1);
+        assertThat(index.search("karenina")).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shortQueriesAreRejected() {
+        assertThat(TrigramIndex.isSearchable("ab")).isFalse();
+        assertThatThrownBy(() -> index.search("ab")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
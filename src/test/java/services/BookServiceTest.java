@@ -2,19 +2,36 @@ package services;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import ru.anhimov.library.cache.QueryResultCache;
+import ru.anhimov.library.config.ApplicationConstants;
+import ru.anhimov.library.dao.LoanEventDAO;
+import ru.anhimov.library.dto.BookListItem;
+import ru.anhimov.library.dto.BookOwnership;
+import ru.anhimov.library.dto.BulkUpdateReport;
 import ru.anhimov.library.models.Book;
+import ru.anhimov.library.models.LoanEventType;
 import ru.anhimov.library.models.Person;
 import ru.anhimov.library.repositories.BookRepository;
+import ru.anhimov.library.search.BookSearchIndex;
+import ru.anhimov.library.search.SuggestionIndex;
 import ru.anhimov.library.services.BookService;
+import ru.anhimov.library.util.BookCursor;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -29,10 +46,23 @@ class BookServiceTest {
     public static final String OLD_TITLE = "Old Title";
     public static final String NEW_TITLE = "New Title";
     public static final String QUERY = "query";
+    public static final LocalDateTime BORROWED_AT = LocalDateTime.of(2024, 3, 1, 10, 0);
 
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private BookSearchIndex searchIndex;
+
+    @Mock
+    private SuggestionIndex suggestionIndex;
+
+    @Mock
+    private LoanEventDAO loanEventDAO;
+
+    @Spy
+    private QueryResultCache queryCache = new QueryResultCache(100);
+
     @InjectMocks
     private BookService bookService;
 
@@ -43,39 +73,134 @@ class BookServiceTest {
 
     @Test
     void findAllBooksWithPaginationAndSorting() {
-        Page<Book> mockPage = new PageImpl<>(Arrays.asList(new Book(), new Book()));
-        when(bookRepository.findAll(PageRequest.of(0, 10, Sort.by(YEAR))))
+        Page<BookListItem> mockPage = new PageImpl<>(Arrays.asList(new BookListItem(1, TITLE, AUTHOR, 1900, null), new BookListItem(2, TITLE, AUTHOR, 1900, null)));
+        when(bookRepository.findListItems(PageRequest.of(0, 10, Sort.by(YEAR))))
                 .thenReturn(mockPage);
 
-        Page<Book> result = bookService.findAllBooks(0, 10, true);
+        Page<BookListItem> result = bookService.findAllBooks(0, 10, true);
 
         assertEquals(2, result.getContent().size());
         verify(bookRepository, times(1))
-                .findAll(PageRequest.of(0, 10, Sort.by(YEAR)));
+                .findListItems(PageRequest.of(0, 10, Sort.by(YEAR)));
     }
 
     @Test
-    void findAllBooksWithSorting() {
-        List<Book> books = Arrays.asList(new Book(), new Book());
-        when(bookRepository.findAll(Sort.by(YEAR))).thenReturn(books);
+    void findAllBooksServesRepeatedPageFromCache() {
+        Page<BookListItem> mockPage = new PageImpl<>(Arrays.asList(new BookListItem(1, TITLE, AUTHOR, 1900, null), new BookListItem(2, TITLE, AUTHOR, 1900, null)));
+        when(bookRepository.findListItems(PageRequest.of(0, 10, Sort.by(YEAR))))
+                .thenReturn(mockPage);
 
-        List<Book> result = bookService.findAllBooks(true);
+        bookService.findAllBooks(0, 10, true);
+        Page<BookListItem> result = bookService.findAllBooks(0, 10, true);
 
-        assertEquals(2, result.size());
+        assertSame(mockPage, result);
         verify(bookRepository, times(1))
-                .findAll(Sort.by(YEAR));
+                .findListItems(PageRequest.of(0, 10, Sort.by(YEAR)));
+        assertEquals(1, queryCache.getStats().getHits());
+    }
+
+    @Test
+    void saveInvalidatesCachedListing() {
+        Page<BookListItem> mockPage = new PageImpl<>(Arrays.asList(new BookListItem(1, TITLE, AUTHOR, 1900, null), new BookListItem(2, TITLE, AUTHOR, 1900, null)));
+        when(bookRepository.findListItems(PageRequest.of(0, 10, Sort.by(YEAR)))).thenReturn(mockPage);
+
+        bookService.findAllBooks(0, 10, true);
+        bookService.save(new Book());
+        bookService.findAllBooks(0, 10, true);
+
+        verify(bookRepository, times(2)).findListItems(PageRequest.of(0, 10, Sort.by(YEAR)));
+        verify(queryCache, times(1)).invalidateAll();
     }
 
     @Test
-    void findAllBooksWithUnsortedSorting() {
-        List<Book> books = Arrays.asList(new Book(), new Book());
-        when(bookRepository.findAll(Sort.unsorted())).thenReturn(books);
+    void searchBooksNormalizesCacheKey() {
+        List<BookListItem> books = Arrays.asList(new BookListItem(1, TITLE, AUTHOR, 1900, null), new BookListItem(2, TITLE, AUTHOR, 1900, null));
+        when(searchIndex.search(anyString())).thenReturn(Optional.empty());
+        when(bookRepository.findListItemsByTitleOrAuthorLike("%" + QUERY + "%"))
+                .thenReturn(books);
 
-        List<Book> result = bookService.findAllBooks(false);
+        bookService.searchBooks(QUERY);
+        List<BookListItem> result = bookService.searchBooks("  QUERY ");
 
         assertEquals(2, result.size());
         verify(bookRepository, times(1))
-                .findAll(Sort.unsorted());
+                .findListItemsByTitleOrAuthorLike("%" + QUERY + "%");
+    }
+
+    @Test
+    void findBooksAfterWithoutCursorStartsFromFirstBook() {
+        List<BookListItem> books = Arrays.asList(new BookListItem(1, TITLE, AUTHOR, 1900, null), new BookListItem(2, TITLE, AUTHOR, 1901, null));
+        when(bookRepository.findSliceAfterId(Integer.MIN_VALUE, PageRequest.of(0, 2)))
+                .thenReturn(new SliceImpl<>(books, PageRequest.of(0, 2), true));
+
+        Slice<BookListItem> result = bookService.findBooksAfter(null, 2, false);
+
+        assertEquals(books, result.getContent());
+        assertFalse(result.hasPrevious());
+        assertTrue(result.hasNext());
+    }
+
+    @Test
+    void findBooksAfterCursorSortedByYear() {
+        List<BookListItem> books = List.of(new BookListItem(7, TITLE, AUTHOR, 1950, null));
+        when(bookRepository.findSliceAfterYearAndId(1900, 3, PageRequest.of(0, 5)))
+                .thenReturn(new SliceImpl<>(books, PageRequest.of(0, 5), false));
+
+        Slice<BookListItem> result = bookService.findBooksAfter(new BookCursor(1900, 3), 5, true);
+
+        assertEquals(books, result.getContent());
+        assertTrue(result.hasPrevious());
+        assertFalse(result.hasNext());
+        verify(bookRepository, never()).count();
+    }
+
+    @Test
+    void findBooksBeforeCursorReturnsBooksInAscendingOrder() {
+        BookListItem first = new BookListItem(4, TITLE, AUTHOR, 1900, null);
+        BookListItem second = new BookListItem(5, TITLE, AUTHOR, 1900, null);
+        when(bookRepository.findSliceBeforeId(6, PageRequest.of(0, 2)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(second, first), PageRequest.of(0, 2), true));
+
+        Slice<BookListItem> result = bookService.findBooksBefore(new BookCursor(1900, 6), 2, false);
+
+        assertEquals(Arrays.asList(first, second), result.getContent());
+        assertTrue(result.hasPrevious());
+        assertTrue(result.hasNext());
+    }
+
+    @Test
+    void streamAllBooksFetchesChunksLazily() {
+        int chunkSize = ApplicationConstants.STREAM_CHUNK_SIZE;
+        List<BookListItem> firstChunk = new ArrayList<>();
+        for (int id = 1; id <= chunkSize; id++) {
+            firstChunk.add(new BookListItem(id, TITLE, AUTHOR, 1900, null));
+        }
+        List<BookListItem> secondChunk = List.of(new BookListItem(chunkSize + 1, TITLE, AUTHOR, 1900, null));
+        when(bookRepository.findSliceAfterId(Integer.MIN_VALUE, PageRequest.of(0, chunkSize)))
+                .thenReturn(new SliceImpl<>(firstChunk, PageRequest.of(0, chunkSize), true));
+        when(bookRepository.findSliceAfterId(chunkSize, PageRequest.of(0, chunkSize)))
+                .thenReturn(new SliceImpl<>(secondChunk, PageRequest.of(0, chunkSize), false));
+
+        Iterable<BookListItem> books = bookService.streamAllBooks(false);
+        verifyNoInteractions(bookRepository);
+
+        int count = 0;
+        for (BookListItem ignored : books) {
+            count++;
+        }
+
+        assertEquals(chunkSize + 1, count);
+        verify(bookRepository, times(2)).findSliceAfterId(anyInt(), any());
+        verify(bookRepository, never()).findListItems(any(Pageable.class));
+    }
+
+    @Test
+    void bookCursorRoundTrip() {
+        BookCursor cursor = new BookCursor(-800, 42);
+
+        assertEquals(Optional.of(cursor), BookCursor.decode(cursor.encode()));
+        assertFalse(BookCursor.decode("not a cursor").isPresent());
+        assertFalse(BookCursor.decode("").isPresent());
     }
 
     @Test
@@ -104,27 +229,14 @@ class BookServiceTest {
     }
 
     @Test
-    void findBookOwnerWithOwnerPresent() {
-        int bookIdWithOwner = 1;
-        Person person = new Person();
-        when(bookRepository.findBookOwner(bookIdWithOwner)).thenReturn(Optional.of(person));
-
-        Optional<Person> result = bookService.findBookOwner(bookIdWithOwner);
-
-        assertTrue(result.isPresent());
-        assertEquals(person, result.get());
-        verify(bookRepository, times(1)).findBookOwner(bookIdWithOwner);
-    }
-
-    @Test
-    void findBookOwnerWithOwnerNotPresent() {
-        int bookIdWithoutOwner = 2;
-        when(bookRepository.findBookOwner(bookIdWithoutOwner)).thenReturn(Optional.empty());
+    void findWithOwnerById() {
+        Book book = new Book();
+        book.setOwner(new Person());
+        when(bookRepository.findWithOwnerById(1)).thenReturn(Optional.of(book));
 
-        Optional<Person> result = bookService.findBookOwner(bookIdWithoutOwner);
+        Book result = bookService.findWithOwnerById(1);
 
-        assertFalse(result.isPresent());
-        verify(bookRepository, times(1)).findBookOwner(bookIdWithoutOwner);
+        assertSame(book, result);
     }
 
     @Test
@@ -134,21 +246,32 @@ class BookServiceTest {
         bookService.save(book);
 
         verify(bookRepository, times(1)).save(book);
+        verify(searchIndex, times(1)).index(BookListItem.of(book));
+        verify(suggestionIndex, times(1)).indexBook(BookListItem.of(book));
+    }
+
+    @Test
+    void deleteRemovesBookFromSearchIndex() {
+        bookService.delete(1);
+
+        verify(bookRepository, times(1)).deleteById(1);
+        verify(searchIndex, times(1)).remove(1);
+        verify(suggestionIndex, times(1)).removeBook(1);
     }
 
     @Test
     void updateExistingId() {
-        Book existingBook = new Book();
-        existingBook.setTitle(OLD_TITLE);
-        Book updatedBook = new Book();
-        updatedBook.setTitle(NEW_TITLE);
+        Book updatedBook = new Book(0, NEW_TITLE, AUTHOR, 1900);
+        BookListItem updatedItem = new BookListItem(1, NEW_TITLE, AUTHOR, 1900, null);
 
-        when(bookRepository.findById(1)).thenReturn(Optional.of(existingBook));
+        when(bookRepository.updateDetails(1, NEW_TITLE, AUTHOR, 1900)).thenReturn(1);
+        when(bookRepository.findListItemsByIdIn(List.of(1))).thenReturn(List.of(updatedItem));
 
         bookService.update(1, updatedBook);
 
-        assertEquals(NEW_TITLE, existingBook.getTitle());
-        verify(bookRepository, times(1)).save(existingBook);
+        verify(bookRepository, never()).findById(anyInt());
+        verify(bookRepository, never()).save(any());
+        verify(searchIndex, times(1)).index(updatedItem);
     }
 
     @Test
@@ -156,64 +279,159 @@ class BookServiceTest {
         Book updatedBook = new Book();
         updatedBook.setTitle(NEW_TITLE);
 
-        when(bookRepository.findById(1)).thenReturn(Optional.empty());
+        when(bookRepository.updateDetails(eq(1), eq(NEW_TITLE), any(), anyInt())).thenReturn(0);
 
         bookService.update(1, updatedBook);
 
-        verify(bookRepository, times(1)).findById(1);
-        verify(bookRepository, times(0)).save(updatedBook);
+        verify(bookRepository, times(1)).updateDetails(eq(1), eq(NEW_TITLE), any(), anyInt());
         verifyNoMoreInteractions(bookRepository);
+        verifyNoInteractions(searchIndex);
     }
 
     @Test
-    void assignExistingBook() {
-        Book book = new Book();
+    void assignAvailableBook() {
         Person person = new Person();
+        when(bookRepository.assignIfAvailable(eq(1), eq(person), any(LocalDateTime.class))).thenReturn(1);
 
-        when(bookRepository.findById(1)).thenReturn(Optional.of(book));
+        assertTrue(bookService.assign(1, person));
 
-        bookService.assign(1, person);
-
-        assertEquals(person, book.getOwner());
-        assertNotNull(book.getBorrowTimestamp());
-        verify(bookRepository, times(1)).save(book);
+        verify(loanEventDAO, times(1)).recordEvents(eq(List.of(1)), eq(LoanEventType.ASSIGN), any(LocalDateTime.class));
+        verify(bookRepository, never()).findById(anyInt());
+        verify(bookRepository, never()).save(any());
     }
 
     @Test
-    void assignNonExistingBook() {
-        when(bookRepository.findById(1)).thenReturn(Optional.empty());
+    void assignBorrowedOrMissingBookReportsConflict() {
+        when(bookRepository.assignIfAvailable(eq(1), any(), any(LocalDateTime.class))).thenReturn(0);
 
-        bookService.assign(1, null);
+        assertFalse(bookService.assign(1, new Person()));
 
-        verify(bookRepository, times(1)).findById(1);
+        verify(bookRepository, times(1)).assignIfAvailable(eq(1), any(), any(LocalDateTime.class));
         verifyNoMoreInteractions(bookRepository);
-        verify(bookRepository, times(0)).save(any());
+        verifyNoInteractions(loanEventDAO);
     }
 
     @Test
-    void releaseExistingBook() {
-        Book book = new Book();
-        book.setOwner(new Person());
-        book.setBorrowTimestamp(LocalDateTime.now());
+    void assignAllUpdatesOnlyAvailableBooksInOneStatement() {
+        Person person = new Person();
+        when(bookRepository.assignAvailable(eq(List.of(1, 2, 3)), eq(person), any(LocalDateTime.class))).thenReturn(2);
+        when(bookRepository.findIdsBorrowedAt(eq(List.of(1, 2, 3)), eq(person), any(LocalDateTime.class)))
+                .thenReturn(List.of(1, 3));
+
+        BulkUpdateReport report = bookService.assignAll(List.of(1, 2, 3, 1), person);
+
+        assertEquals(List.of(1, 2, 3), report.getRequested());
+        assertEquals(List.of(1, 3), report.getChanged());
+        assertEquals(List.of(2), report.getUnchanged());
+        verify(bookRepository, times(1)).assignAvailable(eq(List.of(1, 2, 3)), eq(person), any(LocalDateTime.class));
+        verify(loanEventDAO, times(1))
+                .recordEvents(eq(List.of(1, 3)), eq(LoanEventType.ASSIGN), any(LocalDateTime.class));
+        verify(bookRepository, never()).findById(anyInt());
+    }
 
-        when(bookRepository.findById(1)).thenReturn(Optional.of(book));
+    @Test
+    void assignAllSkipsReadBackWhenNothingWasAvailable() {
+        when(bookRepository.assignAvailable(anyList(), any(Person.class), any(LocalDateTime.class))).thenReturn(0);
 
-        bookService.release(1);
+        BulkUpdateReport report = bookService.assignAll(List.of(4), new Person());
 
-        assertNull(book.getOwner());
-        assertNull(book.getBorrowTimestamp());
-        verify(bookRepository, times(1)).save(book);
+        assertEquals(List.of(4), report.getUnchanged());
+        verify(bookRepository, never()).findIdsBorrowedAt(anyList(), any(), any());
+        verifyNoInteractions(loanEventDAO);
+    }
+
+    @Test
+    void assignAllSplitsLargeRequestsIntoBatches() {
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 1; id <= ApplicationConstants.BULK_UPDATE_BATCH_SIZE + 1; id++) {
+            ids.add(id);
+        }
+        when(bookRepository.assignAvailable(anyList(), any(Person.class), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> invocation.<List<Integer>>getArgument(0).size());
+        when(bookRepository.findIdsBorrowedAt(anyList(), any(Person.class), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        BulkUpdateReport report = bookService.assignAll(ids, new Person());
+
+        assertEquals(ids, report.getChanged());
+        verify(bookRepository, times(2)).assignAvailable(anyList(), any(Person.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void releaseAllSkipsUpdateWhenNothingIsBorrowed() {
+        when(bookRepository.findBorrowedIdsIn(List.of(5))).thenReturn(List.of());
+
+        BulkUpdateReport report = bookService.releaseAll(List.of(5));
+
+        assertTrue(report.getChanged().isEmpty());
+        assertEquals(List.of(5), report.getUnchanged());
+        verify(bookRepository, never()).releaseBorrowed(anyList());
+        verifyNoInteractions(loanEventDAO);
+    }
+
+    @Test
+    void releaseAllReturnsBorrowedBooksInOneStatement() {
+        when(bookRepository.findBorrowedIdsIn(List.of(5, 6))).thenReturn(List.of(6));
+        when(bookRepository.releaseBorrowed(List.of(6))).thenReturn(1);
+
+        BulkUpdateReport report = bookService.releaseAll(List.of(5, 6));
+
+        assertEquals(List.of(6), report.getChanged());
+        verify(loanEventDAO, times(1)).recordEvents(eq(List.of(6)), eq(LoanEventType.RELEASE), any(LocalDateTime.class));
+    }
+
+    @Test
+    void releaseAllFailsWhenABookIsReturnedConcurrently() {
+        when(bookRepository.findBorrowedIdsIn(List.of(5, 6))).thenReturn(List.of(5, 6));
+        when(bookRepository.releaseBorrowed(List.of(5, 6))).thenReturn(1);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> bookService.releaseAll(List.of(5, 6)));
+    }
+
+    @Test
+    void releaseBorrowedBook() {
+        when(bookRepository.findOwnership(1)).thenReturn(Optional.of(new BookOwnership(1, 7, BORROWED_AT)));
+        when(bookRepository.releaseIfOwnedBy(1, 7, BORROWED_AT)).thenReturn(1);
+
+        assertTrue(bookService.release(1));
+
+        InOrder inOrder = inOrder(loanEventDAO, bookRepository);
+        inOrder.verify(bookRepository).releaseIfOwnedBy(1, 7, BORROWED_AT);
+        inOrder.verify(loanEventDAO).recordEvent(eq(1), eq(7), eq(LoanEventType.RELEASE), any(LocalDateTime.class));
+        verify(bookRepository, never()).findBorrowedIdsIn(anyList());
+        verify(bookRepository, never()).save(any());
+    }
+
+    @Test
+    void releaseLoanWithoutBorrowTimestamp() {
+        when(bookRepository.findOwnership(1)).thenReturn(Optional.of(new BookOwnership(1, 7, null)));
+        when(bookRepository.releaseUntimedIfOwnedBy(1, 7)).thenReturn(1);
+
+        assertTrue(bookService.release(1));
+
+        verify(bookRepository, never()).releaseIfOwnedBy(anyInt(), anyInt(), any());
+        verify(loanEventDAO).recordEvent(eq(1), eq(7), eq(LoanEventType.RELEASE), any(LocalDateTime.class));
     }
 
     @Test
-    void releaseNonExistingBook() {
-        when(bookRepository.findById(1)).thenReturn(Optional.empty());
+    void releaseAvailableOrMissingBookReportsConflict() {
+        when(bookRepository.findOwnership(1)).thenReturn(Optional.empty());
 
-        bookService.release(1);
+        assertFalse(bookService.release(1));
 
-        verify(bookRepository, times(1)).findById(1);
+        verify(bookRepository, times(1)).findOwnership(1);
         verifyNoMoreInteractions(bookRepository);
-        verify(bookRepository, times(0)).save(any());
+        verifyNoInteractions(loanEventDAO);
+    }
+
+    @Test
+    void releaseRacedByAnotherCheckoutRecordsNothing() {
+        when(bookRepository.findOwnership(1)).thenReturn(Optional.of(new BookOwnership(1, 7, BORROWED_AT)));
+        when(bookRepository.releaseIfOwnedBy(1, 7, BORROWED_AT)).thenReturn(0);
+
+        assertFalse(bookService.release(1));
+
+        verifyNoInteractions(loanEventDAO);
     }
 
     @Test
@@ -231,16 +449,48 @@ class BookServiceTest {
     }
 
     @Test
-    void findBookByTitleLikeIgnoreCase() {
-        List<Book> books = Arrays.asList(new Book(), new Book());
-        when(bookRepository.findBookByTitleLikeIgnoreCase("%" + QUERY + "%"))
-                .thenReturn(books);
+    void searchBooksHydratesIndexHitsInIndexOrder() {
+        BookListItem first = new BookListItem(2, TITLE, AUTHOR, 1900, null);
+        BookListItem second = new BookListItem(5, TITLE, AUTHOR, 1900, null);
+        when(searchIndex.search(QUERY)).thenReturn(Optional.of(List.of(2, 5)));
+        when(bookRepository.findListItemsByIdIn(List.of(2, 5))).thenReturn(Arrays.asList(second, first));
 
-        List<Book> result = bookService.findBookByTitleLikeIgnoreCase(QUERY);
+        List<BookListItem> result = bookService.searchBooks(QUERY);
 
-        assertEquals(2, result.size());
-        verify(bookRepository, times(1))
-                .findBookByTitleLikeIgnoreCase("%" + QUERY + "%");
+        assertEquals(Arrays.asList(first, second), result);
+        verify(bookRepository, never()).findListItemsByTitleOrAuthorLike(anyString());
     }
-}
 
+    @Test
+    void searchBooksWithoutHitsSkipsDatabase() {
+        when(searchIndex.search(QUERY)).thenReturn(Optional.of(List.of()));
+
+        List<BookListItem> result = bookService.searchBooks(QUERY);
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void searchBooksFallsBackToSqlWhenIndexCannotAnswer() {
+        List<BookListItem> books = List.of(new BookListItem(1, TITLE, AUTHOR, 1900, null));
+        when(searchIndex.search("AB")).thenReturn(Optional.empty());
+        when(bookRepository.findListItemsByTitleOrAuthorLike("%ab%")).thenReturn(books);
+
+        List<BookListItem> result = bookService.searchBooks("AB");
+
+        assertEquals(books, result);
+    }
+
+    @Test
+    void fuzzySearchBooksKeepsRanking() {
+        BookListItem best = new BookListItem(9, TITLE, AUTHOR, 1900, null);
+        BookListItem other = new BookListItem(3, TITLE, AUTHOR, 1900, null);
+        when(searchIndex.fuzzySearch(QUERY, 2)).thenReturn(Optional.of(List.of(9, 3)));
+        when(bookRepository.findListItemsByIdIn(List.of(9, 3))).thenReturn(Arrays.asList(other, best));
+
+        List<BookListItem> result = bookService.fuzzySearchBooks(QUERY, 2);
+
+        assertEquals(Arrays.asList(best, other), result);
+    }
+}
@@ -0,0 +1,195 @@
+package services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import ru.anhimov.library.config.LibraryConfig;
+import ru.anhimov.library.config.SpringDataSourceTestConfig;
+import ru.anhimov.library.dao.BookDAO;
+import ru.anhimov.library.dao.LoanEventDAO;
+import ru.anhimov.library.dao.PersonDAO;
+import ru.anhimov.library.models.Book;
+import ru.anhimov.library.models.LoanEvent;
+import ru.anhimov.library.models.LoanEventType;
+import ru.anhimov.library.models.Person;
+import ru.anhimov.library.repositories.BookRepository;
+import ru.anhimov.library.repositories.LoanEventRepository;
+import ru.anhimov.library.repositories.PersonRepository;
+import ru.anhimov.library.search.BookSearchIndex;
+import ru.anhimov.library.search.SuggestionIndex;
+import ru.anhimov.library.services.BookService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {SpringDataSourceTestConfig.class, LibraryConfig.class, BookDAO.class, PersonDAO.class,
+        LoanEventDAO.class, BookService.class, BookSearchIndex.class, SuggestionIndex.class})
+@TestPropertySource("classpath:hibernate-test.properties")
+@ActiveProfiles("test")
+class ConcurrentCheckoutTest {
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 50;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private LoanEventRepository loanEventRepository;
+
+    private final List<Person> people = new ArrayList<>();
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < THREADS; i++) {
+            Person person = new Person();
+            person.setName("Checkout Reader " + i);
+            person.setAge(30);
+            people.add(personRepository.save(person));
+        }
+        book = new Book();
+        book.setTitle("Contended Copy");
+        book.setAuthor("Checkout Author");
+        book.setYear(2000);
+        book = bookRepository.save(book);
+    }
+
+    @AfterEach
+    void tearDown() {
+        loanEventRepository.deleteAll(history());
+        bookRepository.deleteById(book.getId());
+        people.forEach(person -> personRepository.deleteById(person.getId()));
+    }
+
+    @Test
+    void onlyOneOfManySimultaneousCheckoutsWins() throws Exception {
+        List<Boolean> results = runConcurrently(reader -> () -> bookService.assign(book.getId(), reader));
+
+        assertThat(results).filteredOn(Boolean::booleanValue).hasSize(1);
+        Person winner = people.get(results.indexOf(true));
+        Book stored = bookRepository.findWithOwnerById(book.getId()).orElseThrow();
+        assertThat(stored.getOwner().getId()).isEqualTo(winner.getId());
+        assertThat(stored.getVersion()).isEqualTo(1);
+        assertThat(history()).extracting(LoanEvent::getPersonId).containsExactly(winner.getId());
+    }
+
+    @Test
+    void repeatedCheckoutAndReturnLosesNoUpdates() throws Exception {
+        AtomicInteger assigned = new AtomicInteger();
+        AtomicInteger released = new AtomicInteger();
+
+        runConcurrently(reader -> () -> {
+            for (int round = 0; round < ROUNDS; round++) {
+                if (bookService.assign(book.getId(), reader)) {
+                    assigned.incrementAndGet();
+                    if (bookService.release(book.getId())) {
+                        released.incrementAndGet();
+                    }
+                }
+            }
+            return true;
+        });
+
+        Book stored = bookRepository.findWithOwnerById(book.getId()).orElseThrow();
+        assertThat(assigned.get()).isPositive();
+        assertThat(released.get()).isEqualTo(assigned.get());
+        assertThat(stored.getOwner()).isNull();
+        assertThat(stored.getVersion()).isEqualTo(assigned.get() + released.get());
+
+        List<LoanEvent> history = new ArrayList<>(history());
+        history.sort(Comparator.comparingLong(LoanEvent::getId));
+        assertThat(history).filteredOn(event -> event.getType() == LoanEventType.ASSIGN).hasSize(assigned.get());
+        assertThat(history).filteredOn(event -> event.getType() == LoanEventType.RELEASE).hasSize(released.get());
+        for (int i = 0; i + 1 < history.size(); i += 2) {
+            assertThat(history.get(i).getType()).isEqualTo(LoanEventType.ASSIGN);
+            assertThat(history.get(i + 1).getType()).isEqualTo(LoanEventType.RELEASE);
+            assertThat(history.get(i + 1).getPersonId()).isEqualTo(history.get(i).getPersonId());
+        }
+    }
+
+    @Test
+    void onlyOneOfManySimultaneousBulkCheckoutsWins() throws Exception {
+        List<Boolean> results = runConcurrently(reader -> () ->
+                !bookService.assignAll(List.of(book.getId()), reader).getChanged().isEmpty());
+
+        assertThat(results).filteredOn(Boolean::booleanValue).hasSize(1);
+        Person winner = people.get(results.indexOf(true));
+        assertThat(bookRepository.findWithOwnerById(book.getId()).orElseThrow().getOwner().getId())
+                .isEqualTo(winner.getId());
+        assertThat(history()).extracting(LoanEvent::getPersonId).containsExactly(winner.getId());
+    }
+
+    @Test
+    void editsDuringCheckoutsAndReturnsAllSucceed() throws Exception {
+        List<Boolean> results = runConcurrently(reader -> () -> {
+            boolean editor = people.indexOf(reader) % 2 == 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                if (editor) {
+                    bookService.update(book.getId(), new Book(0, "Edited by " + reader.getName(), "Checkout Author", 2000));
+                } else if (bookService.assign(book.getId(), reader)) {
+                    bookService.release(book.getId());
+                }
+            }
+            return true;
+        });
+
+        assertThat(results).containsOnly(true);
+        Book stored = bookRepository.findWithOwnerById(book.getId()).orElseThrow();
+        assertThat(stored.getTitle()).startsWith("Edited by ");
+        assertThat(stored.getOwner()).isNull();
+    }
+
+    private List<LoanEvent> history() {
+        return loanEventRepository.findBookHistory(book.getId(), LocalDateTime.now().minusDays(1),
+                LocalDateTime.now().plusDays(1), Pageable.unpaged());
+    }
+
+    private List<Boolean> runConcurrently(Function<Person, Callable<Boolean>> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (Person reader : people) {
+                Callable<Boolean> callable = task.apply(reader);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return callable.call();
+                }));
+            }
+            start.countDown();
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
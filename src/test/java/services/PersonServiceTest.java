@@ -2,12 +2,21 @@ package services;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import ru.anhimov.library.cache.QueryResultCache;
 import ru.anhimov.library.models.Book;
 import ru.anhimov.library.models.Person;
 import ru.anhimov.library.repositories.PersonRepository;
+import ru.anhimov.library.search.SuggestionIndex;
+import ru.anhimov.library.services.LoanPolicy;
 import ru.anhimov.library.services.PersonService;
 
 import java.time.LocalDateTime;
@@ -22,9 +31,18 @@ class PersonServiceTest {
     public static final String OLD_NAME = "Old Name";
     public static final String NEW_NAME = "New Name";
 
-    @Mock
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
     private PersonRepository personRepository;
 
+    @Mock
+    private SuggestionIndex suggestionIndex;
+
+    @Spy
+    private QueryResultCache queryCache = new QueryResultCache(100);
+
+    @Spy
+    private LoanPolicy loanPolicy = new LoanPolicy(10);
+
     @InjectMocks
     private PersonService personService;
 
@@ -44,6 +62,18 @@ class PersonServiceTest {
         verify(personRepository, times(1)).findAll();
     }
 
+    @Test
+    void findByNamePrefixShouldRequestBoundedSortedPage() {
+        Slice<Person> slice = new SliceImpl<>(List.of(new Person()));
+        when(personRepository.findByNameStartingWithIgnoreCase("jo", PageRequest.of(2, 20, Sort.by("name"))))
+                .thenReturn(slice);
+
+        Slice<Person> result = personService.findByNamePrefix(" jo ", 2, 20);
+
+        assertSame(slice, result);
+        verify(personRepository, never()).findAll();
+    }
+
     @Test
     void findByIdShouldReturnPersonWhenPersonExists() {
         Person mockPerson = new Person();
@@ -74,6 +104,7 @@ class PersonServiceTest {
         personService.save(person);
 
         verify(personRepository, times(1)).save(eq(person));
+        verify(suggestionIndex, times(1)).indexPerson(person);
     }
 
     @Test
@@ -112,6 +143,7 @@ class PersonServiceTest {
         personService.delete(1);
 
         verify(personRepository, times(1)).deleteById(1);
+        verify(suggestionIndex, times(1)).removePerson(1);
     }
 
     @Test
@@ -0,0 +1,166 @@
+package stats;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.anhimov.library.config.SpringDataSourceTestConfig;
+import ru.anhimov.library.models.LoanEvent;
+import ru.anhimov.library.models.LoanEventType;
+import ru.anhimov.library.repositories.BookRepository;
+import ru.anhimov.library.repositories.CirculationStatRepository;
+import ru.anhimov.library.repositories.LoanEventRepository;
+import ru.anhimov.library.stats.CirculationStats;
+import ru.anhimov.library.stats.CirculationStatsFolder;
+import ru.anhimov.library.stats.StatsSnapshot;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {SpringDataSourceTestConfig.class})
+@TestPropertySource("classpath:hibernate-test.properties")
+@ActiveProfiles("test")
+class CirculationStatsFolderTest {
+    private static final Instant NOW = Instant.parse("2032-05-20T12:00:00Z");
+    private static final LocalDateTime NOW_LOCAL = LocalDateTime.ofInstant(NOW, ZoneOffset.UTC);
+
+    @Autowired
+    private LoanEventRepository loanEventRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CirculationStatRepository statRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long before;
+
+    @BeforeEach
+    void setUp() {
+        before = record(1, 10, LoanEventType.ASSIGN, NOW_LOCAL.minusMonths(1)).getId() - 1;
+        record(1, 10, LoanEventType.RELEASE, NOW_LOCAL.minusMonths(1).plusDays(1));
+        record(1, 11, LoanEventType.ASSIGN, NOW_LOCAL.minusDays(3));
+        record(2, 11, LoanEventType.ASSIGN, NOW_LOCAL.minusDays(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        loanEventRepository.deleteAll(loanEventRepository.findFoldBatch(before, Pageable.unpaged()));
+        statRepository.deleteAll();
+    }
+
+    @Test
+    void foldsNewEventsAndResumesFromPersistedCounters() {
+        CirculationStats stats = new CirculationStats(2, 12);
+        CirculationStatsFolder folder = folder(stats, NOW);
+        stats.load("watermark", before);
+
+        assertThat(folder.fold()).isEqualTo(4);
+        assertThat(folder.fold()).isZero();
+
+        StatsSnapshot snapshot = stats.snapshot();
+        assertThat(snapshot.getTopBooks()).containsExactly(Map.entry(1, 2L), Map.entry(2, 1L));
+        assertThat(snapshot.getTopBorrowers()).containsExactly(Map.entry(11, 2L), Map.entry(10, 1L));
+        assertThat(snapshot.getLoansPerMonth()).containsExactly(
+                Map.entry(YearMonth.from(NOW_LOCAL), 2L), Map.entry(YearMonth.from(NOW_LOCAL.minusMonths(1)), 1L));
+        assertThat(snapshot.getTotalBooks()).isEqualTo(bookRepository.count());
+
+        record(3, 11, LoanEventType.ASSIGN, NOW_LOCAL.minusSeconds(1));
+        CirculationStats restarted = new CirculationStats(2, 12);
+        assertThat(folder(restarted, NOW.plusSeconds(60)).fold()).isEqualTo(1);
+        assertThat(restarted.snapshot().getTopBorrowers()).containsExactly(Map.entry(11, 3L), Map.entry(10, 1L));
+        assertThat(restarted.snapshot().getLoansPerMonth()).containsEntry(YearMonth.from(NOW_LOCAL), 3L);
+    }
+
+    @Test
+    void foldsEventsThatCommitAfterALaterId() throws Exception {
+        CirculationStats stats = new CirculationStats(5, 12);
+        stats.load("watermark", before);
+        folder(stats, NOW).fold();
+
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> slowWriter = executor.submit(() -> new TransactionTemplate(transactionManager)
+                    .executeWithoutResult(status -> {
+                        record(4, 12, LoanEventType.ASSIGN, NOW_LOCAL);
+                        inserted.countDown();
+                        await(commit);
+                    }));
+            await(inserted);
+            record(5, 13, LoanEventType.ASSIGN, NOW_LOCAL);
+
+            assertThat(folder(stats, NOW).fold()).isEqualTo(1);
+            commit.countDown();
+            slowWriter.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        CirculationStats restarted = new CirculationStats(5, 12);
+        assertThat(folder(restarted, NOW.plusSeconds(1)).fold()).isEqualTo(1);
+        assertThat(restarted.snapshot().getTopBorrowers()).containsEntry(12, 1L);
+        assertThat(statRepository.findAll()).noneMatch(stat -> stat.getKey().startsWith("gap:"));
+    }
+
+    @Test
+    void abandonsGapsThatNeverCommit() {
+        CirculationStats stats = new CirculationStats(2, 12);
+        stats.load("watermark", before);
+        folder(stats, NOW).fold();
+        stats.load("gap:0", NOW.toEpochMilli());
+
+        folder(stats, NOW.plusSeconds(30)).fold();
+        assertThat(stats.getGaps()).containsExactly(0L);
+
+        folder(stats, NOW.plusSeconds(61)).fold();
+        assertThat(stats.getGaps()).isEmpty();
+    }
+
+    private CirculationStatsFolder folder(CirculationStats stats, Instant now) {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("library.stats.interval_ms", "0")
+                .withProperty("library.stats.gap_timeout_ms", "60000")
+                .withProperty("library.stats.batch_size", "3");
+        return new CirculationStatsFolder(stats, loanEventRepository, bookRepository, statRepository,
+                transactionManager, env, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private LoanEvent record(int bookId, int personId, LoanEventType type, LocalDateTime occurredAt) {
+        return loanEventRepository.save(new LoanEvent(bookId, personId, type, occurredAt));
+    }
+}
@@ -0,0 +1,58 @@
+package stats;
+
+import org.junit.jupiter.api.Test;
+import ru.anhimov.library.stats.TopCounter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TopCounterTest {
+
+    @Test
+    void keepsHighestCountsInDescendingOrder() {
+        TopCounter counter = new TopCounter(2);
+        counter.increment(1);
+        counter.increment(2);
+        counter.increment(2);
+        counter.increment(3);
+        counter.increment(3);
+        counter.increment(3);
+
+        assertThat(counter.top()).containsExactly(Map.entry(3, 3L), Map.entry(2, 2L));
+        assertThat(counter.get(1)).isEqualTo(1);
+        assertThat(counter.size()).isEqualTo(3);
+    }
+
+    @Test
+    void matchesFullSortForRandomIncrements() {
+        TopCounter counter = new TopCounter(5);
+        Map<Integer, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            int key = (int) Math.abs(random.nextGaussian() * 40);
+            counter.increment(key);
+            expected.merge(key, 1L, Long::sum);
+        }
+
+        long fifth = expected.values().stream().sorted((a, b) -> Long.compare(b, a)).skip(4).findFirst().orElseThrow();
+        assertThat(new ArrayList<>(counter.top().values())).isSortedAccordingTo(Comparator.reverseOrder());
+        assertThat(counter.top()).hasSize(5).allSatisfy((key, count) -> {
+            assertThat(count).isEqualTo(expected.get(key));
+            assertThat(count).isGreaterThanOrEqualTo(fifth);
+        });
+        assertThat(expected.entrySet().stream().filter(entry -> entry.getValue() > fifth).map(Map.Entry::getKey)
+                .collect(Collectors.toSet())).isSubsetOf(counter.top().keySet());
+    }
+
+    @Test
+    void rejectsEmptyTop() {
+        assertThatThrownBy(() -> new TopCounter(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}